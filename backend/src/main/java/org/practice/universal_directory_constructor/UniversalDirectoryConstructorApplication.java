@@ -2,8 +2,10 @@ package org.practice.universal_directory_constructor;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class UniversalDirectoryConstructorApplication {
 
     public static void main(String[] args) {
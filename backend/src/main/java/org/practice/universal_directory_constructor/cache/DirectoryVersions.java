@@ -0,0 +1,198 @@
+package org.practice.universal_directory_constructor.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.event.DirectoryChangedEvent;
+import org.practice.universal_directory_constructor.event.DirectoryVersionsRefreshedEvent;
+import org.practice.universal_directory_constructor.event.RecordCountsReconciledEvent;
+import org.practice.universal_directory_constructor.event.RecordDeletedEvent;
+import org.practice.universal_directory_constructor.event.RecordSavedEvent;
+import org.practice.universal_directory_constructor.event.RecordsMigratedEvent;
+import org.practice.universal_directory_constructor.repository.DirectoryRecordCountRepository;
+import org.practice.universal_directory_constructor.schema.DirectorySchemaCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Data/schema versions per directory, persisted by {@link DirectoryRecordCountRepository} in the writing transaction
+ * and cached here, so ETags survive restarts and agree between instances. A change committed by this process is read
+ * back by the first lookup after its commit; one committed by another instance is picked up by {@link #refresh()},
+ * which also publishes a {@link DirectoryVersionsRefreshedEvent} for the in-memory caches. Until then another
+ * instance's change can still be answered with a 304, a delay bounded by the refresh interval, as replica lag is.
+ * Callers must read the ETag before running the query it describes: a change committed in between then
+ * only costs the client one extra full response, never a stale 304.
+ */
+@Component
+@RequiredArgsConstructor
+public class DirectoryVersions {
+    private final DirectorySchemaCache schemaCache;
+    private final DirectoryRecordCountRepository recordCountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> changedAt = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile Long lastChangedAt;
+
+    public long version(Long directoryId) {
+        reloadStale();
+        return versions.getOrDefault(directoryId, 0L);
+    }
+
+    /**
+     * Tag for the directory listing, which includes fields and record counts of every directory.
+     */
+    public String directoriesETag() {
+        reloadStale();
+        long hash = 0;
+        for (Map.Entry<Long, Long> entry : versions.entrySet()) {
+            hash += mix(entry.getKey() * 0x9E3779B97F4A7C15L + entry.getValue());
+        }
+        return "\"" + Long.toUnsignedString(hash, 36) + "\"";
+    }
+
+    /**
+     * Tag for record reads of one directory, 404 if it does not exist. Referenced directories are included
+     * because expanded labels come from them.
+     */
+    public String recordsETag(Long directoryId) {
+        return "\"" + recordsGeneration(directoryId) + "\"";
+    }
+
+    /**
+     * Generation of the record reads of one directory: its own version followed by the versions of the directories
+     * it references. Any change to them yields a different value.
+     */
+    public String recordsGeneration(Long directoryId) {
+        var schema = schemaCache.get(directoryId);
+        var generation = new StringBuilder().append(version(schema.directoryId()));
+        for (DirectoryFields field : schema.referenceFields()) {
+            generation.append('.').append(version(field.getDirectoryId()));
+        }
+        return generation.toString();
+    }
+
+    /**
+     * Whether the directory or one it references changed within the given window, judged by when the change
+     * was committed or, for another instance's change, noticed.
+     */
+    public boolean recordsChangedWithin(Long directoryId, Duration window) {
+        var schema = schemaCache.get(directoryId);
+        long since = System.nanoTime() - window.toNanos();
+        if (changedAfter(schema.directoryId(), since)) {
+            return true;
+        }
+        for (DirectoryFields field : schema.referenceFields()) {
+            if (changedAfter(field.getDirectoryId(), since)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether anything covered by {@link #directoriesETag()} changed within the given window.
+     */
+    public boolean anyChangedWithin(Duration window) {
+        var changed = lastChangedAt;
+        return changed != null && changed - (System.nanoTime() - window.toNanos()) > 0;
+    }
+
+    /**
+     * Reloads every version. The versions only grow, so a reload racing with a newer lookup never moves one back.
+     */
+    @Scheduled(fixedDelayString = "${app.records.versions.refresh-interval:1s}")
+    public synchronized void refresh() {
+        var fresh = recordCountRepository.findVersions();
+        Set<Long> changed = new HashSet<>();
+        fresh.forEach((directoryId, version) -> {
+            if (version > versions.getOrDefault(directoryId, 0L)) {
+                versions.merge(directoryId, version, Math::max);
+                changed.add(directoryId);
+            }
+        });
+        if (!loaded) {
+            loaded = true;
+            return;
+        }
+        if (!changed.isEmpty()) {
+            long now = System.nanoTime();
+            changed.forEach(directoryId -> changedAt.put(directoryId, now));
+            lastChangedAt = now;
+            eventPublisher.publishEvent(new DirectoryVersionsRefreshedEvent(changed));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onRecordSaved(RecordSavedEvent event) {
+        changed(event.directoryId());
+    }
+
+    @TransactionalEventListener
+    public void onRecordDeleted(RecordDeletedEvent event) {
+        changed(event.directoryId());
+    }
+
+    @TransactionalEventListener
+    public void onDirectoryChanged(DirectoryChangedEvent event) {
+        changed(event.directoryId());
+    }
+
+    @TransactionalEventListener
+    public void onRecordsMigrated(RecordsMigratedEvent event) {
+        changed(event.directoryId());
+    }
+
+    @TransactionalEventListener
+    public void onRecordCountsReconciled(RecordCountsReconciledEvent event) {
+        lastChangedAt = System.nanoTime();
+        stale.addAll(versions.keySet());
+    }
+
+    /**
+     * Lookups of directories changed since their last read query the committed versions first. An id is taken off
+     * the stale set before the query, so a commit that lands meanwhile marks it again.
+     */
+    private void reloadStale() {
+        if (!loaded) {
+            refresh();
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(stale);
+        stale.removeAll(ids);
+        var fresh = recordCountRepository.findVersions(ids);
+        for (Long directoryId : ids) {
+            versions.merge(directoryId, fresh.getOrDefault(directoryId, 0L), Math::max);
+        }
+    }
+
+    private boolean changedAfter(Long directoryId, long since) {
+        var changed = changedAt.get(directoryId);
+        return changed != null && changed - since > 0;
+    }
+
+    private void changed(Long directoryId) {
+        long now = System.nanoTime();
+        changedAt.put(directoryId, now);
+        lastChangedAt = now;
+        stale.add(directoryId);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,210 @@
+package org.practice.universal_directory_constructor.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded map of positive {@code long} keys to {@code long} values backed by open-addressing primitive arrays.
+ * The table is split into independently locked segments; a full segment evicts with a CLOCK sweep.
+ */
+public final class LongLongCache {
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LongLongCache(int maxEntries, int segmentCount) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        int count = Integer.highestOneBit(Math.max(1, Math.min(segmentCount, maxEntries)));
+        this.segments = new Segment[count];
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(count);
+        int perSegment = Math.max(1, maxEntries / count);
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    public long get(long key) {
+        if (key <= 0) {
+            return ABSENT;
+        }
+        long hash = hash(key);
+        long value = segmentFor(hash).get(key, (int) hash);
+        (value == ABSENT ? misses : hits).increment();
+        return value;
+    }
+
+    public void put(long key, long value) {
+        if (key <= 0) {
+            return;
+        }
+        long hash = hash(key);
+        if (segmentFor(hash).put(key, value, (int) hash)) {
+            evictions.increment();
+        }
+    }
+
+    public void remove(long key) {
+        if (key <= 0) {
+            return;
+        }
+        long hash = hash(key);
+        segmentFor(hash).remove(key, (int) hash);
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long capacity() {
+        return (long) segments[0].maxEntries * segments.length;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments.length == 1 ? segments[0] : segments[(int) (hash >>> segmentShift)];
+    }
+
+    private static long hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private static final class Segment {
+        private final long[] keys;
+        private final long[] values;
+        private final byte[] referenced;
+        private final int mask;
+        private final int maxEntries;
+        private int size;
+        private int hand;
+
+        Segment(int maxEntries) {
+            int tableSize = Integer.highestOneBit(Math.max(2, maxEntries) * 2 - 1) << 1;
+            this.keys = new long[tableSize];
+            this.values = new long[tableSize];
+            this.referenced = new byte[tableSize];
+            this.mask = tableSize - 1;
+            this.maxEntries = maxEntries;
+        }
+
+        synchronized long get(long key, int hash) {
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                long k = keys[i];
+                if (k == key) {
+                    referenced[i] = 1;
+                    return values[i];
+                }
+                if (k == 0) {
+                    return ABSENT;
+                }
+            }
+        }
+
+        synchronized boolean put(long key, long value, int hash) {
+            int i = hash & mask;
+            for (; keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    referenced[i] = 1;
+                    return false;
+                }
+            }
+            boolean evicted = false;
+            if (size >= maxEntries) {
+                evict();
+                evicted = true;
+                // eviction may shift entries back into the probe chain, so look for a free slot again
+                for (i = hash & mask; keys[i] != 0; i = (i + 1) & mask) {
+                }
+            }
+            keys[i] = key;
+            values[i] = value;
+            referenced[i] = 0;
+            size++;
+            return evicted;
+        }
+
+        synchronized void remove(long key, int hash) {
+            for (int i = hash & mask; keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    deleteAt(i);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        synchronized void clear() {
+            Arrays.fill(keys, 0L);
+            Arrays.fill(values, 0L);
+            Arrays.fill(referenced, (byte) 0);
+            size = 0;
+            hand = 0;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private void evict() {
+            while (true) {
+                int i = hand;
+                hand = (hand + 1) & mask;
+                if (keys[i] == 0) {
+                    continue;
+                }
+                if (referenced[i] != 0) {
+                    referenced[i] = 0;
+                    continue;
+                }
+                deleteAt(i);
+                size--;
+                return;
+            }
+        }
+
+        // Backward-shift deletion keeps linear probe chains intact without tombstones.
+        private void deleteAt(int hole) {
+            for (int j = (hole + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+                int home = (int) hash(keys[j]) & mask;
+                boolean movable = hole <= j ? (home <= hole || home > j) : (home <= hole && home > j);
+                if (movable) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    referenced[hole] = referenced[j];
+                    hole = j;
+                }
+            }
+            keys[hole] = 0;
+            values[hole] = 0;
+            referenced[hole] = 0;
+        }
+    }
+}
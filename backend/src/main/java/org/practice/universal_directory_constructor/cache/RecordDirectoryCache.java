@@ -0,0 +1,64 @@
+package org.practice.universal_directory_constructor.cache;
+
+import org.practice.universal_directory_constructor.config.properties.RecordDirectoryCacheProperties;
+import org.practice.universal_directory_constructor.dto.cache.CacheStatsDTO;
+import org.practice.universal_directory_constructor.event.RecordDeletedEvent;
+import org.practice.universal_directory_constructor.event.RecordSavedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Remembers which directory a record belongs to. The mapping never changes while the record exists,
+ * so entries only have to be dropped when the record is deleted.
+ */
+@Component
+public class RecordDirectoryCache {
+    public static final String NAME = "record-directory";
+
+    private final LongLongCache cache;
+
+    public RecordDirectoryCache(RecordDirectoryCacheProperties properties) {
+        this.cache = properties.enabled() ? new LongLongCache(properties.maxEntries(), properties.segments()) : null;
+    }
+
+    public Long find(Long recordId) {
+        if (cache == null || recordId == null) {
+            return null;
+        }
+        long directoryId = cache.get(recordId);
+        return directoryId == LongLongCache.ABSENT ? null : directoryId;
+    }
+
+    public void put(Long recordId, Long directoryId) {
+        if (cache != null && recordId != null && directoryId != null) {
+            cache.put(recordId, directoryId);
+        }
+    }
+
+    public void evict(Long recordId) {
+        if (cache != null && recordId != null) {
+            cache.remove(recordId);
+        }
+    }
+
+    public CacheStatsDTO stats() {
+        if (cache == null) {
+            return new CacheStatsDTO(NAME, false, 0, 0, 0, 0, 0, 0);
+        }
+        long hits = cache.hits();
+        long misses = cache.misses();
+        long lookups = hits + misses;
+        return new CacheStatsDTO(NAME, true, cache.size(), cache.capacity(), hits, misses, cache.evictions(),
+                lookups == 0 ? 0 : (double) hits / lookups);
+    }
+
+    @TransactionalEventListener
+    public void onRecordSaved(RecordSavedEvent event) {
+        put(event.recordId(), event.directoryId());
+    }
+
+    @TransactionalEventListener
+    public void onRecordDeleted(RecordDeletedEvent event) {
+        evict(event.recordId());
+    }
+}
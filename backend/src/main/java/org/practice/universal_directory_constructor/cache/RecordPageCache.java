@@ -0,0 +1,200 @@
+package org.practice.universal_directory_constructor.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.config.properties.RecordPageCacheProperties;
+import org.practice.universal_directory_constructor.datasource.FreshReads;
+import org.practice.universal_directory_constructor.dto.RawRecordDTO;
+import org.practice.universal_directory_constructor.dto.cache.CacheStatsDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Results of record reads, keyed by directory and query and tagged with the directory's records generation from
+ * {@link DirectoryVersions}. An entry is only served while that generation is current, so every committed change
+ * to the directory or a directory it references retires its entries without an explicit purge. Stale entries are
+ * dropped on their next lookup or evicted in LRU order once the entry count or the estimated memory is exceeded.
+ * The generation is read before the query runs, so a change committed meanwhile can only leave behind an entry
+ * nobody asks for anymore. Loads are routed by {@link FreshReads}, so a lagging replica cannot store pre-change
+ * results under the new generation.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecordPageCache {
+    public static final String NAME = "record-pages";
+
+    private static final long ENTRY_OVERHEAD = 160;
+    private static final long RECORD_OVERHEAD = 96;
+    private static final long LABEL_OVERHEAD = 112;
+
+    private final DirectoryVersions versions;
+    private final RecordPageCacheProperties properties;
+    private final FreshReads freshReads;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long memory;
+
+    public <T> T get(Long directoryId, Object query, Supplier<T> loader, ToLongFunction<T> weigher) {
+        if (!properties.enabled()) {
+            return freshReads.records(directoryId, loader);
+        }
+        var key = new Key(directoryId, query);
+        var generation = versions.recordsGeneration(directoryId);
+        var cached = lookup(key, generation);
+        if (cached != null) {
+            @SuppressWarnings("unchecked")
+            T value = (T) cached;
+            return value;
+        }
+        var value = freshReads.records(directoryId, loader);
+        put(key, generation, value, ENTRY_OVERHEAD + weigher.applyAsLong(value));
+        return value;
+    }
+
+    /**
+     * Streamed exports are cached as the bytes written to the client, as long as they stay within the entry size
+     * limit; larger exports are passed through.
+     */
+    public StreamingResponseBody getBody(Long directoryId, Object query, Supplier<StreamingResponseBody> loader) {
+        if (!properties.enabled()) {
+            return freshReads.recordsBody(directoryId, loader.get());
+        }
+        var key = new Key(directoryId, query);
+        var generation = versions.recordsGeneration(directoryId);
+        if (lookup(key, generation) instanceof byte[] bytes) {
+            return out -> out.write(bytes);
+        }
+        var body = freshReads.recordsBody(directoryId, loader.get());
+        return out -> {
+            var capture = new CapturingOutputStream(out, properties.maxEntrySize().toBytes());
+            body.writeTo(capture);
+            var bytes = capture.captured();
+            if (bytes != null) {
+                put(key, generation, bytes, ENTRY_OVERHEAD + bytes.length);
+            }
+        };
+    }
+
+    public static long weigh(Collection<RawRecordDTO> records) {
+        long bytes = 0;
+        for (RawRecordDTO record : records) {
+            bytes += RECORD_OVERHEAD + 2L * (record.values() == null ? 0 : record.values().length());
+            if (record.labels() != null) {
+                for (Map.Entry<String, String> label : record.labels().entrySet()) {
+                    bytes += LABEL_OVERHEAD + 2L * (label.getKey().length()
+                            + (label.getValue() == null ? 0 : label.getValue().length()));
+                }
+            }
+        }
+        return bytes;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        memory = 0;
+    }
+
+    public CacheStatsDTO stats() {
+        if (!properties.enabled()) {
+            return new CacheStatsDTO(NAME, false, 0, 0, 0, 0, 0, 0);
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        int size;
+        long used;
+        synchronized (this) {
+            size = entries.size();
+            used = memory;
+        }
+        return new CacheStatsDTO(NAME, true, size, properties.maxEntries(), hitCount, missCount, evictions.sum(),
+                lookups == 0 ? 0 : (double) hitCount / lookups, used, properties.maxMemory().toBytes());
+    }
+
+    private synchronized Object lookup(Key key, String generation) {
+        var entry = entries.get(key);
+        if (entry != null && entry.generation().equals(generation)) {
+            hits.increment();
+            return entry.value();
+        }
+        if (entry != null) {
+            entries.remove(key);
+            memory -= entry.weight();
+        }
+        misses.increment();
+        return null;
+    }
+
+    private synchronized void put(Key key, String generation, Object value, long weight) {
+        if (weight > properties.maxEntrySize().toBytes()) {
+            return;
+        }
+        var previous = entries.put(key, new Entry(generation, value, weight));
+        if (previous != null) {
+            memory -= previous.weight();
+        }
+        memory += weight;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > properties.maxEntries() || memory > properties.maxMemory().toBytes()) {
+            memory -= eldest.next().weight();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Key(Long directoryId, Object query) {
+    }
+
+    private record Entry(String generation, Object value, long weight) {
+    }
+
+    private static final class CapturingOutputStream extends FilterOutputStream {
+        private final long limit;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        private CapturingOutputStream(OutputStream out, long limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (capture(1)) {
+                buffer.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (capture(len)) {
+                buffer.write(b, off, len);
+            }
+        }
+
+        byte[] captured() {
+            return buffer == null ? null : buffer.toByteArray();
+        }
+
+        private boolean capture(int len) {
+            if (buffer != null && buffer.size() + (long) len > limit) {
+                buffer = null;
+            }
+            return buffer != null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.practice.universal_directory_constructor.config;
+
+import org.practice.universal_directory_constructor.config.properties.ChangeFeedProperties;
+import org.practice.universal_directory_constructor.config.properties.RecordImportProperties;
+import org.practice.universal_directory_constructor.config.properties.RecordStreamProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor indexTaskExecutor() {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("field-index-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * One thread, so migrations of a directory run in the order they were queued.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor migrationTaskExecutor() {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("schema-migration-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor importTaskExecutor(RecordImportProperties properties) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("record-import-");
+        executor.setCorePoolSize(properties.workers());
+        executor.setMaxPoolSize(properties.workers());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Writes streamed response bodies; without it, MVC starts an unbounded thread per streaming request.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor streamTaskExecutor(RecordStreamProperties properties) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("record-stream-");
+        executor.setCorePoolSize(properties.workers());
+        executor.setMaxPoolSize(properties.workers());
+        executor.setQueueCapacity(properties.queueCapacity());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Sends change feed events; each subscriber has at most one send queued or running.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor changeFeedTaskExecutor(ChangeFeedProperties properties) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("change-feed-");
+        executor.setCorePoolSize(properties.senders());
+        executor.setMaxPoolSize(properties.senders());
+        executor.setQueueCapacity(properties.maxSubscribers());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
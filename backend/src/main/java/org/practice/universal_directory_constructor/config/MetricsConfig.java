@@ -0,0 +1,49 @@
+package org.practice.universal_directory_constructor.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.format.jackson.JacksonJsonFormatMapper;
+import org.practice.universal_directory_constructor.config.properties.MetricsProperties;
+import org.practice.universal_directory_constructor.metrics.CountingJsonFormatMapper;
+import org.practice.universal_directory_constructor.metrics.EntityLoadCountingInterceptor;
+import org.practice.universal_directory_constructor.metrics.RequestCounters;
+import org.practice.universal_directory_constructor.metrics.StatementCountingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer requestMetricsHibernateCustomizer(MetricsProperties properties) {
+        return hibernateProperties -> {
+            if (!properties.enabled()) {
+                return;
+            }
+            hibernateProperties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCountingInterceptor());
+            hibernateProperties.put(AvailableSettings.JSON_FORMAT_MAPPER,
+                    new CountingJsonFormatMapper(new JacksonJsonFormatMapper()));
+        };
+    }
+
+    /**
+     * Counts statements on the application datasource, so JdbcTemplate reads are included. Only the outermost
+     * {@code dataSource} bean is wrapped; with read replicas the pools behind it would count the same statement again.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.metrics", name = "enabled", matchIfMissing = true)
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                        ? new StatementCountingDataSource(dataSource, RequestCounters::statement)
+                        : bean;
+            }
+        };
+    }
+}
@@ -1,18 +1,66 @@
 package org.practice.universal_directory_constructor.config;
 
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.config.properties.ReadReplicaProperties;
+import org.practice.universal_directory_constructor.config.properties.RecordStreamProperties;
+import org.practice.universal_directory_constructor.datasource.ReadYourWritesInterceptor;
+import org.practice.universal_directory_constructor.metrics.RequestMetricsInterceptor;
+import org.practice.universal_directory_constructor.util.cbor.CborHttpMessageConverter;
+import org.practice.universal_directory_constructor.util.cbor.ColumnarRecordsHttpMessageConverter;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.json.JsonMapper;
 
 @Configuration
 @EnableWebMvc
+@RequiredArgsConstructor
 public class WebSecurityConfig implements WebMvcConfigurer {
+    private final RecordStreamProperties streamProperties;
+    private final RequestMetricsInterceptor requestMetricsInterceptor;
+    private final ReadYourWritesInterceptor readYourWritesInterceptor;
+    private final ReadReplicaProperties replicaProperties;
+    private final JsonMapper jsonMapper;
+    private final ThreadPoolTaskExecutor streamTaskExecutor;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
                 .allowedOrigins("http://localhost:5173")
-                .allowedMethods("GET", "POST", "PUT", "DELETE")
-                .allowedHeaders("Authorization", "Content-Type");
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE")
+                .allowedHeaders("Authorization", "Content-Type", "If-Match", "If-None-Match",
+                        ReadYourWritesInterceptor.HEADER)
+                .exposedHeaders("ETag", ReadYourWritesInterceptor.HEADER);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestMetricsInterceptor).addPathPatterns("/api/**");
+        if (replicaProperties.enabled() && replicaProperties.readYourWrites()) {
+            registry.addInterceptor(readYourWritesInterceptor).addPathPatterns("/api/**");
+        }
+    }
+
+    /**
+     * JSON stays the default; {@code application/cbor} and the columnar record encoding are only served when asked
+     * for in {@code Accept}. Custom converters would go ahead of JSON and be picked for wildcard {@code Accept}
+     * headers, so the columnar one is appended last.
+     */
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new CborHttpMessageConverter(jsonMapper))
+                .configureMessageConvertersList(converters ->
+                        converters.add(new ColumnarRecordsHttpMessageConverter(jsonMapper)));
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(streamProperties.timeout().toMillis());
+        configurer.setTaskExecutor(streamTaskExecutor);
     }
 }
@@ -0,0 +1,23 @@
+package org.practice.universal_directory_constructor.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.changes")
+public record ChangeFeedProperties(
+        @DefaultValue("250ms") Duration flushInterval,
+        @DefaultValue("1000") int bufferSize,
+        @DefaultValue("1000") int maxSubscribers,
+        @DefaultValue("30m") Duration timeout,
+        @DefaultValue("30s") Duration heartbeat,
+        @DefaultValue("4") int senders,
+        @DefaultValue("10s") Duration sendTimeout
+) {
+    public ChangeFeedProperties {
+        if (bufferSize < 1 || maxSubscribers < 1 || senders < 1) {
+            throw new IllegalArgumentException("app.changes buffer-size, max-subscribers and senders must be positive");
+        }
+    }
+}
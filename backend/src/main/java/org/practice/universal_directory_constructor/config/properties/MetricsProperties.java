@@ -0,0 +1,18 @@
+package org.practice.universal_directory_constructor.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.metrics")
+public record MetricsProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("500ms") Duration slowRequestThreshold
+) {
+    public MetricsProperties {
+        if (slowRequestThreshold.isNegative()) {
+            throw new IllegalArgumentException("app.metrics.slow-request-threshold must not be negative");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.practice.universal_directory_constructor.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.datasource")
+public record ReadReplicaProperties(
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("5s") Duration healthCheckInterval,
+        @DefaultValue("2s") Duration maxLag,
+        @DefaultValue("true") boolean readYourWrites,
+        @DefaultValue("10s") Duration stickyWindow,
+        @DefaultValue("2s") Duration connectionTimeout
+) {
+    public ReadReplicaProperties {
+        for (Replica replica : replicas) {
+            if (replica.url() == null || replica.url().isBlank()) {
+                throw new IllegalArgumentException("app.datasource.replicas url must not be blank");
+            }
+            if (replica.maxPoolSize() < 1) {
+                throw new IllegalArgumentException("app.datasource.replicas max-pool-size must be positive");
+            }
+        }
+        if (!positive(healthCheckInterval) || !positive(maxLag) || !positive(connectionTimeout)) {
+            throw new IllegalArgumentException(
+                    "app.datasource health-check-interval, max-lag and connection-timeout must be positive");
+        }
+        if (stickyWindow.compareTo(maxLag.plus(healthCheckInterval)) < 0) {
+            throw new IllegalArgumentException(
+                    "app.datasource.sticky-window must cover max-lag plus health-check-interval");
+        }
+    }
+
+    public boolean enabled() {
+        return !replicas.isEmpty();
+    }
+
+    private static boolean positive(Duration duration) {
+        return !duration.isNegative() && !duration.isZero();
+    }
+
+    /**
+     * Username and password fall back to the primary's {@code spring.datasource} credentials.
+     */
+    public record Replica(
+            String url,
+            String username,
+            String password,
+            @DefaultValue("10") int maxPoolSize
+    ) {
+    }
+}
@@ -0,0 +1,11 @@
+package org.practice.universal_directory_constructor.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.records.batch")
+public record RecordBatchProperties(
+        @DefaultValue("10000") int maxSize,
+        @DefaultValue("500") int flushSize
+) {
+}
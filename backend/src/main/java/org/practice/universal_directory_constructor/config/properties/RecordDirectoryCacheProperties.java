@@ -0,0 +1,17 @@
+package org.practice.universal_directory_constructor.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.records.directory-cache")
+public record RecordDirectoryCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1000000") int maxEntries,
+        @DefaultValue("16") int segments
+) {
+    public RecordDirectoryCacheProperties {
+        if (maxEntries < 1 || segments < 1) {
+            throw new IllegalArgumentException("app.records.directory-cache max-entries and segments must be positive");
+        }
+    }
+}
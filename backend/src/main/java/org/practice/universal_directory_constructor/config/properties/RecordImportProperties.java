@@ -0,0 +1,13 @@
+package org.practice.universal_directory_constructor.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.records.import")
+public record RecordImportProperties(
+        @DefaultValue("5000") int chunkSize,
+        @DefaultValue("1000") int maxRejectedReport,
+        @DefaultValue("100") int keepFinishedJobs,
+        @DefaultValue("2") int workers
+) {
+}
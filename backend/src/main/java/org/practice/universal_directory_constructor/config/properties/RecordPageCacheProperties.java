@@ -0,0 +1,25 @@
+package org.practice.universal_directory_constructor.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "app.records.page-cache")
+public record RecordPageCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") int maxEntries,
+        @DefaultValue("64MB") DataSize maxMemory,
+        @DefaultValue("1MB") DataSize maxEntrySize
+) {
+    public RecordPageCacheProperties {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("app.records.page-cache.max-entries must be positive");
+        }
+        if (maxMemory.toBytes() < 1 || maxEntrySize.toBytes() < 1) {
+            throw new IllegalArgumentException("app.records.page-cache max-memory and max-entry-size must be positive");
+        }
+        if (maxEntrySize.toBytes() > maxMemory.toBytes()) {
+            throw new IllegalArgumentException("app.records.page-cache.max-entry-size must not exceed max-memory");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.practice.universal_directory_constructor.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.records.stream")
+public record RecordStreamProperties(
+        @DefaultValue("500") int fetchSize,
+        @DefaultValue("10m") Duration timeout,
+        @DefaultValue("16") int workers,
+        @DefaultValue("64") int queueCapacity
+) {
+}
@@ -0,0 +1,15 @@
+package org.practice.universal_directory_constructor.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.records.labels")
+public record ReferenceLabelProperties(
+        @DefaultValue("10000") int cacheSize
+) {
+    public ReferenceLabelProperties {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("app.records.labels.cache-size must be positive");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.practice.universal_directory_constructor.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.schema.cache")
+public record SchemaCacheProperties(
+        @DefaultValue("1000") int maxSize
+) {
+    public SchemaCacheProperties {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("app.schema.cache.max-size must be positive");
+        }
+    }
+}
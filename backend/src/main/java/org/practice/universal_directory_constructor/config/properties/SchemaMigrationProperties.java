@@ -0,0 +1,21 @@
+package org.practice.universal_directory_constructor.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.schema.migration")
+public record SchemaMigrationProperties(
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("20ms") Duration pause
+) {
+    public SchemaMigrationProperties {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("app.schema.migration.chunk-size must be positive");
+        }
+        if (pause.isNegative()) {
+            throw new IllegalArgumentException("app.schema.migration.pause must not be negative");
+        }
+    }
+}
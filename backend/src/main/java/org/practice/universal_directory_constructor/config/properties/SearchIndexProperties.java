@@ -0,0 +1,16 @@
+package org.practice.universal_directory_constructor.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.search.index")
+public record SearchIndexProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("3") int gramSize
+) {
+    public SearchIndexProperties {
+        if (gramSize < 2 || gramSize > 4) {
+            throw new IllegalArgumentException("app.search.index.gram-size must be between 2 and 4");
+        }
+    }
+}
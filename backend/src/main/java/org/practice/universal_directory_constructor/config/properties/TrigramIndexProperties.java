@@ -0,0 +1,11 @@
+package org.practice.universal_directory_constructor.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.search.trigram")
+public record TrigramIndexProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("true") boolean syncOnStartup
+) {
+}
@@ -0,0 +1,68 @@
+package org.practice.universal_directory_constructor.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.cache.RecordDirectoryCache;
+import org.practice.universal_directory_constructor.cache.RecordPageCache;
+import org.practice.universal_directory_constructor.dto.cache.CacheStatsDTO;
+import org.practice.universal_directory_constructor.dto.fieldIndex.FieldIndexDTO;
+import org.practice.universal_directory_constructor.dto.metrics.MetricsDTO;
+import org.practice.universal_directory_constructor.entity.StorageMode;
+import org.practice.universal_directory_constructor.service.DirectoryService;
+import org.practice.universal_directory_constructor.service.FieldIndexService;
+import org.practice.universal_directory_constructor.service.MetricsService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin")
+public class AdminController {
+    private final FieldIndexService fieldIndexService;
+    private final RecordDirectoryCache recordDirectoryCache;
+    private final RecordPageCache recordPageCache;
+    private final DirectoryService directoryService;
+    private final MetricsService metricsService;
+
+    @GetMapping("/directories/{id}/indexes")
+    public List<FieldIndexDTO> findIndexes(@PathVariable Long id) {
+        return fieldIndexService.findAll(id);
+    }
+
+    @PostMapping("/directories/{id}/indexes/sync")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void syncIndexes(@PathVariable Long id) {
+        fieldIndexService.scheduleSync(id);
+    }
+
+    @PutMapping("/directories/{id}/storage")
+    public void changeStorageMode(@PathVariable Long id, @RequestParam StorageMode mode) {
+        directoryService.changeStorageMode(id, mode);
+    }
+
+    @GetMapping("/caches")
+    public List<CacheStatsDTO> findCacheStats() {
+        return List.of(recordDirectoryCache.stats(), recordPageCache.stats());
+    }
+
+    @GetMapping("/metrics")
+    public MetricsDTO findMetrics() {
+        return metricsService.snapshot();
+    }
+
+    @DeleteMapping("/metrics")
+    public void resetMetrics() {
+        metricsService.reset();
+    }
+
+    @PostMapping("/references/rebuild")
+    public void rebuildReferences() {
+        directoryService.rebuildReferences();
+    }
+
+    @PostMapping("/record-counts/reconcile")
+    public void reconcileRecordCounts() {
+        directoryService.reconcileRecordCounts();
+    }
+}
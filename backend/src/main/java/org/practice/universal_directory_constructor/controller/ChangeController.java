@@ -0,0 +1,24 @@
+package org.practice.universal_directory_constructor.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.feed.ChangeFeed;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/changes")
+public class ChangeController {
+    private final ChangeFeed changeFeed;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam(required = false, defaultValue = "") Set<Long> directoryId) {
+        return changeFeed.subscribe(directoryId);
+    }
+}
@@ -0,0 +1,42 @@
+package org.practice.universal_directory_constructor.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+final class ConditionalGet {
+    private ConditionalGet() {
+    }
+
+    /**
+     * Sets the ETag and answers 304 when {@code If-None-Match} matches; {@code no-cache} makes browsers revalidate
+     * every time instead of serving a page they guessed to be fresh. The same ETag covers every encoding negotiated
+     * from {@code Accept}, so caches are told to keep them apart.
+     */
+    static boolean notModified(ServletWebRequest request, String etag) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * Record version from an {@code If-Match} header (the ETag a record write returned), null when absent.
+     */
+    static Long version(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        var tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "If-Match must be a record version");
+        }
+    }
+}
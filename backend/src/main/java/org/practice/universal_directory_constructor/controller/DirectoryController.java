@@ -1,12 +1,19 @@
 package org.practice.universal_directory_constructor.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.cache.DirectoryVersions;
+import org.practice.universal_directory_constructor.datasource.FreshReads;
 import org.practice.universal_directory_constructor.dto.directoriesCountData.DirectoryAndCount;
 import org.practice.universal_directory_constructor.dto.DirectoryDTOCreate;
 import org.practice.universal_directory_constructor.dto.DirectoryDTO;
+import org.practice.universal_directory_constructor.dto.migration.FieldChangeDTO;
+import org.practice.universal_directory_constructor.dto.migration.SchemaMigrationDTO;
 import org.practice.universal_directory_constructor.service.DirectoryService;
+import org.practice.universal_directory_constructor.service.SchemaMigrationService;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -15,10 +22,17 @@ import java.util.List;
 @RequestMapping("/api/directories")
 public class DirectoryController {
     private final DirectoryService service;
+    private final SchemaMigrationService migrationService;
+    private final DirectoryVersions versions;
+    private final FreshReads freshReads;
 
     @GetMapping
-    public List<DirectoryAndCount> findAll() {
-        return service.findAll();
+    public List<DirectoryAndCount> findAll(@RequestParam(defaultValue = "true") boolean includeFields,
+                                           ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, versions.directoriesETag())) {
+            return null;
+        }
+        return freshReads.directories(() -> service.findAll(includeFields));
     }
 
     @PostMapping
@@ -27,7 +41,23 @@ public class DirectoryController {
     }
 
     @PutMapping("/{id}")
-    public DirectoryDTO update(@PathVariable Long id, @RequestBody @Valid DirectoryDTO dto) {
-        return service.update(id, dto);
+    public DirectoryDTO update(@PathVariable Long id, @RequestBody @Valid DirectoryDTO dto,
+                               @RequestParam(defaultValue = "false") boolean dropValues) {
+        return service.update(id, dto, dropValues);
+    }
+
+    @PostMapping("/{id}/migrations")
+    public DirectoryDTO migrate(@PathVariable Long id, @RequestBody @NotEmpty List<@Valid FieldChangeDTO> changes) {
+        return service.migrate(id, changes);
+    }
+
+    @GetMapping("/{id}/migrations")
+    public List<SchemaMigrationDTO> findMigrations(@PathVariable Long id) {
+        return migrationService.findAll(id);
+    }
+
+    @GetMapping("/migrations/{migrationId}")
+    public SchemaMigrationDTO findMigration(@PathVariable Long migrationId) {
+        return migrationService.find(migrationId);
     }
 }
@@ -0,0 +1,40 @@
+package org.practice.universal_directory_constructor.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.dto.importJob.ImportFormat;
+import org.practice.universal_directory_constructor.dto.importJob.ImportJobDTO;
+import org.practice.universal_directory_constructor.dto.importJob.RejectedRowDTO;
+import org.practice.universal_directory_constructor.service.ImportService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/imports")
+public class ImportController {
+    private final ImportService importService;
+
+    @PostMapping(value = "/{directoryId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDTO start(
+            @PathVariable Long directoryId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) ImportFormat format
+    ) {
+        return importService.start(directoryId, file, format);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ImportJobDTO find(@PathVariable String jobId) {
+        return importService.find(jobId);
+    }
+
+    @GetMapping("/jobs/{jobId}/rejected")
+    public List<RejectedRowDTO> findRejected(@PathVariable String jobId) {
+        return importService.findRejected(jobId);
+    }
+}
@@ -2,35 +2,117 @@ package org.practice.universal_directory_constructor.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.cache.DirectoryVersions;
+import org.practice.universal_directory_constructor.datasource.FreshReads;
+import org.practice.universal_directory_constructor.dto.RawRecordDTO;
 import org.practice.universal_directory_constructor.dto.RecordDTO;
+import org.practice.universal_directory_constructor.dto.aggregate.AggregateRequest;
+import org.practice.universal_directory_constructor.dto.aggregate.AggregateResultDTO;
+import org.practice.universal_directory_constructor.dto.batch.BatchResultDTO;
+import org.practice.universal_directory_constructor.dto.cursor.CursorPageDTO;
+import org.practice.universal_directory_constructor.dto.cursor.CursorPageRequest;
+import org.practice.universal_directory_constructor.dto.reference.ReferenceDeleteMode;
+import org.practice.universal_directory_constructor.dto.reference.ReferrerDTO;
+import org.practice.universal_directory_constructor.search.SearchMode;
+import org.practice.universal_directory_constructor.service.AggregateService;
 import org.practice.universal_directory_constructor.service.RecordService;
+import org.practice.universal_directory_constructor.util.cbor.ColumnarRecordsHttpMessageConverter;
+import org.practice.universal_directory_constructor.util.stream.RecordStreamFormat;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/records")
 public class RecordController {
     private final RecordService recordService;
+    private final AggregateService aggregateService;
+    private final DirectoryVersions versions;
+    private final FreshReads freshReads;
 
     @GetMapping("/{id}")
-    public PagedModel<RecordDTO> findAllPagination(
+    public PagedModel<RawRecordDTO> findAllPagination(
             @PathVariable Long id,
             Pageable pageable,
-            @RequestParam(required = false) String search
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "SUBSTRING") SearchMode searchMode,
+            @RequestParam(required = false) Set<String> expand,
+            ServletWebRequest webRequest
     ) {
-        return recordService.findAllPagination(id, pageable, search);
+        if (ConditionalGet.notModified(webRequest, versions.recordsETag(id))) {
+            return null;
+        }
+        return recordService.findAllPagination(id, pageable, search, searchMode, expand);
     }
 
-    @GetMapping("/{id}/all")
-    public List<RecordDTO> findAllForDirectory(
+    @GetMapping("/{id}/cursor")
+    public CursorPageDTO<RawRecordDTO> findAllByCursor(@PathVariable Long id, CursorPageRequest request,
+                                                       ServletWebRequest webRequest) {
+        if (ConditionalGet.notModified(webRequest, versions.recordsETag(id))) {
+            return null;
+        }
+        return freshReads.records(id, () -> recordService.findAllByCursor(id, request));
+    }
+
+    @GetMapping("/{id}/aggregate")
+    public AggregateResultDTO aggregate(@PathVariable Long id, AggregateRequest request,
+                                        ServletWebRequest webRequest) {
+        if (ConditionalGet.notModified(webRequest, versions.recordsETag(id))) {
+            return null;
+        }
+        return freshReads.records(id, () -> aggregateService.aggregate(id, request));
+    }
+
+    @GetMapping(value = "/{id}/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> findAllForDirectory(
+            @PathVariable Long id,
+            @RequestParam(required = false) String search,
+            ServletWebRequest webRequest
+    ) {
+        if (ConditionalGet.notModified(webRequest, versions.recordsETag(id))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(recordService.findAllForDirectory(id, search, RecordStreamFormat.JSON_ARRAY));
+    }
+
+    @GetMapping(value = "/{id}/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> findAllForDirectoryNdjson(
+            @PathVariable Long id,
+            @RequestParam(required = false) String search,
+            ServletWebRequest webRequest
+    ) {
+        if (ConditionalGet.notModified(webRequest, versions.recordsETag(id))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(recordService.findAllForDirectory(id, search, RecordStreamFormat.NDJSON));
+    }
+
+    @GetMapping(value = "/{id}/all", produces = ColumnarRecordsHttpMessageConverter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> findAllForDirectoryColumnar(
             @PathVariable Long id,
-            @RequestParam(required = false) String search
+            @RequestParam(required = false) String search,
+            ServletWebRequest webRequest
     ) {
-        return recordService.findAllForDirectory(id, search);
+        if (ConditionalGet.notModified(webRequest, versions.recordsETag(id))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ColumnarRecordsHttpMessageConverter.MEDIA_TYPE))
+                .body(recordService.findAllForDirectory(id, search, RecordStreamFormat.COLUMNAR_CBOR));
     }
 
     @PostMapping("/{id}")
@@ -38,8 +120,27 @@ public class RecordController {
         return recordService.save(id, record);
     }
 
+    @PostMapping("/{id}/batch")
+    public BatchResultDTO saveAll(@PathVariable Long id, @RequestBody List<RecordDTO> records) {
+        return recordService.saveAll(id, records);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<RawRecordDTO> patch(@PathVariable Long id, @RequestBody Map<String, Object> patch,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch) {
+        var record = recordService.patch(id, patch, ConditionalGet.version(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(record.version())).body(record);
+    }
+
+    @GetMapping("/{id}/referrers")
+    public List<ReferrerDTO> findReferrers(@PathVariable Long id, @RequestParam(defaultValue = "100") int limit) {
+        return recordService.findReferrers(id, limit);
+    }
+
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable Long id) {
-        recordService.delete(id);
+    public void delete(@PathVariable Long id,
+                       @RequestParam(defaultValue = "RESTRICT") ReferenceDeleteMode mode) {
+        recordService.delete(id, mode);
     }
 }
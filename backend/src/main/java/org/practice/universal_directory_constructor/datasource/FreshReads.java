@@ -0,0 +1,59 @@
+package org.practice.universal_directory_constructor.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.cache.DirectoryVersions;
+import org.practice.universal_directory_constructor.config.properties.ReadReplicaProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps reads guarded by a {@link DirectoryVersions} ETag or generation off the replicas while what the tag covers
+ * changed within the sticky window, so a lagging replica cannot return pre-change rows under the new tag. The tag is
+ * read first; reads must be routed before their transaction opens a connection.
+ */
+@Component
+@RequiredArgsConstructor
+public class FreshReads {
+    private final DirectoryVersions versions;
+    private final ReadReplicaProperties properties;
+
+    /**
+     * Covers the directory and the directories it references, like {@link DirectoryVersions#recordsETag}.
+     */
+    public boolean recordsNeedPrimary(Long directoryId) {
+        return properties.enabled() && (ReadRouting.primaryForced()
+                || versions.recordsChangedWithin(directoryId, properties.stickyWindow()));
+    }
+
+    public boolean directoriesNeedPrimary() {
+        return properties.enabled() && (ReadRouting.primaryForced()
+                || versions.anyChangedWithin(properties.stickyWindow()));
+    }
+
+    public <T> T records(Long directoryId, Supplier<T> read) {
+        return recordsNeedPrimary(directoryId) ? ReadRouting.onPrimary(read) : read.get();
+    }
+
+    public <T> T directories(Supplier<T> read) {
+        return directoriesNeedPrimary() ? ReadRouting.onPrimary(read) : read.get();
+    }
+
+    /**
+     * Streamed bodies are written on an async thread, so the routing decision is made here and re-applied there.
+     */
+    public StreamingResponseBody recordsBody(Long directoryId, StreamingResponseBody body) {
+        if (!recordsNeedPrimary(directoryId)) {
+            return body;
+        }
+        return out -> {
+            var previous = ReadRouting.forcePrimary();
+            try {
+                body.writeTo(out);
+            } finally {
+                ReadRouting.restore(previous);
+            }
+        };
+    }
+}
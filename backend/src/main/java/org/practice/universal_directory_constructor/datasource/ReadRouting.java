@@ -0,0 +1,45 @@
+package org.practice.universal_directory_constructor.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Pins the reads of the current thread to the primary, even inside read-only transactions. Must be set before the
+ * transaction touches its first connection.
+ */
+public final class ReadRouting {
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static boolean primaryForced() {
+        return Boolean.TRUE.equals(PRIMARY.get());
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        var previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Pins the current thread until the returned value is passed to {@link #restore(Boolean)}.
+     */
+    public static Boolean forcePrimary() {
+        var previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        return previous;
+    }
+
+    public static void restore(Boolean previous) {
+        if (previous == null) {
+            PRIMARY.remove();
+        } else {
+            PRIMARY.set(previous);
+        }
+    }
+}
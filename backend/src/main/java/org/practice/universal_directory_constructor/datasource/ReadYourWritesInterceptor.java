@@ -0,0 +1,61 @@
+package org.practice.universal_directory_constructor.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.config.properties.ReadReplicaProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Set;
+
+/**
+ * Read-your-writes for clients that echo {@value #HEADER}: every write answers with the time until which the client's
+ * reads stay on the primary, long enough for the replicas to catch up. The value is capped at one sticky window from
+ * now, so a client cannot pin itself to the primary for longer.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+    public static final String HEADER = "X-Read-Primary-Until";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ReadReplicaProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long now = System.currentTimeMillis();
+        if (!READ_METHODS.contains(request.getMethod())) {
+            response.setHeader(HEADER, Long.toString(now + properties.stickyWindow().toMillis()));
+            ReadRouting.forcePrimary();
+        } else if (pinned(request.getHeader(HEADER), now)) {
+            ReadRouting.forcePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ReadRouting.restore(null);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReadRouting.restore(null);
+    }
+
+    private boolean pinned(String until, long now) {
+        if (until == null) {
+            return false;
+        }
+        try {
+            long value = Long.parseLong(until.trim());
+            return value > now && value <= now + properties.stickyWindow().toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.practice.universal_directory_constructor.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.config.properties.ReadReplicaProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.datasource.replicas[0]", name = "url")
+public class ReplicaHealthMonitor {
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final ReadReplicaProperties properties;
+
+    @Scheduled(fixedDelayString = "${app.datasource.health-check-interval:5s}")
+    public void check() {
+        routingDataSource.checkHealth(properties.maxLag());
+    }
+}
@@ -0,0 +1,143 @@
+package org.practice.universal_directory_constructor.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions round-robin to the healthy replicas and everything else to the
+ * primary. A replica is only used after a health check found it reachable and within the allowed replication lag;
+ * one that fails to hand out a connection is taken out until the next successful check and the read falls back to
+ * the primary. Wrapped in a {@code LazyConnectionDataSourceProxy}, so the read-only flag of the transaction is known
+ * when the connection is fetched.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    static final String PRIMARY = "primary";
+
+    private static final String LAG_SQL = """
+            select case when not pg_is_in_recovery() then 0
+                        when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                        else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   end
+            """;
+
+    private final Map<String, DataSource> replicas;
+    private final List<String> names;
+    private final Map<String, Boolean> healthy = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> available = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.names = List.copyOf(replicas.keySet());
+        names.forEach(name -> healthy.put(name, false));
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadRouting.primaryForced()) {
+            return PRIMARY;
+        }
+        List<String> candidates = available;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        var key = (String) determineCurrentLookupKey();
+        try {
+            return getResolvedDataSources().get(key).getConnection();
+        } catch (SQLException e) {
+            if (PRIMARY.equals(key)) {
+                throw e;
+            }
+            markDown(key, e);
+            return getResolvedDataSources().get(PRIMARY).getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        var key = (String) determineCurrentLookupKey();
+        try {
+            return getResolvedDataSources().get(key).getConnection(username, password);
+        } catch (SQLException e) {
+            if (PRIMARY.equals(key)) {
+                throw e;
+            }
+            markDown(key, e);
+            return getResolvedDataSources().get(PRIMARY).getConnection(username, password);
+        }
+    }
+
+    /**
+     * Probes every replica. Servers that are not in recovery count as caught up, which lets a second standalone
+     * instance stand in for a replica locally.
+     */
+    public void checkHealth(Duration maxLag) {
+        for (String name : names) {
+            boolean up;
+            try {
+                Double lagMillis = new JdbcTemplate(replicas.get(name)).queryForObject(LAG_SQL, Double.class);
+                up = lagMillis != null && lagMillis <= maxLag.toMillis();
+                if (!up && isHealthy(name)) {
+                    log.warn("Replica {} is {} ms behind the primary, reads go elsewhere", name, lagMillis);
+                }
+            } catch (Exception e) {
+                if (isHealthy(name)) {
+                    log.warn("Replica {} failed its health check, reads go elsewhere", name, e);
+                }
+                up = false;
+            }
+            if (up && !isHealthy(name)) {
+                log.info("Replica {} is serving reads", name);
+            }
+            setHealthy(name, up);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private boolean isHealthy(String name) {
+        return healthy.get(name);
+    }
+
+    private void markDown(String name, SQLException e) {
+        log.warn("Replica {} refused a connection, falling back to the primary", name, e);
+        setHealthy(name, false);
+    }
+
+    private synchronized void setHealthy(String name, boolean up) {
+        if (healthy.put(name, up) != up) {
+            available = names.stream().filter(healthy::get).toList();
+        }
+    }
+}
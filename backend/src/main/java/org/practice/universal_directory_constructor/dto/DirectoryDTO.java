@@ -1,5 +1,6 @@
 package org.practice.universal_directory_constructor.dto;
 
+import jakarta.annotation.Nullable;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -10,6 +11,9 @@ public record DirectoryDTO(
         Long id,
         @NotBlank String name,
         @NotBlank String code,
-        @NotNull @Valid List<DirectoryFieldsDTO> fields
+        @NotNull @Valid List<DirectoryFieldsDTO> fields,
+        @Nullable String labelField,
+        @Nullable String searchLanguage,
+        @Nullable Boolean fullTextSearch
 ) {
 }
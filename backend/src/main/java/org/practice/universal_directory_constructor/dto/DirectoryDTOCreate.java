@@ -1,5 +1,6 @@
 package org.practice.universal_directory_constructor.dto;
 
+import jakarta.annotation.Nullable;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -8,6 +9,9 @@ import java.util.List;
 
 public record DirectoryDTOCreate(
         @NotBlank String name,
-        @NotNull @Valid List<DirectoryFieldsDTO> fields
+        @NotNull @Valid List<DirectoryFieldsDTO> fields,
+        @Nullable String labelField,
+        @Nullable String searchLanguage,
+        @Nullable Boolean fullTextSearch
 ) {
 }
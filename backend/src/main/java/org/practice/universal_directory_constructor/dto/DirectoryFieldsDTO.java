@@ -3,6 +3,7 @@ package org.practice.universal_directory_constructor.dto;
 import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import org.practice.universal_directory_constructor.entity.FieldsType;
 import org.practice.universal_directory_constructor.util.annotation.DirectoryIdValidationForType;
 
@@ -10,6 +11,10 @@ import org.practice.universal_directory_constructor.util.annotation.DirectoryIdV
 public record DirectoryFieldsDTO(
         @NotBlank String name,
         @NotNull FieldsType type,
-        @Nullable Long directoryId
+        @Nullable Long directoryId,
+        @Nullable @Pattern(regexp = "[ABCD]", message = "searchWeight must be one of A, B, C, D") String searchWeight
 ) {
+    public DirectoryFieldsDTO(String name, FieldsType type, Long directoryId) {
+        this(name, type, directoryId, null);
+    }
 }
@@ -0,0 +1,20 @@
+package org.practice.universal_directory_constructor.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.util.Map;
+
+public record RawRecordDTO(
+        Long id,
+        @JsonRawValue
+        String values,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long version,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Map<String, String> labels
+) {
+    public RawRecordDTO(Long id, String values, Long version) {
+        this(id, values, version, null);
+    }
+}
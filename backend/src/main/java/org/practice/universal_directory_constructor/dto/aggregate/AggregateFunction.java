@@ -0,0 +1,9 @@
+package org.practice.universal_directory_constructor.dto.aggregate;
+
+public enum AggregateFunction {
+    COUNT,
+    SUM,
+    AVG,
+    MIN,
+    MAX
+}
@@ -0,0 +1,15 @@
+package org.practice.universal_directory_constructor.dto.aggregate;
+
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+
+import java.util.Locale;
+
+public record AggregateMetric(
+        AggregateFunction function,
+        DirectoryFields field
+) {
+    public String name() {
+        var function = this.function.name().toLowerCase(Locale.ROOT);
+        return field == null ? function : function + ":" + field.getName();
+    }
+}
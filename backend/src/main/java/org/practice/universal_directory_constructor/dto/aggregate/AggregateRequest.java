@@ -0,0 +1,14 @@
+package org.practice.universal_directory_constructor.dto.aggregate;
+
+import java.util.List;
+
+/**
+ * {@code metrics} entries are {@code function} or {@code function:field}, e.g. {@code count}, {@code sum:price}.
+ */
+public record AggregateRequest(
+        String groupBy,
+        List<String> metrics,
+        String search,
+        Integer limit
+) {
+}
@@ -0,0 +1,10 @@
+package org.practice.universal_directory_constructor.dto.aggregate;
+
+import java.util.List;
+
+public record AggregateResultDTO(
+        String groupBy,
+        List<AggregateRowDTO> rows,
+        boolean truncated
+) {
+}
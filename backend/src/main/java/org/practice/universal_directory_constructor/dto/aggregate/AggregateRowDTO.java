@@ -0,0 +1,14 @@
+package org.practice.universal_directory_constructor.dto.aggregate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public record AggregateRowDTO(
+        Object group,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String label,
+        Map<String, BigDecimal> values
+) {
+}
@@ -0,0 +1,8 @@
+package org.practice.universal_directory_constructor.dto.batch;
+
+public record BatchRecordResultDTO(
+        int index,
+        Long id,
+        String error
+) {
+}
@@ -0,0 +1,10 @@
+package org.practice.universal_directory_constructor.dto.batch;
+
+import java.util.List;
+
+public record BatchResultDTO(
+        int created,
+        int rejected,
+        List<BatchRecordResultDTO> results
+) {
+}
@@ -0,0 +1,23 @@
+package org.practice.universal_directory_constructor.dto.cache;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public record CacheStatsDTO(
+        String name,
+        boolean enabled,
+        long size,
+        long capacity,
+        long hits,
+        long misses,
+        long evictions,
+        double hitRatio,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long memoryBytes,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long maxMemoryBytes
+) {
+    public CacheStatsDTO(String name, boolean enabled, long size, long capacity, long hits, long misses,
+                         long evictions, double hitRatio) {
+        this(name, enabled, size, capacity, hits, misses, evictions, hitRatio, null, null);
+    }
+}
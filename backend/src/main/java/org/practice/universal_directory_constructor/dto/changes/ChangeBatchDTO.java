@@ -0,0 +1,9 @@
+package org.practice.universal_directory_constructor.dto.changes;
+
+import java.util.List;
+
+public record ChangeBatchDTO(
+        List<Long> directories,
+        List<RecordChangeDTO> records
+) {
+}
@@ -0,0 +1,6 @@
+package org.practice.universal_directory_constructor.dto.changes;
+
+public enum ChangeType {
+    SAVED,
+    DELETED
+}
@@ -0,0 +1,13 @@
+package org.practice.universal_directory_constructor.dto.changes;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+public record RecordChangeDTO(
+        Long directoryId,
+        Long recordId,
+        ChangeType type,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Map<String, Object> values
+) {
+}
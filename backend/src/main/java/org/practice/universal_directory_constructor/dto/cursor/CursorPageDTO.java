@@ -0,0 +1,11 @@
+package org.practice.universal_directory_constructor.dto.cursor;
+
+import java.util.List;
+
+public record CursorPageDTO<T>(
+        List<T> content,
+        String nextCursor,
+        Long total,
+        TotalMode totalMode
+) {
+}
@@ -0,0 +1,16 @@
+package org.practice.universal_directory_constructor.dto.cursor;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+public record CursorPageRequest(
+        String cursor,
+        Integer size,
+        String sort,
+        Sort.Direction direction,
+        String search,
+        TotalMode total,
+        Set<String> expand
+) {
+}
@@ -0,0 +1,7 @@
+package org.practice.universal_directory_constructor.dto.cursor;
+
+public enum TotalMode {
+    EXACT,
+    ESTIMATED,
+    NONE
+}
@@ -1,4 +0,0 @@
-package org.practice.universal_directory_constructor.dto.directoriesCountData;
-
-public record CountsForDirectory(Long dirId, Long recCount) {
-}
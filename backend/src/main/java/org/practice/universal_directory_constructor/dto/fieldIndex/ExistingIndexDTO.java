@@ -0,0 +1,10 @@
+package org.practice.universal_directory_constructor.dto.fieldIndex;
+
+public record ExistingIndexDTO(
+        String indexName,
+        String field,
+        boolean valid,
+        boolean ready,
+        Long sizeBytes
+) {
+}
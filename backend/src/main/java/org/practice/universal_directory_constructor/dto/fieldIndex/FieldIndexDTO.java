@@ -0,0 +1,9 @@
+package org.practice.universal_directory_constructor.dto.fieldIndex;
+
+public record FieldIndexDTO(
+        String field,
+        String indexName,
+        FieldIndexState state,
+        Long sizeBytes
+) {
+}
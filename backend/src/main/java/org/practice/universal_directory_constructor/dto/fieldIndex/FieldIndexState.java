@@ -0,0 +1,9 @@
+package org.practice.universal_directory_constructor.dto.fieldIndex;
+
+public enum FieldIndexState {
+    VALID,
+    BUILDING,
+    INVALID,
+    MISSING,
+    ORPHANED
+}
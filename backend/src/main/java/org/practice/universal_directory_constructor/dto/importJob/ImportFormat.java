@@ -0,0 +1,6 @@
+package org.practice.universal_directory_constructor.dto.importJob;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,20 @@
+package org.practice.universal_directory_constructor.dto.importJob;
+
+import java.time.Instant;
+
+public record ImportJobDTO(
+        String id,
+        Long directoryId,
+        String fileName,
+        ImportFormat format,
+        ImportJobStatus status,
+        long totalBytes,
+        long readBytes,
+        long processedRows,
+        long importedRows,
+        long rejectedRows,
+        String error,
+        Instant createdAt,
+        Instant finishedAt
+) {
+}
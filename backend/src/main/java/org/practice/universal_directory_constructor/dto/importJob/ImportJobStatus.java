@@ -0,0 +1,8 @@
+package org.practice.universal_directory_constructor.dto.importJob;
+
+public enum ImportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package org.practice.universal_directory_constructor.dto.importJob;
+
+public record RejectedRowDTO(
+        long line,
+        String error
+) {
+}
@@ -0,0 +1,15 @@
+package org.practice.universal_directory_constructor.dto.metrics;
+
+public record HibernateStatsDTO(
+        boolean enabled,
+        long prepareStatements,
+        long queryExecutions,
+        long entityLoads,
+        long entityFetches,
+        long collectionLoads,
+        long collectionFetches,
+        long transactions,
+        String slowestQuery,
+        long slowestQueryMillis
+) {
+}
@@ -0,0 +1,10 @@
+package org.practice.universal_directory_constructor.dto.metrics;
+
+import java.util.List;
+
+public record MetricsDTO(
+        List<RequestStatsDTO> requests,
+        List<TimerStatsDTO> methods,
+        HibernateStatsDTO hibernate
+) {
+}
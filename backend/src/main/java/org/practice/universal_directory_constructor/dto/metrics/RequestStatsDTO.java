@@ -0,0 +1,10 @@
+package org.practice.universal_directory_constructor.dto.metrics;
+
+public record RequestStatsDTO(
+        TimerStatsDTO time,
+        double statementsPerRequest,
+        long maxStatements,
+        double entityLoadsPerRequest,
+        double jsonParsesPerRequest
+) {
+}
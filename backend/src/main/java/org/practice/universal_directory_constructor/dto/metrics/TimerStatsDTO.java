@@ -0,0 +1,11 @@
+package org.practice.universal_directory_constructor.dto.metrics;
+
+public record TimerStatsDTO(
+        String name,
+        long calls,
+        long errors,
+        double totalMillis,
+        double meanMillis,
+        double maxMillis
+) {
+}
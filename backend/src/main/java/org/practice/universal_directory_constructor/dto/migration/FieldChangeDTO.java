@@ -0,0 +1,19 @@
+package org.practice.universal_directory_constructor.dto.migration;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.practice.universal_directory_constructor.entity.FieldsType;
+
+/**
+ * One schema edit: {@code newName} is required for RENAME, {@code newType} (and {@code directoryId} for references)
+ * for CHANGE_TYPE.
+ */
+public record FieldChangeDTO(
+        @NotNull FieldChangeType type,
+        @NotBlank String field,
+        @Nullable String newName,
+        @Nullable FieldsType newType,
+        @Nullable Long directoryId
+) {
+}
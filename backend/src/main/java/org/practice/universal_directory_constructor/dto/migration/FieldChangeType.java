@@ -0,0 +1,7 @@
+package org.practice.universal_directory_constructor.dto.migration;
+
+public enum FieldChangeType {
+    RENAME,
+    DROP,
+    CHANGE_TYPE
+}
@@ -0,0 +1,22 @@
+package org.practice.universal_directory_constructor.dto.migration;
+
+import java.time.Instant;
+import java.util.List;
+
+public record SchemaMigrationDTO(
+        Long id,
+        Long directoryId,
+        List<FieldChangeDTO> changes,
+        boolean refreshSearch,
+        SchemaMigrationStatus status,
+        long lastRecordId,
+        long maxRecordId,
+        long totalRecords,
+        long processedRecords,
+        long updatedRecords,
+        String error,
+        Instant createdAt,
+        Instant updatedAt,
+        Instant finishedAt
+) {
+}
@@ -0,0 +1,8 @@
+package org.practice.universal_directory_constructor.dto.migration;
+
+public enum SchemaMigrationStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,12 @@
+package org.practice.universal_directory_constructor.dto.reference;
+
+public enum ReferenceDeleteMode {
+    /**
+     * Refuse to delete a record that other records reference.
+     */
+    RESTRICT,
+    /**
+     * Delete the referring records as well, recursively.
+     */
+    CASCADE
+}
@@ -0,0 +1,8 @@
+package org.practice.universal_directory_constructor.dto.reference;
+
+public record ReferrerDTO(
+        Long directoryId,
+        Long recordId,
+        String field
+) {
+}
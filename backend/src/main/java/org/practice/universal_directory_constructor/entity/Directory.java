@@ -2,7 +2,8 @@ package org.practice.universal_directory_constructor.entity;
 
 import jakarta.persistence.*;
         import lombok.*;
-        import org.hibernate.annotations.JdbcTypeCode;
+        import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 
@@ -24,4 +25,16 @@ public class Directory {
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(columnDefinition = "jsonb", nullable = false)
     private List<DirectoryFields> fields = new ArrayList<>();
+    private String labelField;
+    private String searchLanguage;
+    @ColumnDefault("true")
+    @Column(nullable = false)
+    private Boolean fullTextSearch = true;
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'JSONB'")
+    @Column(nullable = false)
+    private StorageMode storageMode = StorageMode.JSONB;
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long schemaVersion = 0L;
 }
@@ -12,4 +12,9 @@ public class DirectoryFields {
     private String name;
     private FieldsType type;
     private Long directoryId;
+    private String searchWeight;
+
+    public DirectoryFields(String name, FieldsType type, Long directoryId) {
+        this(name, type, directoryId, null);
+    }
 }
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -11,12 +12,16 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Entity
+@Table(indexes = @Index(name = "idx_record_directory_id_id", columnList = "directory_id, id"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 public class Record {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "record_seq")
+    @SequenceGenerator(name = "record_seq", sequenceName = "record_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     @ManyToOne
     @JoinColumn(name = "directory_id")
@@ -24,4 +29,8 @@ public class Record {
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(columnDefinition = "jsonb")
     private Map<String, Object> values = new HashMap<>();
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package org.practice.universal_directory_constructor.entity;
+
+public enum StorageMode {
+    JSONB,
+    TYPED
+}
@@ -0,0 +1,12 @@
+package org.practice.universal_directory_constructor.event;
+
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+
+import java.util.List;
+
+public record DirectoryChangedEvent(
+        Long directoryId,
+        List<DirectoryFields> fields,
+        long schemaVersion
+) {
+}
@@ -0,0 +1,12 @@
+package org.practice.universal_directory_constructor.event;
+
+import java.util.Set;
+
+/**
+ * Directories whose persisted data version was found to have grown by a periodic refresh. Changes committed by another
+ * instance reach the in-memory caches only this way.
+ */
+public record DirectoryVersionsRefreshedEvent(
+        Set<Long> directoryIds
+) {
+}
@@ -0,0 +1,4 @@
+package org.practice.universal_directory_constructor.event;
+
+public record RecordCountsReconciledEvent() {
+}
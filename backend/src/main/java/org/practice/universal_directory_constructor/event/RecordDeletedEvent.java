@@ -0,0 +1,7 @@
+package org.practice.universal_directory_constructor.event;
+
+public record RecordDeletedEvent(
+        Long directoryId,
+        Long recordId
+) {
+}
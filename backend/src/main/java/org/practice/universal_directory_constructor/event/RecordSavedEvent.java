@@ -0,0 +1,10 @@
+package org.practice.universal_directory_constructor.event;
+
+import java.util.Map;
+
+public record RecordSavedEvent(
+        Long directoryId,
+        Long recordId,
+        Map<String, Object> values
+) {
+}
@@ -0,0 +1,9 @@
+package org.practice.universal_directory_constructor.event;
+
+import java.util.List;
+
+public record RecordsMigratedEvent(
+        Long directoryId,
+        List<Long> recordIds
+) {
+}
@@ -0,0 +1,6 @@
+package org.practice.universal_directory_constructor.event;
+
+public record SchemaMigrationQueuedEvent(
+        Long migrationId
+) {
+}
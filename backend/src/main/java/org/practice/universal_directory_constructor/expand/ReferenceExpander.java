@@ -0,0 +1,118 @@
+package org.practice.universal_directory_constructor.expand;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.dto.RawRecordDTO;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.repository.RawRecordRepository;
+import org.practice.universal_directory_constructor.schema.CompiledSchema;
+import org.practice.universal_directory_constructor.schema.DirectorySchemaCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.*;
+
+/**
+ * Adds display labels for DIRECTORY_REFERENCE values of a page, with one label query per referenced directory.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReferenceExpander {
+    public static final String ALL = "*";
+
+    private final DirectorySchemaCache schemaCache;
+    private final RawRecordRepository rawRecordRepository;
+    private final ReferenceLabelCache labelCache;
+    private final JsonMapper jsonMapper;
+
+    public List<RawRecordDTO> expand(CompiledSchema schema, Set<String> expand, List<RawRecordDTO> page) {
+        if (expand == null || expand.isEmpty() || page.isEmpty()) {
+            return page;
+        }
+        var fields = referenceFields(schema, expand);
+        if (fields.isEmpty()) {
+            return page;
+        }
+
+        List<Map<String, Long>> refsByRow = new ArrayList<>(page.size());
+        Map<Long, Set<Long>> idsByDirectory = new HashMap<>();
+        for (RawRecordDTO record : page) {
+            JsonNode values = jsonMapper.readTree(record.values());
+            Map<String, Long> refs = new HashMap<>();
+            for (DirectoryFields field : fields) {
+                Long refId = referenceId(values.get(field.getName()));
+                if (refId != null) {
+                    refs.put(field.getName(), refId);
+                    idsByDirectory.computeIfAbsent(field.getDirectoryId(), id -> new HashSet<>()).add(refId);
+                }
+            }
+            refsByRow.add(refs);
+        }
+
+        Map<Long, Map<Long, String>> labelsByDirectory = new HashMap<>();
+        idsByDirectory.forEach((directoryId, ids) -> labelsByDirectory.put(directoryId, labels(directoryId, ids)));
+
+        List<RawRecordDTO> expanded = new ArrayList<>(page.size());
+        for (int i = 0; i < page.size(); i++) {
+            var record = page.get(i);
+            Map<String, String> labels = new LinkedHashMap<>();
+            for (DirectoryFields field : fields) {
+                Long refId = refsByRow.get(i).get(field.getName());
+                var directoryLabels = labelsByDirectory.get(field.getDirectoryId());
+                if (refId != null && directoryLabels != null && directoryLabels.containsKey(refId)) {
+                    labels.put(field.getName(), directoryLabels.get(refId));
+                }
+            }
+            expanded.add(new RawRecordDTO(record.id(), record.values(), record.version(), labels));
+        }
+        return expanded;
+    }
+
+    /**
+     * Labels of the given records of one directory; records that do not exist there are absent from the result.
+     */
+    public Map<Long, String> labels(Long directoryId, Set<Long> recordIds) {
+        var target = schemaCache.get(directoryId);
+        var labelField = target.labelField() == null ? null : target.field(target.labelField()).orElse(null);
+        if (labelField == null || recordIds.isEmpty()) {
+            return Map.of();
+        }
+        return labelCache.resolve(directoryId, target.version(), recordIds,
+                missing -> rawRecordRepository.findLabels(target.layout(), labelField, missing));
+    }
+
+    private static List<DirectoryFields> referenceFields(CompiledSchema schema, Set<String> expand) {
+        if (expand.contains(ALL)) {
+            return schema.referenceFields();
+        }
+        List<DirectoryFields> fields = new ArrayList<>(expand.size());
+        for (String name : expand) {
+            var field = schema.referenceFields().stream()
+                    .filter(f -> f.getName().equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "Field '%s' is not a DIRECTORY_REFERENCE field".formatted(name)));
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    private static Long referenceId(JsonNode value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.isIntegralNumber()) {
+            return value.asLong();
+        }
+        if (value.isString()) {
+            try {
+                return Long.parseLong(value.stringValue().trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
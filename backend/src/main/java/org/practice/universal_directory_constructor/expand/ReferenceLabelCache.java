@@ -0,0 +1,108 @@
+package org.practice.universal_directory_constructor.expand;
+
+import org.practice.universal_directory_constructor.config.properties.ReferenceLabelProperties;
+import org.practice.universal_directory_constructor.event.DirectoryVersionsRefreshedEvent;
+import org.practice.universal_directory_constructor.event.RecordDeletedEvent;
+import org.practice.universal_directory_constructor.event.RecordSavedEvent;
+import org.practice.universal_directory_constructor.event.RecordsMigratedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Display labels of referenced records. An entry is only trusted for the directory schema version it was read with,
+ * so changing a directory's label field does not require walking the cache. Labels are loaded outside the lock, so
+ * a load that overlapped a committed change of its directory is returned but not cached: it may have read the rows
+ * from before the change.
+ */
+@Component
+public class ReferenceLabelCache {
+    private final Map<Long, Label> labels;
+    private final Map<Long, Long> changes = new HashMap<>();
+
+    public ReferenceLabelCache(ReferenceLabelProperties properties) {
+        int maxSize = properties.cacheSize();
+        this.labels = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Label> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public Map<Long, String> resolve(Long directoryId, long schemaVersion, Collection<Long> recordIds,
+                                     Function<Set<Long>, Map<Long, String>> loader) {
+        Map<Long, String> resolved = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        long changesBefore;
+        synchronized (labels) {
+            changesBefore = changes.getOrDefault(directoryId, 0L);
+            for (Long recordId : recordIds) {
+                var label = labels.get(recordId);
+                if (label != null && Objects.equals(label.directoryId(), directoryId)
+                        && label.schemaVersion() == schemaVersion) {
+                    resolved.put(recordId, label.text());
+                } else {
+                    missing.add(recordId);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+        var loaded = loader.apply(missing);
+        synchronized (labels) {
+            if (changes.getOrDefault(directoryId, 0L) == changesBefore) {
+                loaded.forEach((recordId, text) -> labels.put(recordId, new Label(directoryId, schemaVersion, text)));
+            }
+        }
+        resolved.putAll(loaded);
+        return resolved;
+    }
+
+    @TransactionalEventListener
+    public void onRecordSaved(RecordSavedEvent event) {
+        evict(event.directoryId(), List.of(event.recordId()));
+    }
+
+    @TransactionalEventListener
+    public void onRecordDeleted(RecordDeletedEvent event) {
+        evict(event.directoryId(), List.of(event.recordId()));
+    }
+
+    @TransactionalEventListener
+    public void onRecordsMigrated(RecordsMigratedEvent event) {
+        evict(event.directoryId(), event.recordIds());
+    }
+
+    /**
+     * Records changed by another instance are not known one by one, so every label of those directories is dropped.
+     */
+    @EventListener
+    public void onVersionsRefreshed(DirectoryVersionsRefreshedEvent event) {
+        synchronized (labels) {
+            event.directoryIds().forEach(directoryId -> changes.merge(directoryId, 1L, Long::sum));
+            labels.values().removeIf(label -> event.directoryIds().contains(label.directoryId()));
+        }
+    }
+
+    private void evict(Long directoryId, Collection<Long> recordIds) {
+        synchronized (labels) {
+            changes.merge(directoryId, 1L, Long::sum);
+            recordIds.forEach(labels::remove);
+        }
+    }
+
+    private record Label(Long directoryId, long schemaVersion, String text) {
+    }
+}
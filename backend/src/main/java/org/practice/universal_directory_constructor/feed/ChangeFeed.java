@@ -0,0 +1,149 @@
+package org.practice.universal_directory_constructor.feed;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.practice.universal_directory_constructor.config.properties.ChangeFeedProperties;
+import org.practice.universal_directory_constructor.dto.changes.ChangeType;
+import org.practice.universal_directory_constructor.dto.changes.RecordChangeDTO;
+import org.practice.universal_directory_constructor.event.DirectoryChangedEvent;
+import org.practice.universal_directory_constructor.event.RecordDeletedEvent;
+import org.practice.universal_directory_constructor.event.RecordSavedEvent;
+import org.practice.universal_directory_constructor.event.RecordsMigratedEvent;
+import org.springframework.http.HttpStatus;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent change feed. Committed changes are buffered per subscriber and flushed as one {@code changes} event
+ * every {@code app.changes.flush-interval}; a subscriber whose buffer overflows gets a {@code resync} event and
+ * should refetch whatever it shows. Sends block while a client is not reading, so they run on their own pool, one
+ * at a time per subscriber; a subscriber whose send is stuck longer than {@code app.changes.send-timeout} is dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChangeFeed {
+    private final ChangeFeedProperties properties;
+    private final ThreadPoolTaskExecutor changeFeedTaskExecutor;
+    private final CopyOnWriteArrayList<ChangeSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger slots = new AtomicInteger();
+
+    /**
+     * A slot is reserved atomically and only given back once the emitter is done, so concurrent subscribes never
+     * exceed {@code app.changes.max-subscribers}, which also sizes the send queue.
+     *
+     * @param directoryIds directories whose record changes are wanted; empty means all. Directory changes are always sent.
+     */
+    public SseEmitter subscribe(Set<Long> directoryIds) {
+        var emitter = new SseEmitter(properties.timeout().toMillis());
+        var subscriber = new ChangeSubscriber(emitter, Set.copyOf(directoryIds), properties.bufferSize());
+        int max = properties.maxSubscribers();
+        if (slots.getAndUpdate(taken -> taken < max ? taken + 1 : taken) >= max) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many change feed subscribers");
+        }
+        var released = new AtomicBoolean();
+        Runnable unsubscribe = () -> {
+            subscribers.remove(subscriber);
+            if (released.compareAndSet(false, true)) {
+                slots.decrementAndGet();
+            }
+        };
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onRecordSaved(RecordSavedEvent event) {
+        offer(new RecordChangeDTO(event.directoryId(), event.recordId(), ChangeType.SAVED, event.values()));
+    }
+
+    @TransactionalEventListener
+    public void onRecordDeleted(RecordDeletedEvent event) {
+        offer(new RecordChangeDTO(event.directoryId(), event.recordId(), ChangeType.DELETED, null));
+    }
+
+    @TransactionalEventListener
+    public void onDirectoryChanged(DirectoryChangedEvent event) {
+        for (ChangeSubscriber subscriber : subscribers) {
+            subscriber.offerDirectory(event.directoryId());
+        }
+    }
+
+    /**
+     * Migrated records are announced as a directory change: clients reload instead of receiving every rewritten row.
+     */
+    @TransactionalEventListener
+    public void onRecordsMigrated(RecordsMigratedEvent event) {
+        for (ChangeSubscriber subscriber : subscribers) {
+            subscriber.offerDirectory(event.directoryId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.changes.flush-interval:250ms}")
+    public void flush() {
+        long heartbeatNanos = properties.heartbeat().toNanos();
+        long sendTimeoutNanos = properties.sendTimeout().toNanos();
+        for (ChangeSubscriber subscriber : subscribers) {
+            if (subscriber.sendingLongerThan(sendTimeoutNanos)) {
+                // the blocked send holds the emitter, so it is completed by the sending thread once the write fails
+                log.debug("Dropping change feed subscriber that stopped reading");
+                subscribers.remove(subscriber);
+                continue;
+            }
+            if (!subscriber.hasPending() && !subscriber.idleLongerThan(heartbeatNanos) || !subscriber.startSending()) {
+                continue;
+            }
+            try {
+                changeFeedTaskExecutor.execute(() -> send(subscriber, heartbeatNanos));
+            } catch (TaskRejectedException e) {
+                subscriber.finishSending();
+            }
+        }
+    }
+
+    private void send(ChangeSubscriber subscriber, long heartbeatNanos) {
+        try {
+            var batch = subscriber.drain();
+            if (batch == ChangeSubscriber.RESYNC) {
+                subscriber.emitter().send(SseEmitter.event().name("resync").data(""));
+            } else if (batch != null) {
+                subscriber.emitter().send(SseEmitter.event().name("changes").data(batch, MediaType.APPLICATION_JSON));
+            } else if (subscriber.idleLongerThan(heartbeatNanos)) {
+                subscriber.emitter().send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                return;
+            }
+            subscriber.sent();
+            if (!subscribers.contains(subscriber)) {
+                subscriber.emitter().complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping change feed subscriber", e);
+            subscribers.remove(subscriber);
+            subscriber.emitter().completeWithError(e);
+        } finally {
+            subscriber.finishSending();
+        }
+    }
+
+    private void offer(RecordChangeDTO change) {
+        for (ChangeSubscriber subscriber : subscribers) {
+            subscriber.offer(change);
+        }
+    }
+}
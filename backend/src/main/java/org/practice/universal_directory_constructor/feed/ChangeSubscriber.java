@@ -0,0 +1,112 @@
+package org.practice.universal_directory_constructor.feed;
+
+import org.practice.universal_directory_constructor.dto.changes.ChangeBatchDTO;
+import org.practice.universal_directory_constructor.dto.changes.RecordChangeDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pending changes of one SSE client. Later changes of the same record replace earlier ones; once more than
+ * {@code limit} changes are pending the buffer is dropped and the client is told to resync instead.
+ */
+final class ChangeSubscriber {
+    static final ChangeBatchDTO RESYNC = new ChangeBatchDTO(null, null);
+
+    private final SseEmitter emitter;
+    private final Set<Long> directoryIds;
+    private final int limit;
+    private Map<Long, RecordChangeDTO> records = new LinkedHashMap<>();
+    private Set<Long> directories = new LinkedHashSet<>();
+    private boolean resync;
+    private volatile long lastSentNanos = System.nanoTime();
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private volatile long sendStartedNanos;
+
+    ChangeSubscriber(SseEmitter emitter, Set<Long> directoryIds, int limit) {
+        this.emitter = emitter;
+        this.directoryIds = directoryIds;
+        this.limit = limit;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    synchronized void offer(RecordChangeDTO change) {
+        if (resync || !directoryIds.isEmpty() && !directoryIds.contains(change.directoryId())) {
+            return;
+        }
+        records.remove(change.recordId());
+        records.put(change.recordId(), change);
+        checkOverflow();
+    }
+
+    synchronized void offerDirectory(Long directoryId) {
+        if (!resync) {
+            directories.add(directoryId);
+            checkOverflow();
+        }
+    }
+
+    synchronized boolean hasPending() {
+        return resync || !records.isEmpty() || !directories.isEmpty();
+    }
+
+    /**
+     * Takes everything pending: {@link #RESYNC}, a batch, or null when there is nothing to send.
+     */
+    synchronized ChangeBatchDTO drain() {
+        if (resync) {
+            resync = false;
+            return RESYNC;
+        }
+        if (records.isEmpty() && directories.isEmpty()) {
+            return null;
+        }
+        var batch = new ChangeBatchDTO(new ArrayList<>(directories), new ArrayList<>(records.values()));
+        records = new LinkedHashMap<>();
+        directories = new LinkedHashSet<>();
+        return batch;
+    }
+
+    boolean idleLongerThan(long nanos) {
+        return System.nanoTime() - lastSentNanos > nanos;
+    }
+
+    void sent() {
+        lastSentNanos = System.nanoTime();
+    }
+
+    /**
+     * Claims the subscriber for one send; false while a previous send is still queued or blocked on the client.
+     */
+    boolean startSending() {
+        if (!sending.compareAndSet(false, true)) {
+            return false;
+        }
+        sendStartedNanos = System.nanoTime();
+        return true;
+    }
+
+    void finishSending() {
+        sending.set(false);
+    }
+
+    boolean sendingLongerThan(long nanos) {
+        return sending.get() && System.nanoTime() - sendStartedNanos > nanos;
+    }
+
+    private void checkOverflow() {
+        if (records.size() + directories.size() > limit) {
+            resync = true;
+            records = new LinkedHashMap<>();
+            directories = new LinkedHashSet<>();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.practice.universal_directory_constructor.filter;
+
+import org.practice.universal_directory_constructor.storage.RecordLayout;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text condition against the {@code search_vector} column: every word of the search text must match the start of
+ * a lexeme, so partially typed words already find records.
+ */
+public record FullTextQuery(String language, String tsQuery) {
+    public static Optional<FullTextQuery> of(String language, String search) {
+        if (search == null) {
+            return Optional.empty();
+        }
+        String tsQuery = Arrays.stream(search.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+        return tsQuery.isEmpty() ? Optional.empty() : Optional.of(new FullTextQuery(language, tsQuery));
+    }
+
+    public String toSql(RecordLayout layout, List<Object> args) {
+        var scope = layout.scope(args);
+        args.add(language);
+        args.add(tsQuery);
+        return scope + " and search_vector @@ to_tsquery(?::regconfig, ?)";
+    }
+
+    public String rankSql(List<Object> args) {
+        args.add(language);
+        args.add(tsQuery);
+        return "ts_rank(search_vector, to_tsquery(?::regconfig, ?)) desc, id asc";
+    }
+}
@@ -2,6 +2,7 @@ package org.practice.universal_directory_constructor.filter;
 
 import org.practice.universal_directory_constructor.entity.DirectoryFields;
 import org.practice.universal_directory_constructor.entity.Record;
+import org.practice.universal_directory_constructor.storage.RecordLayout;
 import org.springframework.data.jpa.domain.Specification;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
@@ -12,6 +13,8 @@ import java.util.Locale;
 import java.util.List;
 
 public record RecordFilter(Long id, String search, List<DirectoryFields> schemaFields) {
+    private static final char LIKE_ESCAPE = '\\';
+
     public Specification<Record> toSpecification() {
         return Specification.where(byDirectoryId()).and(searchRecordForDirectory());
     }
@@ -25,7 +28,7 @@ public record RecordFilter(Long id, String search, List<DirectoryFields> schemaF
                 return cb.conjunction();
             }
 
-            String term = "%" + search.toLowerCase(Locale.ROOT) + "%";
+            String term = likePattern(search);
             List<Predicate> orPredicates = new ArrayList<>();
 
             for (DirectoryFields f : schemaFields) {
@@ -47,7 +50,49 @@ public record RecordFilter(Long id, String search, List<DirectoryFields> schemaF
         };
     }
 
+    /**
+     * Renders the same condition as {@link #toSpecification()} for plain JDBC queries against the directory's storage.
+     * Field names are inlined so the predicates match the per-field trigram index expressions.
+     */
+    public String toSql(RecordLayout layout, List<Object> args) {
+        var sql = new StringBuilder(layout.scope(args));
+        if (search == null || search.isBlank() || schemaFields == null || schemaFields.isEmpty()) {
+            return sql.toString();
+        }
+        String term = likePattern(search);
+        sql.append(" and (");
+        for (int i = 0; i < schemaFields.size(); i++) {
+            if (i > 0) {
+                sql.append(" or ");
+            }
+            sql.append("lower(coalesce(").append(layout.text(schemaFields.get(i))).append(", '')) like ?");
+            args.add(term);
+        }
+        return sql.append(')').toString();
+    }
+
+    /**
+     * The search term is matched as a plain substring, as the in-memory n-gram index does: {@code %}, {@code _} and
+     * backslash, PostgreSQL's default {@code LIKE} escape, are escaped instead of acting as wildcards.
+     */
+    static String likePattern(String search) {
+        var term = search.toLowerCase(Locale.ROOT);
+        var pattern = new StringBuilder(term.length() + 2).append('%');
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    /**
+     * The id is a literal rather than a bound parameter, as {@link RecordLayout#scope} renders it, so a search can use
+     * the trigram indexes that are partial on the directory.
+     */
     private Specification<Record> byDirectoryId() {
-        return (root, query, cb) -> cb.equal(root.get("directory").get("id"), id);
+        return (root, query, cb) -> cb.equal(root.get("directory").get("id"), cb.literal(id));
     }
 }
@@ -0,0 +1,52 @@
+package org.practice.universal_directory_constructor.filter;
+
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.FieldsType;
+import org.practice.universal_directory_constructor.storage.RecordLayout;
+import org.practice.universal_directory_constructor.util.cursor.RecordCursor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record RecordSeek(DirectoryFields sortField, boolean descending, RecordCursor after) {
+    public static final String ID = "id";
+
+    /**
+     * Sort key expression, selected as text next to each row so the next cursor can be built without parsing values.
+     */
+    public String keySql(RecordLayout layout) {
+        return sortField == null ? "null" : layout.sortKey(sortField);
+    }
+
+    public String toSql(RecordLayout layout, List<Object> args) {
+        if (after == null) {
+            return "true";
+        }
+        String op = descending ? " < ?" : " > ?";
+        if (sortField == null) {
+            args.add(after.lastId());
+            return "id" + op;
+        }
+        Object lastKey = sortField.getType() == FieldsType.STRING ? after.lastKey() : parseNumber(after.lastKey());
+        args.add(lastKey);
+        args.add(lastKey);
+        args.add(after.lastId());
+        String key = keySql(layout);
+        return "(" + key + op + " or (" + key + " = ? and id" + op + "))";
+    }
+
+    public String orderBySql(RecordLayout layout) {
+        String direction = descending ? " desc" : " asc";
+        return sortField == null ? "id" + direction : keySql(layout) + direction + ", id" + direction;
+    }
+
+    private static BigDecimal parseNumber(String key) {
+        try {
+            return new BigDecimal(key);
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
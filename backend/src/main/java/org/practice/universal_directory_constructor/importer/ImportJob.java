@@ -0,0 +1,82 @@
+package org.practice.universal_directory_constructor.importer;
+
+import lombok.Getter;
+import org.practice.universal_directory_constructor.dto.importJob.ImportFormat;
+import org.practice.universal_directory_constructor.dto.importJob.ImportJobDTO;
+import org.practice.universal_directory_constructor.dto.importJob.ImportJobStatus;
+import org.practice.universal_directory_constructor.dto.importJob.RejectedRowDTO;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Getter
+public class ImportJob {
+    private final String id = UUID.randomUUID().toString();
+    private final Long directoryId;
+    private final String fileName;
+    private final ImportFormat format;
+    private final Path file;
+    private final long totalBytes;
+    private final int maxRejectedReport;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong readBytes = new AtomicLong();
+    private final AtomicLong processedRows = new AtomicLong();
+    private final AtomicLong importedRows = new AtomicLong();
+    private final AtomicLong rejectedRows = new AtomicLong();
+    private final Queue<RejectedRowDTO> rejected = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger reportedRejections = new AtomicInteger();
+    private volatile ImportJobStatus status = ImportJobStatus.PENDING;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    public ImportJob(Long directoryId, String fileName, ImportFormat format, Path file, long totalBytes,
+                     int maxRejectedReport) {
+        this.directoryId = directoryId;
+        this.fileName = fileName;
+        this.format = format;
+        this.file = file;
+        this.totalBytes = totalBytes;
+        this.maxRejectedReport = maxRejectedReport;
+    }
+
+    public void start() {
+        status = ImportJobStatus.RUNNING;
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        status = ImportJobStatus.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        status = ImportJobStatus.FAILED;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    public void reject(long line, String message) {
+        rejectedRows.incrementAndGet();
+        if (reportedRejections.incrementAndGet() <= maxRejectedReport) {
+            rejected.add(new RejectedRowDTO(line, message));
+        }
+    }
+
+    public List<RejectedRowDTO> rejectedReport() {
+        return List.copyOf(rejected);
+    }
+
+    public ImportJobDTO toDTO() {
+        return new ImportJobDTO(id, directoryId, fileName, format, status, totalBytes, readBytes.get(),
+                processedRows.get(), importedRows.get(), rejectedRows.get(), error, createdAt, finishedAt);
+    }
+}
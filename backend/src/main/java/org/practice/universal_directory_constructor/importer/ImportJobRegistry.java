@@ -0,0 +1,36 @@
+package org.practice.universal_directory_constructor.importer;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.config.properties.RecordImportProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+public class ImportJobRegistry {
+    private final RecordImportProperties properties;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public void register(ImportJob job) {
+        jobs.put(job.getId(), job);
+        evictFinished();
+    }
+
+    public Optional<ImportJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void evictFinished() {
+        var finished = jobs.values().stream()
+                .filter(ImportJob::isFinished)
+                .sorted(Comparator.comparing(ImportJob::getFinishedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - properties.keepFinishedJobs(); i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+}
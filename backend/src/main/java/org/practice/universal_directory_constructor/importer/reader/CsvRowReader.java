@@ -0,0 +1,110 @@
+package org.practice.universal_directory_constructor.importer.reader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CsvRowReader implements RowReader {
+    private static final char BOM = '\uFEFF';
+
+    private final BufferedReader reader;
+    private final List<String> header;
+    private long line;
+    private long physicalLine = 1;
+
+    public CsvRowReader(Reader reader) throws IOException {
+        this.reader = new BufferedReader(reader);
+        List<String> cells = readRecord();
+        if (cells == null) {
+            throw new RowFormatException("CSV file is empty");
+        }
+        if (!cells.get(0).isEmpty() && cells.get(0).charAt(0) == BOM) {
+            cells.set(0, cells.get(0).substring(1));
+        }
+        this.header = cells.stream().map(String::trim).toList();
+    }
+
+    public List<String> header() {
+        return header;
+    }
+
+    @Override
+    public Map<String, Object> next() throws IOException {
+        List<String> cells;
+        do {
+            cells = readRecord();
+            if (cells == null) {
+                return null;
+            }
+        } while (cells.size() == 1 && cells.get(0).isEmpty());
+
+        if (cells.size() != header.size()) {
+            throw new RowFormatException("Expected %d columns but found %d".formatted(header.size(), cells.size()));
+        }
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            row.put(header.get(i), cells.get(i));
+        }
+        return row;
+    }
+
+    @Override
+    public long line() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        line = physicalLine;
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new RowFormatException("Unterminated quoted value");
+                }
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                    cell.append('"');
+                } else {
+                    if (c == '\n') {
+                        physicalLine++;
+                    }
+                    cell.append((char) c);
+                }
+            } else if (c == -1 || c == '\n') {
+                if (c == '\n') {
+                    physicalLine++;
+                }
+                cells.add(cell.toString());
+                return cells;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '"' && cell.isEmpty()) {
+                quoted = true;
+            } else if (c != '\r') {
+                cell.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+}
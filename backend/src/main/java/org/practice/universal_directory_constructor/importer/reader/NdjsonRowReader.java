@@ -0,0 +1,54 @@
+package org.practice.universal_directory_constructor.importer.reader;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+
+public class NdjsonRowReader implements RowReader {
+    private final BufferedReader reader;
+    private final ObjectReader objectReader;
+    private long line;
+
+    public NdjsonRowReader(Reader reader, ObjectReader objectReader) {
+        this.reader = new BufferedReader(reader);
+        this.objectReader = objectReader;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+
+        Map<String, Object> row;
+        try {
+            row = objectReader.readValue(text);
+        } catch (JacksonException e) {
+            throw new RowFormatException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (row == null) {
+            throw new RowFormatException("Line must contain a JSON object");
+        }
+        return row.get("values") instanceof Map<?, ?> values ? (Map<String, Object>) values : row;
+    }
+
+    @Override
+    public long line() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,7 @@
+package org.practice.universal_directory_constructor.importer.reader;
+
+public class RowFormatException extends RuntimeException {
+    public RowFormatException(String message) {
+        super(message);
+    }
+}
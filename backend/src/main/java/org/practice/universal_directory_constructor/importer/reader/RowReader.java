@@ -0,0 +1,10 @@
+package org.practice.universal_directory_constructor.importer.reader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+public interface RowReader extends Closeable {
+    Map<String, Object> next() throws IOException;
+    long line();
+}
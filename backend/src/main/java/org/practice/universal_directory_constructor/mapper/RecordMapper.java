@@ -11,5 +11,6 @@ import org.practice.universal_directory_constructor.entity.Record;
 public interface RecordMapper {
     RecordDTO toDTO(Record record);
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Record toEntity(Directory directory, RecordDTO recordDTO);
 }
@@ -0,0 +1,51 @@
+package org.practice.universal_directory_constructor.metrics;
+
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.JavaType;
+import org.hibernate.type.format.FormatMapper;
+
+import java.io.IOException;
+
+/**
+ * Counts jsonb documents Hibernate parses into entity attributes, e.g. {@code Record.values} and {@code Directory.fields}.
+ */
+public class CountingJsonFormatMapper implements FormatMapper {
+    private final FormatMapper delegate;
+
+    public CountingJsonFormatMapper(FormatMapper delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public <T> T fromString(CharSequence charSequence, JavaType<T> javaType, WrapperOptions wrapperOptions) {
+        RequestCounters.jsonParse();
+        return delegate.fromString(charSequence, javaType, wrapperOptions);
+    }
+
+    @Override
+    public <T> String toString(T value, JavaType<T> javaType, WrapperOptions wrapperOptions) {
+        return delegate.toString(value, javaType, wrapperOptions);
+    }
+
+    @Override
+    public boolean supportsSourceType(Class<?> sourceType) {
+        return delegate.supportsSourceType(sourceType);
+    }
+
+    @Override
+    public boolean supportsTargetType(Class<?> targetType) {
+        return delegate.supportsTargetType(targetType);
+    }
+
+    @Override
+    public <T> void writeToTarget(T value, JavaType<T> javaType, Object target, WrapperOptions options)
+            throws IOException {
+        delegate.writeToTarget(value, javaType, target, options);
+    }
+
+    @Override
+    public <T> T readFromSource(JavaType<T> javaType, Object source, WrapperOptions options) throws IOException {
+        RequestCounters.jsonParse();
+        return delegate.readFromSource(javaType, source, options);
+    }
+}
@@ -0,0 +1,12 @@
+package org.practice.universal_directory_constructor.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+public class EntityLoadCountingInterceptor implements Interceptor {
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestCounters.entityLoad();
+        return false;
+    }
+}
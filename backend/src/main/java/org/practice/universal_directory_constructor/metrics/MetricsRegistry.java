@@ -0,0 +1,46 @@
+package org.practice.universal_directory_constructor.metrics;
+
+import org.practice.universal_directory_constructor.dto.metrics.RequestStatsDTO;
+import org.practice.universal_directory_constructor.dto.metrics.TimerStatsDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process timers for service methods and per-endpoint request accounting.
+ */
+@Component
+public class MetricsRegistry {
+    private final Map<String, TimerStats> timers = new ConcurrentHashMap<>();
+    private final Map<String, RequestStats> requests = new ConcurrentHashMap<>();
+
+    public void recordMethod(String name, long nanos, boolean failed) {
+        timers.computeIfAbsent(name, k -> new TimerStats()).record(nanos, failed);
+    }
+
+    public void recordRequest(String endpoint, long nanos, boolean failed, RequestCounters counters) {
+        requests.computeIfAbsent(endpoint, k -> new RequestStats()).record(nanos, failed, counters);
+    }
+
+    public List<TimerStatsDTO> methods() {
+        return timers.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparing(TimerStatsDTO::name))
+                .toList();
+    }
+
+    public List<RequestStatsDTO> requests() {
+        return requests.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparing(r -> r.time().name()))
+                .toList();
+    }
+
+    public void reset() {
+        timers.clear();
+        requests.clear();
+    }
+}
@@ -0,0 +1,54 @@
+package org.practice.universal_directory_constructor.metrics;
+
+/**
+ * Work done on behalf of one HTTP request. Bound to the serving thread by {@link RequestMetricsInterceptor}
+ * and bumped from the Hibernate hooks and the statement-counting datasource, which only see the current thread.
+ */
+public final class RequestCounters {
+    private static final ThreadLocal<RequestCounters> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long entityLoads;
+    private long jsonParses;
+
+    static void bind(RequestCounters counters) {
+        CURRENT.set(counters);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    public static void statement() {
+        var counters = CURRENT.get();
+        if (counters != null) {
+            counters.statements++;
+        }
+    }
+
+    static void entityLoad() {
+        var counters = CURRENT.get();
+        if (counters != null) {
+            counters.entityLoads++;
+        }
+    }
+
+    static void jsonParse() {
+        var counters = CURRENT.get();
+        if (counters != null) {
+            counters.jsonParses++;
+        }
+    }
+
+    public long statements() {
+        return statements;
+    }
+
+    public long entityLoads() {
+        return entityLoads;
+    }
+
+    public long jsonParses() {
+        return jsonParses;
+    }
+}
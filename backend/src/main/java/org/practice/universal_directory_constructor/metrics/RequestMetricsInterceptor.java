@@ -0,0 +1,73 @@
+package org.practice.universal_directory_constructor.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.practice.universal_directory_constructor.config.properties.MetricsProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Attributes Hibernate work to the endpoint that caused it and logs requests slower than
+ * {@code app.metrics.slow-request-threshold}. Async requests keep their counters across dispatches,
+ * but work done on the async thread itself (streamed bodies) is not counted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+    private static final String COUNTERS = RequestMetricsInterceptor.class.getName() + ".counters";
+    private static final String STARTED = RequestMetricsInterceptor.class.getName() + ".started";
+
+    private final MetricsRegistry registry;
+    private final MetricsProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!properties.enabled()) {
+            return true;
+        }
+        var counters = (RequestCounters) request.getAttribute(COUNTERS);
+        if (counters == null) {
+            counters = new RequestCounters();
+            request.setAttribute(COUNTERS, counters);
+            request.setAttribute(STARTED, System.nanoTime());
+        }
+        RequestCounters.bind(counters);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        RequestCounters.unbind();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestCounters.unbind();
+        var counters = (RequestCounters) request.getAttribute(COUNTERS);
+        if (counters == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - (Long) request.getAttribute(STARTED);
+        var endpoint = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        registry.recordRequest(endpoint, nanos, ex != null || response.getStatus() >= 500, counters);
+
+        if (nanos >= properties.slowRequestThreshold().toNanos()) {
+            var pathVariables = (Map<?, ?>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            log.warn("Slow request {} took {} ms (status {}): id={}, search={}, page={}, size={}, sort={}, cursor={},"
+                            + " statements={}, entityLoads={}, jsonParses={}",
+                    endpoint, nanos / 1_000_000, response.getStatus(),
+                    pathVariables == null ? null : pathVariables.get("id"),
+                    request.getParameter("search"), request.getParameter("page"), request.getParameter("size"),
+                    request.getParameter("sort"), request.getParameter("cursor"),
+                    counters.statements(), counters.entityLoads(), counters.jsonParses());
+        }
+    }
+}
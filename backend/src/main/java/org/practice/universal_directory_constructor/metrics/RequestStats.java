@@ -0,0 +1,29 @@
+package org.practice.universal_directory_constructor.metrics;
+
+import org.practice.universal_directory_constructor.dto.metrics.RequestStatsDTO;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+final class RequestStats {
+    private final TimerStats timer = new TimerStats();
+    private final LongAdder statements = new LongAdder();
+    private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+    private final LongAdder entityLoads = new LongAdder();
+    private final LongAdder jsonParses = new LongAdder();
+
+    void record(long nanos, boolean failed, RequestCounters counters) {
+        timer.record(nanos, failed);
+        statements.add(counters.statements());
+        maxStatements.accumulate(counters.statements());
+        entityLoads.add(counters.entityLoads());
+        jsonParses.add(counters.jsonParses());
+    }
+
+    RequestStatsDTO snapshot(String name) {
+        var time = timer.snapshot(name);
+        double calls = Math.max(1, time.calls());
+        return new RequestStatsDTO(time, statements.sum() / calls, maxStatements.get(),
+                entityLoads.sum() / calls, jsonParses.sum() / calls);
+    }
+}
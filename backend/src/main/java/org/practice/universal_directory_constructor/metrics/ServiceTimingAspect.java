@@ -0,0 +1,35 @@
+package org.practice.universal_directory_constructor.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.practice.universal_directory_constructor.config.properties.MetricsProperties;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceTimingAspect {
+    private final MetricsRegistry registry;
+    private final MetricsProperties properties;
+
+    @Around("execution(public * org.practice.universal_directory_constructor.service.impl.*ServiceImpl.*(..))"
+            + " || execution(public * org.practice.universal_directory_constructor.util.validator.*Validator.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!properties.enabled()) {
+            return joinPoint.proceed();
+        }
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            var signature = joinPoint.getSignature();
+            registry.recordMethod(signature.getDeclaringType().getSimpleName() + "." + signature.getName(),
+                    System.nanoTime() - started, failed);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.practice.universal_directory_constructor.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps connections so every {@code execute*} call on their statements is reported, whether it comes from Hibernate
+ * or from a {@code JdbcTemplate}. Everything else, including {@code unwrap} for the COPY path, goes straight to the
+ * driver.
+ */
+public final class StatementCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+    private final Runnable onExecute;
+
+    public StatementCountingDataSource(DataSource target, Runnable onExecute) {
+        super(target);
+        this.onExecute = onExecute;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection connection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    if (result instanceof CallableStatement statement) {
+                        return statement(statement, CallableStatement.class);
+                    }
+                    if (result instanceof PreparedStatement statement) {
+                        return statement(statement, PreparedStatement.class);
+                    }
+                    if (result instanceof Statement statement) {
+                        return statement(statement, Statement.class);
+                    }
+                    return result;
+                });
+    }
+
+    private Object statement(Statement target, Class<? extends Statement> type) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        onExecute.run();
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.practice.universal_directory_constructor.metrics;
+
+import org.practice.universal_directory_constructor.dto.metrics.TimerStatsDTO;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+final class TimerStats {
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    void record(long nanos, boolean failed) {
+        calls.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    TimerStatsDTO snapshot(String name) {
+        long count = calls.sum();
+        long total = totalNanos.sum();
+        return new TimerStatsDTO(name, count, errors.sum(), total / 1e6,
+                count == 0 ? 0 : total / 1e6 / count, maxNanos.get() / 1e6);
+    }
+}
@@ -0,0 +1,92 @@
+package org.practice.universal_directory_constructor.reference;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.event.RecordSavedEvent;
+import org.practice.universal_directory_constructor.repository.RecordReferenceRepository;
+import org.practice.universal_directory_constructor.repository.RecordReferenceRepository.ReferenceRow;
+import org.practice.universal_directory_constructor.schema.DirectorySchemaCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+
+/**
+ * Keeps {@code record_reference} in step with record inserts. Rows are collected for the whole transaction and
+ * written in one batch just before commit, together with a key-share lock on every referenced record: a record
+ * deleted concurrently either blocks the commit until it is gone (and the save fails) or sees these referrers.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReferenceIndexer {
+    private final RecordReferenceRepository referenceRepository;
+    private final DirectorySchemaCache schemaCache;
+
+    @EventListener
+    public void onRecordSaved(RecordSavedEvent event) {
+        var schema = schemaCache.get(event.directoryId());
+        if (schema.referenceFields().isEmpty() || event.values() == null) {
+            return;
+        }
+        Pending pending = null;
+        for (DirectoryFields field : schema.referenceFields()) {
+            if (event.values().get(field.getName()) instanceof Number target) {
+                if (pending == null) {
+                    pending = pending();
+                }
+                pending.rows.add(new ReferenceRow(target.longValue(), event.recordId(), event.directoryId(),
+                        field.getName()));
+                pending.targetsByDirectory.computeIfAbsent(field.getDirectoryId(), id -> new HashSet<>())
+                        .add(target.longValue());
+            }
+        }
+    }
+
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Record references can only be indexed inside a transaction");
+        }
+        var pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            var created = new Pending();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ReferenceIndexer.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private void write(Pending pending) {
+        if (pending.rows.isEmpty()) {
+            return;
+        }
+        referenceRepository.insertAll(pending.rows);
+        pending.targetsByDirectory.forEach((directoryId, targets) -> {
+            var existing = referenceRepository.lockExisting(schemaCache.get(directoryId).layout(), targets);
+            if (existing.size() < targets.size()) {
+                targets.removeAll(existing);
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Referenced record %d was deleted concurrently".formatted(targets.iterator().next()));
+            }
+        });
+    }
+
+    private static final class Pending {
+        private final List<ReferenceRow> rows = new ArrayList<>();
+        private final Map<Long, Set<Long>> targetsByDirectory = new HashMap<>();
+    }
+}
@@ -0,0 +1,110 @@
+package org.practice.universal_directory_constructor.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.dto.directoriesCountData.DirectoryAndCount;
+import org.practice.universal_directory_constructor.storage.TypedLayout;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Per-directory record counts and data versions kept in {@code directory_record_count}. Each directory's count is
+ * spread over a few slot rows so concurrent writers to the same directory rarely wait on one row lock; readers sum the
+ * slots. Every write bumps the version of one slot in the writing transaction, so the sum grows with each committed
+ * change of the directory's records or schema.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DirectoryRecordCountRepository {
+    private static final int SLOTS = 8;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void increment(Long directoryId, long delta) {
+        jdbcTemplate.update("""
+                insert into directory_record_count (directory_id, slot, record_count, data_version) values (?, ?, ?, 1)
+                on conflict (directory_id, slot)
+                do update set record_count = directory_record_count.record_count + excluded.record_count,
+                              data_version = directory_record_count.data_version + 1
+                """, directoryId, ThreadLocalRandom.current().nextInt(SLOTS), delta);
+    }
+
+    /**
+     * Bumps the data version for a change that leaves the record count as it is.
+     */
+    public void bumpVersion(Long directoryId) {
+        increment(directoryId, 0);
+    }
+
+    public Map<Long, Long> findVersions() {
+        Map<Long, Long> versions = new HashMap<>();
+        jdbcTemplate.query("select directory_id, sum(data_version) from directory_record_count group by directory_id",
+                rs -> {
+                    versions.put(rs.getLong(1), rs.getLong(2));
+                });
+        return versions;
+    }
+
+    public Map<Long, Long> findVersions(Collection<Long> directoryIds) {
+        Map<Long, Long> versions = new HashMap<>();
+        if (directoryIds.isEmpty()) {
+            return versions;
+        }
+        String in = directoryIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        jdbcTemplate.query("select directory_id, sum(data_version) from directory_record_count"
+                        + " where directory_id in (" + in + ") group by directory_id",
+                rs -> {
+                    versions.put(rs.getLong(1), rs.getLong(2));
+                });
+        return versions;
+    }
+
+    public Map<Long, Long> findAll() {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query("select directory_id, sum(record_count) from directory_record_count group by directory_id",
+                rs -> {
+                    counts.put(rs.getLong(1), rs.getLong(2));
+                });
+        return counts;
+    }
+
+    public List<DirectoryAndCount> findAllWithoutFields() {
+        return jdbcTemplate.query("""
+                select d.id, d.name, d.code, jsonb_array_length(d.fields),
+                       coalesce((select sum(c.record_count) from directory_record_count c where c.directory_id = d.id), 0)
+                from directory d
+                order by d.id
+                """, (rs, rowNum) -> new DirectoryAndCount(
+                rs.getLong(1), rs.getString(2), rs.getString(3), null, rs.getLong(4), rs.getLong(5)));
+    }
+
+    /**
+     * Recounts from the record table. The exclusive lock waits for transactions that already touched a counter and
+     * keeps new increments out until the recount commits, so no concurrent change is lost or counted twice. The
+     * versions are carried over to slot 0 and bumped, since the counts of the directory listing may change.
+     */
+    public void reconcile(Collection<Long> typedDirectoryIds) {
+        jdbcTemplate.execute("lock table directory_record_count in exclusive mode");
+        var versions = findVersions();
+        jdbcTemplate.update("delete from directory_record_count");
+        var typedCounts = typedDirectoryIds.stream()
+                .map(id -> " union all select " + id + "::bigint, 0, count(*) from " + TypedLayout.tableName(id))
+                .collect(Collectors.joining());
+        jdbcTemplate.update("""
+                insert into directory_record_count (directory_id, slot, record_count)
+                select directory_id, 0, count(*) from record group by directory_id
+                """ + typedCounts);
+        jdbcTemplate.batchUpdate("""
+                insert into directory_record_count (directory_id, slot, record_count, data_version) values (?, 0, 0, ?)
+                on conflict (directory_id, slot) do update set data_version = excluded.data_version
+                """, versions.entrySet().stream()
+                .map(e -> new Object[]{e.getKey(), e.getValue() + 1})
+                .toList());
+    }
+}
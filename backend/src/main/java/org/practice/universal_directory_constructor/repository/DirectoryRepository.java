@@ -1,6 +1,7 @@
 package org.practice.universal_directory_constructor.repository;
 
 import org.practice.universal_directory_constructor.entity.Directory;
+import org.practice.universal_directory_constructor.entity.StorageMode;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,4 +18,8 @@ public interface DirectoryRepository extends JpaRepository<Directory, Long> {
         where d.id in :ids
     """)
     List<Long> findExistingByIds(@Param("ids") Set<Long> ids);
+    @Query("select d.id from Directory d where d.storageMode = :mode")
+    List<Long> findIdsByStorageMode(@Param("mode") StorageMode mode);
+    @Query(value = "select exists(select 1 from pg_ts_config where cfgname = :name)", nativeQuery = true)
+    boolean existsSearchConfiguration(@Param("name") String name);
 }
@@ -0,0 +1,60 @@
+package org.practice.universal_directory_constructor.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.dto.fieldIndex.ExistingIndexDTO;
+import org.practice.universal_directory_constructor.storage.SqlLiterals;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class FieldIndexRepository {
+    private static final String PREFIX = "record_trgm_";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public String indexName(Long directoryId, String field) {
+        var hash = DigestUtils.md5DigestAsHex(field.getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+        return prefix(directoryId) + hash;
+    }
+
+    public void createExtension() {
+        jdbcTemplate.execute("create extension if not exists pg_trgm");
+    }
+
+    public List<ExistingIndexDTO> findExisting(Long directoryId) {
+        return jdbcTemplate.query("""
+                select c.relname, obj_description(c.oid, 'pg_class'), i.indisvalid, i.indisready,
+                       pg_relation_size(c.oid)
+                from pg_index i
+                join pg_class c on c.oid = i.indexrelid
+                where i.indrelid = 'record'::regclass
+                  and starts_with(c.relname, ?)
+                """,
+                (rs, n) -> new ExistingIndexDTO(
+                        rs.getString(1), rs.getString(2), rs.getBoolean(3), rs.getBoolean(4), rs.getLong(5)),
+                prefix(directoryId));
+    }
+
+    public void createConcurrently(Long directoryId, String field) {
+        var name = indexName(directoryId, field);
+        jdbcTemplate.execute("""
+                create index concurrently if not exists %s on record
+                using gin (lower(coalesce(jsonb_extract_path_text("values", %s), '')) gin_trgm_ops)
+                where directory_id = %d
+                """.formatted(name, SqlLiterals.literal(field), directoryId));
+        jdbcTemplate.execute("comment on index %s is %s".formatted(name, SqlLiterals.literal(field)));
+    }
+
+    public void dropConcurrently(String indexName) {
+        jdbcTemplate.execute("drop index concurrently if exists " + indexName);
+    }
+
+    private static String prefix(Long directoryId) {
+        return PREFIX + directoryId + "_";
+    }
+}
@@ -0,0 +1,193 @@
+package org.practice.universal_directory_constructor.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.dto.RawRecordDTO;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.filter.FullTextQuery;
+import org.practice.universal_directory_constructor.filter.RecordFilter;
+import org.practice.universal_directory_constructor.filter.RecordSeek;
+import org.practice.universal_directory_constructor.storage.RecordLayout;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Record queries over a {@link RecordLayout}; reads return the values as JSON text, skipping entity and map
+ * materialization.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RawRecordRepository {
+    private static final RowMapper<RawRecordDTO> RAW_RECORD =
+            (rs, rowNum) -> new RawRecordDTO(rs.getLong(1), rs.getString(2), rs.getLong(3));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<RawRecordDTO> findPage(RecordLayout layout, RecordFilter filter, String orderBy, long offset,
+                                       Integer limit) {
+        List<Object> args = new ArrayList<>();
+        var sql = new StringBuilder(select(layout)).append(" where ")
+                .append(filter.toSql(layout, args))
+                .append(" order by ").append(orderBy);
+        if (limit != null) {
+            sql.append(" limit ?");
+            args.add(limit);
+        }
+        if (offset > 0) {
+            sql.append(" offset ?");
+            args.add(offset);
+        }
+        return jdbcTemplate.query(sql.toString(), RAW_RECORD, args.toArray());
+    }
+
+    /**
+     * Records matching a full-text query, most relevant first unless {@code orderBy} is given.
+     */
+    public List<RawRecordDTO> findMatching(RecordLayout layout, FullTextQuery query, String orderBy, long offset,
+                                           Integer limit) {
+        List<Object> args = new ArrayList<>();
+        var sql = new StringBuilder(select(layout)).append(" where ")
+                .append(query.toSql(layout, args))
+                .append(" order by ").append(orderBy != null ? orderBy : query.rankSql(args));
+        if (limit != null) {
+            sql.append(" limit ?");
+            args.add(limit);
+        }
+        if (offset > 0) {
+            sql.append(" offset ?");
+            args.add(offset);
+        }
+        return jdbcTemplate.query(sql.toString(), RAW_RECORD, args.toArray());
+    }
+
+    public long countMatching(RecordLayout layout, FullTextQuery query) {
+        List<Object> args = new ArrayList<>();
+        Long count = jdbcTemplate.queryForObject(
+                "select count(*) from " + layout.table() + " where " + query.toSql(layout, args),
+                Long.class, args.toArray());
+        return count == null ? 0 : count;
+    }
+
+    public List<KeyedRawRecord> findSeekPage(RecordLayout layout, RecordFilter filter, RecordSeek seek, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = "select id, " + layout.valuesJson() + ", version, " + seek.keySql(layout) + "::text from "
+                + layout.table() + " where " + filter.toSql(layout, args) + " and " + seek.toSql(layout, args)
+                + " order by " + seek.orderBySql(layout) + " limit ?";
+        args.add(limit);
+        return jdbcTemplate.query(sql, (rs, rowNum) ->
+                new KeyedRawRecord(RAW_RECORD.mapRow(rs, rowNum), rs.getString(4)), args.toArray());
+    }
+
+    public long count(RecordLayout layout, RecordFilter filter) {
+        List<Object> args = new ArrayList<>();
+        Long count = jdbcTemplate.queryForObject(
+                "select count(*) from " + layout.table() + " where " + filter.toSql(layout, args),
+                Long.class, args.toArray());
+        return count == null ? 0 : count;
+    }
+
+    public List<RawRecordDTO> findAllById(RecordLayout layout, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(select(layout) + " where id in (" + inList(ids) + ")", RAW_RECORD);
+    }
+
+    public Map<Long, String> findLabels(RecordLayout layout, DirectoryFields labelField, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        List<Object> args = new ArrayList<>();
+        String sql = "select id, " + layout.text(labelField) + " from " + layout.table()
+                + " where " + layout.scope(args) + " and id in (" + inList(ids) + ")";
+        Map<Long, String> labels = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            labels.put(rs.getLong(1), rs.getString(2));
+        }, args.toArray());
+        return labels;
+    }
+
+    public void stream(RecordLayout layout, RecordFilter filter, int fetchSize, Consumer<RawRecordDTO> consumer) {
+        List<Object> args = new ArrayList<>();
+        String sql = select(layout) + " where " + filter.toSql(layout, args) + " order by id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, rs -> {
+            consumer.accept(RAW_RECORD.mapRow(rs, rs.getRow()));
+        });
+    }
+
+    private static String select(RecordLayout layout) {
+        return "select id, " + layout.valuesJson() + ", version from " + layout.table();
+    }
+
+    /**
+     * Writes the given field values in one statement and bumps the version; other fields are left untouched.
+     * Empty when the record does not exist or, with {@code expectedVersion}, was changed in the meantime.
+     */
+    public Optional<RawRecordDTO> patch(RecordLayout layout, Long id, Map<String, Object> values,
+                                        Long expectedVersion) {
+        List<Object> args = new ArrayList<>();
+        var sql = new StringBuilder("update ").append(layout.table())
+                .append(" set ").append(layout.assign(values, args)).append(", version = version + 1")
+                .append(" where ").append(layout.scope(args)).append(" and id = ?");
+        args.add(id);
+        if (expectedVersion != null) {
+            sql.append(" and version = ?");
+            args.add(expectedVersion);
+        }
+        sql.append(" returning id, ").append(layout.valuesJson()).append(", version");
+        return jdbcTemplate.query(sql.toString(), RAW_RECORD, args.toArray()).stream().findFirst();
+    }
+
+    public boolean exists(RecordLayout layout, Long id) {
+        List<Object> args = new ArrayList<>();
+        String sql = "select exists(select 1 from " + layout.table() + " where " + layout.scope(args) + " and id = ?)";
+        args.add(id);
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class, args.toArray()));
+    }
+
+    /**
+     * Names of the given fields that at least one record of the directory has a value for.
+     */
+    public List<String> findFilledFields(RecordLayout layout, Collection<DirectoryFields> fields) {
+        List<String> filled = new ArrayList<>();
+        for (DirectoryFields field : fields) {
+            List<Object> args = new ArrayList<>();
+            String sql = "select exists(select 1 from " + layout.table() + " where " + layout.scope(args)
+                    + " and " + layout.text(field) + " is not null)";
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class, args.toArray()))) {
+                filled.add(field.getName());
+            }
+        }
+        return filled;
+    }
+
+    public int delete(RecordLayout layout, Collection<Long> ids) {
+        List<Object> args = new ArrayList<>();
+        String sql = "delete from " + layout.table() + " where " + layout.scope(args) + " and id in (" + inList(ids) + ")";
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+
+    private static String inList(Collection<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    public record KeyedRawRecord(RawRecordDTO record, String key) {
+    }
+}
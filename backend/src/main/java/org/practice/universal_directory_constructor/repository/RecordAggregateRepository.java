@@ -0,0 +1,56 @@
+package org.practice.universal_directory_constructor.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.dto.aggregate.AggregateFunction;
+import org.practice.universal_directory_constructor.dto.aggregate.AggregateMetric;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.filter.RecordFilter;
+import org.practice.universal_directory_constructor.storage.RecordLayout;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@Repository
+@RequiredArgsConstructor
+public class RecordAggregateRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns one row per group: the group value followed by the metric values in request order.
+     */
+    public List<Object[]> aggregate(RecordLayout layout, RecordFilter filter, DirectoryFields groupBy,
+                                    List<AggregateMetric> metrics, int limit) {
+        List<Object> args = new ArrayList<>();
+        var sql = new StringBuilder("select ")
+                .append(groupBy == null ? "null" : layout.value(groupBy));
+        for (AggregateMetric metric : metrics) {
+            sql.append(", ").append(expression(layout, metric));
+        }
+        sql.append(" from ").append(layout.table()).append(" where ").append(filter.toSql(layout, args));
+        if (groupBy != null) {
+            sql.append(" group by 1 order by 1 nulls first limit ?");
+            args.add(limit);
+        }
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Object[] row = new Object[metrics.size() + 1];
+            row[0] = rs.getObject(1);
+            for (int i = 0; i < metrics.size(); i++) {
+                row[i + 1] = rs.getBigDecimal(i + 2);
+            }
+            return row;
+        }, args.toArray());
+    }
+
+    private static String expression(RecordLayout layout, AggregateMetric metric) {
+        if (metric.field() == null) {
+            return "count(*)";
+        }
+        var value = layout.value(metric.field());
+        return metric.function() == AggregateFunction.COUNT
+                ? "count(" + value + ")"
+                : metric.function().name().toLowerCase(Locale.ROOT) + "(" + value + ")::numeric";
+    }
+}
@@ -0,0 +1,59 @@
+package org.practice.universal_directory_constructor.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.practice.universal_directory_constructor.entity.Record;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class RecordCopyRepository {
+    private static final String COPY_SQL = "copy record (id, directory_id, \"values\") from stdin with (format csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private long nextId = 1;
+    private long lastId;
+
+    /**
+     * Hands out one id from a block kept in memory, as Hibernate's pooled optimizer does for entity inserts, so the
+     * sequence is only called once per {@link Record#ID_ALLOCATION_SIZE} ids.
+     */
+    public synchronized long allocateId() {
+        if (nextId > lastId) {
+            lastId = jdbcTemplate.queryForObject("select nextval('record_seq')", Long.class);
+            nextId = lastId - Record.ID_ALLOCATION_SIZE + 1;
+        }
+        return nextId++;
+    }
+
+    public long[] allocateIds(int count) {
+        int blocks = (count + Record.ID_ALLOCATION_SIZE - 1) / Record.ID_ALLOCATION_SIZE;
+        List<Long> hiValues = jdbcTemplate.queryForList(
+                "select nextval('record_seq') from generate_series(1, ?)", Long.class, blocks);
+        long[] ids = new long[count];
+        int next = 0;
+        for (Long hi : hiValues) {
+            for (long id = hi - Record.ID_ALLOCATION_SIZE + 1; id <= hi && next < count; id++) {
+                ids[next++] = id;
+            }
+        }
+        return ids;
+    }
+
+    public long copyIn(String csvRows) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(csvRows));
+            } catch (IOException e) {
+                throw new SQLException("COPY failed", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package org.practice.universal_directory_constructor.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.filter.RecordFilter;
+import org.practice.universal_directory_constructor.storage.RecordLayout;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+@Repository
+@RequiredArgsConstructor
+public class RecordEstimateRepository {
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The planner's row estimate for the filter, search included, so the total describes the same rows the page is
+     * taken from.
+     */
+    public long estimate(RecordLayout layout, RecordFilter filter) {
+        List<Object> args = new ArrayList<>();
+        String where = filter.toSql(layout, args);
+        List<String> plan = jdbcTemplate.queryForList(
+                "explain select 1 from " + layout.table() + " where " + where, String.class, args.toArray());
+        if (plan.isEmpty()) {
+            return 0;
+        }
+        var matcher = PLAN_ROWS.matcher(plan.get(0));
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+}
@@ -0,0 +1,134 @@
+package org.practice.universal_directory_constructor.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.dto.reference.ReferrerDTO;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.storage.RecordLayout;
+import org.practice.universal_directory_constructor.storage.SqlLiterals;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reverse index of DIRECTORY_REFERENCE values: which records point at a record, through which field.
+ * The primary key leads with {@code target_id}, so referrer lookups are index range scans.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RecordReferenceRepository {
+    private static final RowMapper<ReferrerDTO> REFERRER =
+            (rs, rowNum) -> new ReferrerDTO(rs.getLong(1), rs.getLong(2), rs.getString(3));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<ReferenceRow> rows) {
+        jdbcTemplate.batchUpdate("""
+                insert into record_reference (target_id, source_id, source_directory_id, field)
+                values (?, ?, ?, ?) on conflict do nothing
+                """, rows, 1000, (ps, row) -> {
+            ps.setLong(1, row.targetId());
+            ps.setLong(2, row.sourceId());
+            ps.setLong(3, row.sourceDirectoryId());
+            ps.setString(4, row.field());
+        });
+    }
+
+    public void deleteBySources(Collection<Long> sourceIds) {
+        if (!sourceIds.isEmpty()) {
+            jdbcTemplate.update("delete from record_reference where source_id in (" + inList(sourceIds) + ")");
+        }
+    }
+
+    public void deleteBySource(Long sourceId, Collection<String> fields) {
+        if (!fields.isEmpty()) {
+            jdbcTemplate.update("delete from record_reference where source_id = ? and field in ("
+                    + fields.stream().map(SqlLiterals::literal).collect(Collectors.joining(",")) + ")", sourceId);
+        }
+    }
+
+    public List<ReferrerDTO> findReferrers(Long targetId, int limit) {
+        return jdbcTemplate.query("""
+                select source_directory_id, source_id, field from record_reference
+                where target_id = ? order by source_id, field limit ?
+                """, REFERRER, targetId, limit);
+    }
+
+    public List<ReferrerDTO> findReferrers(Collection<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query("select distinct source_directory_id, source_id, null from record_reference"
+                + " where target_id in (" + inList(targetIds) + ")", REFERRER);
+    }
+
+    public long countReferrers(Long targetId) {
+        return jdbcTemplate.queryForObject("select count(distinct source_id) from record_reference where target_id = ?",
+                Long.class, targetId);
+    }
+
+    /**
+     * Returns the ids that still exist and holds a key-share lock on them until commit,
+     * so a concurrent delete of a referenced record waits and then sees the new referrers.
+     */
+    public Set<Long> lockExisting(RecordLayout layout, Collection<Long> ids) {
+        List<Object> args = new ArrayList<>();
+        String sql = "select id from " + layout.table() + " where " + layout.scope(args)
+                + " and id in (" + inList(ids) + ") for key share";
+        return new HashSet<>(jdbcTemplate.queryForList(sql, Long.class, args.toArray()));
+    }
+
+    /**
+     * Re-derives the rows of one directory from its stored records. Values that are not record ids,
+     * e.g. left over from before a field became a reference, are skipped.
+     */
+    public void rebuild(RecordLayout layout, Long directoryId, List<DirectoryFields> referenceFields) {
+        jdbcTemplate.update("delete from record_reference where source_directory_id = ?", directoryId);
+        for (DirectoryFields field : referenceFields) {
+            insertFrom(layout, directoryId, field, "true");
+        }
+    }
+
+    /**
+     * Same as {@link #rebuild} limited to the given field names and to sources with ids in {@code (afterId, toId]},
+     * for migrations that rewrite a directory chunk by chunk.
+     */
+    public void rebuildRange(RecordLayout layout, Long directoryId, Collection<String> fields,
+                             List<DirectoryFields> referenceFields, long afterId, long toId) {
+        if (fields.isEmpty()) {
+            return;
+        }
+        String names = fields.stream().map(SqlLiterals::literal).collect(Collectors.joining(","));
+        jdbcTemplate.update("delete from record_reference where source_id > ? and source_id <= ?"
+                + " and source_directory_id = ? and field in (" + names + ")", afterId, toId, directoryId);
+        for (DirectoryFields field : referenceFields) {
+            if (fields.contains(field.getName())) {
+                insertFrom(layout, directoryId, field, "id > " + afterId + " and id <= " + toId);
+            }
+        }
+    }
+
+    private void insertFrom(RecordLayout layout, Long directoryId, DirectoryFields field, String condition) {
+        List<Object> args = new ArrayList<>();
+        args.add(directoryId);
+        String value = "case when " + layout.text(field) + " ~ '^-?[0-9]+$' then " + layout.value(field) + " end";
+        String sql = "insert into record_reference (target_id, source_id, source_directory_id, field)"
+                + " select " + value + ", id, ?, " + SqlLiterals.literal(field.getName())
+                + " from " + layout.table() + " where " + layout.scope(args) + " and " + condition
+                + " and " + value + " is not null on conflict do nothing";
+        jdbcTemplate.update(sql, args.toArray());
+    }
+
+    private static String inList(Collection<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    public record ReferenceRow(long targetId, long sourceId, long sourceDirectoryId, String field) {
+    }
+}
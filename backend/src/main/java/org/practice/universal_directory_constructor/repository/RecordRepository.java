@@ -1,6 +1,6 @@
 package org.practice.universal_directory_constructor.repository;
 
-import org.practice.universal_directory_constructor.dto.directoriesCountData.CountsForDirectory;
+import org.practice.universal_directory_constructor.dto.RecordDTO;
 import org.practice.universal_directory_constructor.dto.recordCheckReference.RepositoryResultDTO;
 import org.practice.universal_directory_constructor.entity.Record;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,17 +10,20 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 @Repository
-public interface RecordRepository extends JpaRepository<Record, Long>, JpaSpecificationExecutor<Record>{
+public interface RecordRepository extends JpaRepository<Record, Long>, JpaSpecificationExecutor<Record>,
+        RecordStreamRepository {
     @Query("select r.id as id, r.directory.id as dirId from Record r where r.id in :ids")
     List<RepositoryResultDTO> findIdAndDirIdByRecordIds(@Param("ids") Set<Long> ids);
     @Query("""
-    select r.directory.id, count(r)
+    select new org.practice.universal_directory_constructor.dto.RecordDTO(r.id, r.values)
     from Record r
-    where r.directory.id in :ids
-    group by r.directory.id
+    where r.directory.id = :directoryId
 """)
-    List<CountsForDirectory> findCountForDirectory(@Param("ids") Set<Long> ids);
+    List<RecordDTO> findAllValuesByDirectoryId(@Param("directoryId") Long directoryId);
+    @Query("select r.directory.id from Record r where r.id = :id")
+    Optional<Long> findDirectoryIdById(@Param("id") Long id);
 }
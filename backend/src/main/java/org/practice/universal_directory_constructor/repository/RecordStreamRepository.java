@@ -0,0 +1,10 @@
+package org.practice.universal_directory_constructor.repository;
+
+import org.practice.universal_directory_constructor.entity.Record;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+public interface RecordStreamRepository {
+    Stream<Record> streamAll(Specification<Record> specification, int fetchSize);
+}
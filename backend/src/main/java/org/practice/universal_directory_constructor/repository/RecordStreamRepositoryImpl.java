@@ -0,0 +1,27 @@
+package org.practice.universal_directory_constructor.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.practice.universal_directory_constructor.entity.Record;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+public class RecordStreamRepositoryImpl implements RecordStreamRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Record> streamAll(Specification<Record> specification, int fetchSize) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(Record.class);
+        var root = query.from(Record.class);
+        query.where(specification.toPredicate(root, query, cb));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+}
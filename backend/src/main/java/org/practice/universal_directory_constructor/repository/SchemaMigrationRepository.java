@@ -0,0 +1,192 @@
+package org.practice.universal_directory_constructor.repository;
+
+import org.practice.universal_directory_constructor.dto.migration.FieldChangeDTO;
+import org.practice.universal_directory_constructor.dto.migration.SchemaMigrationDTO;
+import org.practice.universal_directory_constructor.dto.migration.SchemaMigrationStatus;
+import org.practice.universal_directory_constructor.entity.FieldsType;
+import org.practice.universal_directory_constructor.storage.RecordLayout;
+import org.practice.universal_directory_constructor.storage.SqlLiterals;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Jobs in {@code schema_migration} and the keyset-chunked rewrites of {@code record."values"} they run; typed
+ * directories convert their columns through {@link TypedRecordRepository#convertColumn}.
+ * A job only covers ids up to {@code max_record_id}: records saved after the schema change already have the new shape.
+ */
+@Repository
+public class SchemaMigrationRepository {
+    private static final String COLUMNS = """
+            id, directory_id, changes::text, refresh_search, status, last_record_id, max_record_id, total_records,
+            processed_records, updated_records, error, created_at, updated_at, finished_at
+            """;
+    static final String NUMBER_PATTERN = "'^-?[0-9]+(\\.[0-9]+)?([eE][-+]?[0-9]+)?$'";
+    static final String REFERENCE_PATTERN = "'^-?[0-9]{1,18}$'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectReader changesReader;
+    private final ObjectWriter changesWriter;
+    private final RowMapper<SchemaMigrationDTO> migrationMapper = this::mapMigration;
+
+    public SchemaMigrationRepository(JdbcTemplate jdbcTemplate, JsonMapper jsonMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.changesReader = jsonMapper.readerFor(new TypeReference<List<FieldChangeDTO>>() {
+        });
+        this.changesWriter = jsonMapper.writer();
+    }
+
+    public Long insert(RecordLayout layout, Long directoryId, List<FieldChangeDTO> changes, boolean refreshSearch) {
+        List<Object> args = new ArrayList<>(List.of(directoryId, changesWriter.writeValueAsString(changes),
+                refreshSearch, SchemaMigrationStatus.PENDING.name()));
+        var scope = layout.scope(args);
+        args.add(directoryId);
+        return jdbcTemplate.queryForObject("""
+                insert into schema_migration (directory_id, changes, refresh_search, status, last_record_id,
+                                              max_record_id, total_records)
+                select ?, ?::jsonb, ?, ?, 0,
+                       coalesce((select max(id) from %s where %s), 0),
+                       coalesce((select sum(record_count) from directory_record_count where directory_id = ?), 0)
+                returning id
+                """.formatted(layout.table(), scope), Long.class, args.toArray());
+    }
+
+    public Optional<SchemaMigrationDTO> findById(Long id) {
+        return jdbcTemplate.query("select " + COLUMNS + " from schema_migration where id = ?", migrationMapper, id)
+                .stream().findFirst();
+    }
+
+    public List<SchemaMigrationDTO> findByDirectoryId(Long directoryId) {
+        return jdbcTemplate.query("select " + COLUMNS + " from schema_migration where directory_id = ? order by id desc",
+                migrationMapper, directoryId);
+    }
+
+    public List<SchemaMigrationDTO> findUnfinished() {
+        return jdbcTemplate.query("select " + COLUMNS + " from schema_migration where finished_at is null order by id",
+                migrationMapper);
+    }
+
+    public boolean existsUnfinished(Long directoryId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists(select 1 from schema_migration where directory_id = ? and finished_at is null)",
+                Boolean.class, directoryId));
+    }
+
+    public void markRunning(Long id) {
+        jdbcTemplate.update("update schema_migration set status = ?, updated_at = now() where id = ?",
+                SchemaMigrationStatus.RUNNING.name(), id);
+    }
+
+    public void finish(Long id, SchemaMigrationStatus status, String error) {
+        jdbcTemplate.update("""
+                update schema_migration set status = ?, error = ?, updated_at = now(), finished_at = now() where id = ?
+                """, status.name(), error, id);
+    }
+
+    public void advance(Long id, long lastRecordId, int processed, int updated) {
+        jdbcTemplate.update("""
+                update schema_migration
+                set last_record_id = ?, processed_records = processed_records + ?,
+                    updated_records = updated_records + ?, updated_at = now()
+                where id = ?
+                """, lastRecordId, processed, updated, id);
+    }
+
+    /**
+     * Next keyset chunk after {@code afterId}: its last id and size, empty when the job is done.
+     */
+    public Optional<Chunk> nextChunk(RecordLayout layout, long afterId, long maxId, int size) {
+        List<Object> args = new ArrayList<>();
+        var scope = layout.scope(args);
+        args.addAll(List.of(afterId, maxId, size));
+        return jdbcTemplate.query("""
+                select max(id), count(*) from (
+                    select id from %s where %s and id > ? and id <= ? order by id limit ?
+                ) c having count(*) > 0
+                """.formatted(layout.table(), scope), (rs, rowNum) -> new Chunk(rs.getLong(1), rs.getInt(2)),
+                args.toArray()).stream().findFirst();
+    }
+
+    /**
+     * Applies one change in place to the records with ids in {@code (afterId, toId]}, touching only the rows it alters.
+     * CHANGE_TYPE removes values that do not convert to the new type, as if never filled in; nothing records them.
+     */
+    public List<Long> apply(FieldChangeDTO change, Long directoryId, long afterId, long toId) {
+        var field = SqlLiterals.literal(change.field());
+        var value = "\"values\" -> " + field;
+        var text = "btrim(\"values\" ->> " + field + ")";
+        String set;
+        String where;
+        switch (change.type()) {
+            case RENAME -> {
+                // the right operand wins: a value written under the new name since the schema change is kept
+                set = "jsonb_build_object(%s, %s) || (\"values\" - %s)"
+                        .formatted(SqlLiterals.literal(change.newName()), value, field);
+                where = value + " is not null";
+            }
+            case DROP -> {
+                set = "\"values\" - " + field;
+                where = value + " is not null";
+            }
+            case CHANGE_TYPE -> {
+                var pattern = change.newType() == FieldsType.NUMBER ? NUMBER_PATTERN : REFERENCE_PATTERN;
+                var converted = switch (change.newType()) {
+                    case STRING -> "to_jsonb(\"values\" ->> " + field + ")";
+                    case NUMBER -> "to_jsonb(" + text + "::numeric)";
+                    case DIRECTORY_REFERENCE -> "to_jsonb(" + text + "::bigint)";
+                };
+                set = change.newType() == FieldsType.STRING
+                        ? "jsonb_set(\"values\", array[%s], %s)".formatted(field, converted)
+                        : "case when %s ~ %s then jsonb_set(\"values\", array[%s], %s) else \"values\" - %s end"
+                        .formatted(text, pattern, field, converted, field);
+                where = switch (change.newType()) {
+                    case STRING -> "jsonb_typeof(" + value + ") not in ('string', 'null')";
+                    case NUMBER -> "jsonb_typeof(" + value + ") not in ('number', 'null')";
+                    case DIRECTORY_REFERENCE -> "jsonb_typeof(" + value + ") <> 'null' and not (jsonb_typeof("
+                            + value + ") = 'number' and " + text + " ~ " + pattern + ")";
+                };
+            }
+            default -> throw new IllegalArgumentException("Unsupported field change " + change.type());
+        }
+        return jdbcTemplate.queryForList("update record set \"values\" = " + set + ", version = version + 1"
+                        + " where directory_id = ? and id > ? and id <= ? and " + where + " returning id",
+                Long.class, directoryId, afterId, toId);
+    }
+
+    /**
+     * Recomputes the full-text vector of the records with ids in {@code (afterId, toId]} after the directory's search
+     * language or field weights changed.
+     */
+    public void refreshSearchVector(Long directoryId, long afterId, long toId) {
+        jdbcTemplate.update("""
+                update record set search_vector = record_search_vector(directory_id, "values")
+                where directory_id = ? and id > ? and id <= ?
+                """, directoryId, afterId, toId);
+    }
+
+    private SchemaMigrationDTO mapMigration(ResultSet rs, int rowNum) throws SQLException {
+        return new SchemaMigrationDTO(rs.getLong(1), rs.getLong(2), changesReader.readValue(rs.getString(3)),
+                rs.getBoolean(4), SchemaMigrationStatus.valueOf(rs.getString(5)), rs.getLong(6), rs.getLong(7),
+                rs.getLong(8), rs.getLong(9), rs.getLong(10), rs.getString(11), instant(rs.getTimestamp(12)),
+                instant(rs.getTimestamp(13)), instant(rs.getTimestamp(14)));
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    public record Chunk(long lastId, int size) {
+    }
+}
@@ -0,0 +1,272 @@
+package org.practice.universal_directory_constructor.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.dto.migration.FieldChangeDTO;
+import org.practice.universal_directory_constructor.dto.migration.FieldChangeType;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.FieldsType;
+import org.practice.universal_directory_constructor.storage.SqlLiterals;
+import org.practice.universal_directory_constructor.storage.TypedLayout;
+import org.practice.universal_directory_constructor.storage.TypedLayout.TypedColumn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * DDL and writes for directories stored in their own typed table.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TypedRecordRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public void createTable(TypedLayout layout) {
+        var columns = layout.columns().stream()
+                .map(c -> ", " + c.column() + " " + c.sqlType())
+                .collect(Collectors.joining());
+        jdbcTemplate.execute("create table if not exists %s (id bigint primary key, version bigint not null default 0%s)"
+                .formatted(layout.table(), columns));
+        jdbcTemplate.execute("comment on table %s is %s".formatted(layout.table(),
+                SqlLiterals.literal("Records of directory " + layout.directoryId())));
+        layout.columns().forEach(c -> describeAndIndex(layout, c));
+    }
+
+    /**
+     * Brings the table in line with the directory fields: adds new columns and drops removed ones. Columns whose field
+     * type changed must have been {@link #setAsideColumn set aside} first, so this never rewrites the table.
+     */
+    public void syncColumns(TypedLayout layout) {
+        addVersionColumn(layout.directoryId());
+        Map<String, String> existing = new HashMap<>();
+        jdbcTemplate.query("""
+                select column_name, data_type from information_schema.columns
+                where table_schema = current_schema() and table_name = ?
+                  and column_name not in ('id', 'version', 'search_vector') and column_name not like '%\\_old'
+                """, rs -> {
+            existing.put(rs.getString(1), rs.getString(2));
+        }, layout.table());
+        for (TypedColumn column : layout.columns()) {
+            var current = existing.remove(column.column());
+            if (current == null) {
+                jdbcTemplate.execute("alter table %s add column %s %s"
+                        .formatted(layout.table(), column.column(), column.sqlType()));
+                describeAndIndex(layout, column);
+            } else if (!current.equals(dataType(column.type()))) {
+                throw new IllegalStateException("Column %s of %s has to be converted by a schema migration"
+                        .formatted(column.column(), layout.table()));
+            }
+        }
+        existing.keySet().forEach(column ->
+                jdbcTemplate.execute("alter table %s drop column %s".formatted(layout.table(), column)));
+    }
+
+    /**
+     * Keeps the stored {@code search_vector} column in line with the weighted STRING fields and the search language.
+     * Its generating expression is kept in the column comment, so the table is only rewritten when it changes.
+     */
+    public void syncSearchVector(Long directoryId, List<DirectoryFields> fields, String language) {
+        var table = TypedLayout.tableName(directoryId);
+        var expression = searchVectorExpression(fields, language);
+        var current = jdbcTemplate.queryForList("""
+                select coalesce(col_description(a.attrelid, a.attnum), '') from pg_attribute a
+                where a.attrelid = ?::regclass and a.attname = 'search_vector' and not a.attisdropped
+                """, String.class, table).stream().findFirst().orElse(null);
+        if (Objects.equals(current, expression)) {
+            return;
+        }
+        dropSearchVector(directoryId);
+        if (expression == null) {
+            return;
+        }
+        jdbcTemplate.execute("alter table %s add column search_vector tsvector generated always as (%s) stored"
+                .formatted(table, expression));
+        jdbcTemplate.execute("comment on column %s.search_vector is %s".formatted(table, SqlLiterals.literal(expression)));
+        jdbcTemplate.execute("create index if not exists %1$s_search_vector on %1$s using gin (search_vector)"
+                .formatted(table));
+    }
+
+    /**
+     * The generated column depends on the STRING columns, so it goes before any of them is renamed, dropped or
+     * converted.
+     */
+    public void dropSearchVector(Long directoryId) {
+        jdbcTemplate.execute("alter table %s drop column if exists search_vector"
+                .formatted(TypedLayout.tableName(directoryId)));
+    }
+
+    public void addVersionColumn(Long directoryId) {
+        jdbcTemplate.execute("alter table %s add column if not exists version bigint not null default 0"
+                .formatted(TypedLayout.tableName(directoryId)));
+    }
+
+    /**
+     * Column names follow the field name, so a rename moves the column and its indexes instead of rewriting the table.
+     */
+    public void renameColumn(Long directoryId, String fromField, String toField) {
+        var table = TypedLayout.tableName(directoryId);
+        var from = TypedLayout.columnName(fromField);
+        var to = TypedLayout.columnName(toField);
+        jdbcTemplate.execute("alter table %s rename column %s to %s".formatted(table, from, to));
+        jdbcTemplate.execute("alter index if exists %1$s_%2$s rename to %1$s_%3$s".formatted(table, from, to));
+        jdbcTemplate.execute("alter index if exists %1$s_%2$s_trgm rename to %1$s_%3$s_trgm".formatted(table, from, to));
+        jdbcTemplate.execute("comment on column %s.%s is %s".formatted(table, to, SqlLiterals.literal(toField)));
+    }
+
+    /**
+     * First step of a type change: the column and its values move to {@code <column>_old}, so {@link #syncColumns}
+     * adds an empty column of the new type and neither statement rewrites the table. Until {@link #convertColumn} has
+     * passed a record, the field reads as missing. Values left behind by a failed earlier conversion are replaced.
+     */
+    public void setAsideColumn(Long directoryId, String field) {
+        var table = TypedLayout.tableName(directoryId);
+        var column = TypedLayout.columnName(field);
+        jdbcTemplate.execute("alter table %s drop column if exists %s_old".formatted(table, column));
+        jdbcTemplate.execute("drop index if exists %s_%s".formatted(table, column));
+        jdbcTemplate.execute("drop index if exists %s_%s_trgm".formatted(table, column));
+        jdbcTemplate.execute("alter table %1$s rename column %2$s to %2$s_old".formatted(table, column));
+    }
+
+    /**
+     * Copies the set-aside values of the records with ids in {@code (afterId, toId]} into the new column, skipping
+     * records written since the type change. Values that do not convert are left out, as in a JSONB migration.
+     */
+    public List<Long> convertColumn(FieldChangeDTO change, Long directoryId, long afterId, long toId) {
+        if (change.type() != FieldChangeType.CHANGE_TYPE) {
+            throw new IllegalArgumentException("Unsupported typed field change " + change.type());
+        }
+        var column = TypedLayout.columnName(change.field());
+        var text = "btrim(" + column + "_old::text)";
+        var converted = switch (change.newType()) {
+            case STRING -> column + "_old::text";
+            case NUMBER -> "case when %s ~ %s then %s::numeric end"
+                    .formatted(text, SchemaMigrationRepository.NUMBER_PATTERN, text);
+            case DIRECTORY_REFERENCE -> "case when %s ~ %s then %s::bigint end"
+                    .formatted(text, SchemaMigrationRepository.REFERENCE_PATTERN, text);
+        };
+        return jdbcTemplate.queryForList("""
+                update %1$s set %2$s = %3$s, version = version + 1
+                where id > ? and id <= ? and %2$s is null and %2$s_old is not null returning id
+                """.formatted(TypedLayout.tableName(directoryId), column, converted), Long.class, afterId, toId);
+    }
+
+    public void dropSetAsideColumn(Long directoryId, String field) {
+        jdbcTemplate.execute("alter table %s drop column if exists %s_old"
+                .formatted(TypedLayout.tableName(directoryId), TypedLayout.columnName(field)));
+    }
+
+    /**
+     * Creates the column indexes a table made before every field got a trigram index is missing.
+     */
+    public void indexColumns(TypedLayout layout) {
+        layout.columns().forEach(c -> describeAndIndex(layout, c));
+    }
+
+    public void dropColumn(Long directoryId, String field) {
+        jdbcTemplate.execute("alter table %s drop column if exists %s"
+                .formatted(TypedLayout.tableName(directoryId), TypedLayout.columnName(field)));
+    }
+
+    public void dropTable(Long directoryId) {
+        jdbcTemplate.execute("drop table if exists " + TypedLayout.tableName(directoryId));
+    }
+
+    public void insert(TypedLayout layout, long[] ids, List<Map<String, Object>> rows) {
+        var columns = layout.columns();
+        String sql = "insert into %s (id%s) values (?%s)".formatted(layout.table(),
+                columns.stream().map(c -> ", " + c.column()).collect(Collectors.joining()),
+                ", ?".repeat(columns.size()));
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = new Object[columns.size() + 1];
+            row[0] = ids[i];
+            for (int c = 0; c < columns.size(); c++) {
+                row[c + 1] = rows.get(i).get(columns.get(c).field());
+            }
+            args.add(row);
+        }
+        jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    public Set<Long> findExistingIds(Long directoryId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        String in = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "select id from " + TypedLayout.tableName(directoryId) + " where id in (" + in + ")", Long.class));
+    }
+
+    public Optional<Long> findOwner(Collection<Long> typedDirectoryIds, Long id) {
+        if (typedDirectoryIds.isEmpty()) {
+            return Optional.empty();
+        }
+        String sql = typedDirectoryIds.stream()
+                .map(dirId -> "select " + dirId + "::bigint from " + TypedLayout.tableName(dirId) + " where id = ?")
+                .collect(Collectors.joining(" union all "));
+        return jdbcTemplate.queryForList(sql, Long.class, Collections.nCopies(typedDirectoryIds.size(), id).toArray())
+                .stream().findFirst();
+    }
+
+    public void moveFromJsonb(TypedLayout layout) {
+        var columns = layout.columns();
+        String targets = columns.stream().map(c -> ", " + c.column()).collect(Collectors.joining());
+        String sources = columns.stream().map(c -> ", " + castFromJson(c)).collect(Collectors.joining());
+        jdbcTemplate.update("insert into %s (id, version%s) select id, version%s from record where directory_id = ?"
+                .formatted(layout.table(), targets, sources), layout.directoryId());
+        jdbcTemplate.update("delete from record where directory_id = ?", layout.directoryId());
+    }
+
+    public void moveToJsonb(TypedLayout layout) {
+        jdbcTemplate.update("""
+                insert into record (id, directory_id, "values", version) select id, ?, (%s)::jsonb, version from %s
+                """
+                .formatted(layout.valuesJson(), layout.table()), layout.directoryId());
+        dropTable(layout.directoryId());
+    }
+
+    private void describeAndIndex(TypedLayout layout, TypedColumn column) {
+        jdbcTemplate.execute("comment on column %s.%s is %s"
+                .formatted(layout.table(), column.column(), SqlLiterals.literal(column.field())));
+        jdbcTemplate.execute("create index if not exists %1$s_%2$s on %1$s (%2$s, id)"
+                .formatted(layout.table(), column.column()));
+        // search matches every field as text, and one unindexed branch of its disjunction forces a sequential scan
+        if (trigramAvailable()) {
+            jdbcTemplate.execute("""
+                    create index if not exists %1$s_%2$s_trgm on %1$s
+                    using gin (lower(coalesce(%3$s, '')) gin_trgm_ops)
+                    """.formatted(layout.table(), column.column(), column.text()));
+        }
+    }
+
+    private boolean trigramAvailable() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists(select 1 from pg_extension where extname = 'pg_trgm')", Boolean.class));
+    }
+
+    private static String searchVectorExpression(List<DirectoryFields> fields, String language) {
+        var config = SqlLiterals.literal(language) + "::regconfig";
+        Set<String> seen = new HashSet<>();
+        String expression = fields.stream()
+                .filter(f -> f.getType() == FieldsType.STRING && seen.add(f.getName()))
+                .map(f -> "setweight(to_tsvector(%s, coalesce(%s, '')), %s)".formatted(config,
+                        TypedLayout.columnName(f.getName()),
+                        SqlLiterals.literal(Objects.requireNonNullElse(f.getSearchWeight(), "D"))))
+                .collect(Collectors.joining(" || "));
+        return expression.isEmpty() ? null : expression;
+    }
+
+    private static String castFromJson(TypedColumn column) {
+        var text = "jsonb_extract_path_text(\"values\", " + SqlLiterals.literal(column.field()) + ")";
+        return column.type() == FieldsType.STRING ? text : "(" + text + ")::" + column.sqlType();
+    }
+
+    private static String dataType(FieldsType type) {
+        return switch (type) {
+            case STRING -> "text";
+            case NUMBER -> "numeric";
+            case DIRECTORY_REFERENCE -> "bigint";
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package org.practice.universal_directory_constructor.schema;
+
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.FieldsType;
+
+public record CompiledField(
+        String name,
+        FieldsType type,
+        Long directoryId,
+        FieldNormalizer normalizer,
+        String[] messages
+) {
+    static CompiledField compile(DirectoryFields field) {
+        var rejections = FieldRejection.values();
+        String[] messages = new String[rejections.length];
+        for (FieldRejection rejection : rejections) {
+            messages[rejection.ordinal()] = rejection.messageFor(field.getName());
+        }
+        boolean misconfigured = field.getType() == FieldsType.DIRECTORY_REFERENCE && field.getDirectoryId() == null;
+        return new CompiledField(field.getName(), field.getType(), field.getDirectoryId(),
+                misconfigured ? FieldNormalizers.MISCONFIGURED : FieldNormalizers.forType(field.getType()),
+                messages);
+    }
+
+    String messageFor(FieldRejection rejection) {
+        return messages[rejection.ordinal()];
+    }
+}
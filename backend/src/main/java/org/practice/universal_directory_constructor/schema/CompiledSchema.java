@@ -0,0 +1,203 @@
+package org.practice.universal_directory_constructor.schema;
+
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.FieldsType;
+import org.practice.universal_directory_constructor.entity.StorageMode;
+import org.practice.universal_directory_constructor.storage.JsonbLayout;
+import org.practice.universal_directory_constructor.storage.RecordLayout;
+import org.practice.universal_directory_constructor.storage.TypedLayout;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public final class CompiledSchema {
+    private static final String NULL_VALUES_MESSAGE = "values must not be null";
+    public static final String DEFAULT_SEARCH_LANGUAGE = "simple";
+
+    private final Long directoryId;
+    private final long version;
+    private final List<DirectoryFields> fields;
+    private final List<DirectoryFields> referenceFields;
+    private final CompiledField[] compiled;
+    private final Map<String, CompiledField> compiledByName;
+    private final String labelField;
+    private final StorageMode storageMode;
+    private final RecordLayout layout;
+    private final String searchLanguage;
+    private final boolean fullTextSearch;
+
+    private CompiledSchema(Long directoryId, long version, List<DirectoryFields> fields, String labelField,
+                           StorageMode storageMode, String searchLanguage, boolean fullTextSearch) {
+        this.directoryId = directoryId;
+        this.version = version;
+        this.fields = List.copyOf(fields);
+        this.referenceFields = this.fields.stream()
+                .filter(f -> f.getType() == FieldsType.DIRECTORY_REFERENCE)
+                .toList();
+        this.compiled = this.fields.stream().map(CompiledField::compile).toArray(CompiledField[]::new);
+        this.compiledByName = new HashMap<>();
+        for (CompiledField field : compiled) {
+            compiledByName.putIfAbsent(field.name(), field);
+        }
+        this.labelField = labelField != null ? labelField : this.fields.stream()
+                .filter(f -> f.getType() == FieldsType.STRING)
+                .map(DirectoryFields::getName)
+                .findFirst()
+                .orElse(null);
+        this.storageMode = storageMode;
+        this.searchLanguage = searchLanguage != null ? searchLanguage : DEFAULT_SEARCH_LANGUAGE;
+        this.fullTextSearch = fullTextSearch;
+        this.layout = storageMode == StorageMode.TYPED
+                ? TypedLayout.of(directoryId, this.fields)
+                : new JsonbLayout(directoryId);
+    }
+
+    public static CompiledSchema compile(Long directoryId, long version, List<DirectoryFields> fields) {
+        return new CompiledSchema(directoryId, version, fields, null, StorageMode.JSONB, null, true);
+    }
+
+    public static CompiledSchema compile(Long directoryId, long version, List<DirectoryFields> fields,
+                                         String labelField, StorageMode storageMode, String searchLanguage,
+                                         boolean fullTextSearch) {
+        return new CompiledSchema(directoryId, version, fields, labelField, storageMode, searchLanguage,
+                fullTextSearch);
+    }
+
+    public Long directoryId() {
+        return directoryId;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<DirectoryFields> fields() {
+        return fields;
+    }
+
+    public List<DirectoryFields> referenceFields() {
+        return referenceFields;
+    }
+
+    public StorageMode storageMode() {
+        return storageMode;
+    }
+
+    public RecordLayout layout() {
+        return layout;
+    }
+
+    public TypedLayout typedLayout() {
+        return (TypedLayout) layout;
+    }
+
+    public boolean typed() {
+        return storageMode == StorageMode.TYPED;
+    }
+
+    /**
+     * Text search configuration the directory's search vector is built with.
+     */
+    public String searchLanguage() {
+        return searchLanguage;
+    }
+
+    /**
+     * Whether records carry a search vector at all; without it writes skip building one and full-text search is
+     * refused.
+     */
+    public boolean fullTextSearch() {
+        return fullTextSearch;
+    }
+
+    public Optional<DirectoryFields> field(String name) {
+        return fields.stream().filter(f -> f.getName().equals(name)).findFirst();
+    }
+
+    /**
+     * Field shown when a record of this directory is referenced: the configured label field or the first STRING field.
+     */
+    public String labelField() {
+        return labelField;
+    }
+
+    /**
+     * Normalizes {@code values} in place and returns every violation found; an empty list means the values are valid.
+     */
+    public List<FieldViolation> validate(Map<String, Object> values) {
+        if (values == null) {
+            return List.of(new FieldViolation(null, NULL_VALUES_MESSAGE));
+        }
+        List<FieldViolation> violations = null;
+        for (CompiledField field : compiled) {
+            Object normalized = field.normalizer().normalize(values.get(field.name()));
+            if (normalized instanceof FieldRejection rejection) {
+                if (violations == null) {
+                    violations = new ArrayList<>(2);
+                }
+                violations.add(new FieldViolation(field.name(), field.messageFor(rejection)));
+            } else {
+                values.put(field.name(), normalized);
+            }
+        }
+        return violations == null ? List.of() : violations;
+    }
+
+    /**
+     * Same as {@link #validate(Map)} but stops at the first violation and reports it as a 400.
+     */
+    public void validateOrThrow(Map<String, Object> values) {
+        if (values == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, NULL_VALUES_MESSAGE);
+        }
+        for (CompiledField field : compiled) {
+            Object normalized = field.normalizer().normalize(values.get(field.name()));
+            if (normalized instanceof FieldRejection rejection) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, field.messageFor(rejection));
+            }
+            values.put(field.name(), normalized);
+        }
+    }
+
+    /**
+     * Validates and normalizes in place only the fields present in a merge patch. Fields are required, so a
+     * {@code null} (a removal in merge patch terms) is rejected like a missing value; unknown fields are violations.
+     */
+    public List<FieldViolation> validatePatch(Map<String, Object> patch) {
+        if (patch == null) {
+            return List.of(new FieldViolation(null, NULL_VALUES_MESSAGE));
+        }
+        List<FieldViolation> violations = null;
+        for (Map.Entry<String, Object> entry : patch.entrySet()) {
+            var field = compiledByName.get(entry.getKey());
+            String message;
+            if (field == null) {
+                message = "Field '%s' does not exist in the directory".formatted(entry.getKey());
+            } else {
+                Object normalized = field.normalizer().normalize(entry.getValue());
+                if (!(normalized instanceof FieldRejection rejection)) {
+                    entry.setValue(normalized);
+                    continue;
+                }
+                message = field.messageFor(rejection);
+            }
+            if (violations == null) {
+                violations = new ArrayList<>(2);
+            }
+            violations.add(new FieldViolation(entry.getKey(), message));
+        }
+        return violations == null ? List.of() : violations;
+    }
+
+    public static String describe(List<FieldViolation> violations) {
+        if (violations.size() == 1) {
+            return violations.get(0).message();
+        }
+        return String.join("; ", violations.stream().map(FieldViolation::message).toList());
+    }
+}
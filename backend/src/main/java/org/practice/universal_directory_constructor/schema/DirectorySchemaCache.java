@@ -0,0 +1,85 @@
+package org.practice.universal_directory_constructor.schema;
+
+import org.practice.universal_directory_constructor.config.properties.SchemaCacheProperties;
+import org.practice.universal_directory_constructor.event.DirectoryChangedEvent;
+import org.practice.universal_directory_constructor.event.DirectoryVersionsRefreshedEvent;
+import org.practice.universal_directory_constructor.repository.DirectoryRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class DirectorySchemaCache {
+    private final DirectoryRepository directoryRepository;
+    private final Map<Long, CompiledSchema> schemas;
+    private final Map<Long, Long> minimumVersions = new ConcurrentHashMap<>();
+
+    public DirectorySchemaCache(DirectoryRepository directoryRepository, SchemaCacheProperties properties) {
+        this.directoryRepository = directoryRepository;
+        int maxSize = properties.maxSize();
+        this.schemas = new LinkedHashMap<>(Math.min(maxSize, 256), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CompiledSchema> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public CompiledSchema get(Long directoryId) {
+        CompiledSchema schema;
+        synchronized (schemas) {
+            schema = schemas.get(directoryId);
+        }
+        if (schema != null) {
+            return schema;
+        }
+        var directory = directoryRepository.findById(directoryId).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Directory with ID " + directoryId + " not found"));
+        schema = CompiledSchema.compile(directoryId, directory.getSchemaVersion(), directory.getFields(),
+                directory.getLabelField(), directory.getStorageMode(), directory.getSearchLanguage(),
+                directory.getFullTextSearch());
+        // A reader that loaded the directory before a concurrent update committed must not re-cache the old schema.
+        if (schema.version() >= minimumVersions.getOrDefault(directoryId, 0L)) {
+            synchronized (schemas) {
+                var current = schemas.get(directoryId);
+                if (current == null || current.version() < schema.version()) {
+                    schemas.put(directoryId, schema);
+                }
+            }
+        }
+        return schema;
+    }
+
+    @TransactionalEventListener
+    public void onDirectoryChanged(DirectoryChangedEvent event) {
+        evictBefore(event.directoryId(), event.schemaVersion());
+    }
+
+    /**
+     * Another instance may have changed the schema: its version is read back for the directories whose data version
+     * moved.
+     */
+    @EventListener
+    public void onVersionsRefreshed(DirectoryVersionsRefreshedEvent event) {
+        for (Long directoryId : event.directoryIds()) {
+            directoryRepository.findById(directoryId)
+                    .ifPresent(directory -> evictBefore(directoryId, directory.getSchemaVersion()));
+        }
+    }
+
+    private void evictBefore(Long directoryId, long schemaVersion) {
+        minimumVersions.merge(directoryId, schemaVersion, Math::max);
+        synchronized (schemas) {
+            var current = schemas.get(directoryId);
+            if (current != null && current.version() < schemaVersion) {
+                schemas.remove(directoryId);
+            }
+        }
+    }
+}
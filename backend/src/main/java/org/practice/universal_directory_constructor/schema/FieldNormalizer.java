@@ -0,0 +1,9 @@
+package org.practice.universal_directory_constructor.schema;
+
+@FunctionalInterface
+public interface FieldNormalizer {
+    /**
+     * Returns the normalized value, or a {@link FieldRejection} when the raw value is not acceptable.
+     */
+    Object normalize(Object raw);
+}
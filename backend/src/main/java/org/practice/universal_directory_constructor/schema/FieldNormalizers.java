@@ -0,0 +1,73 @@
+package org.practice.universal_directory_constructor.schema;
+
+import org.practice.universal_directory_constructor.entity.FieldsType;
+
+import java.math.BigDecimal;
+
+public final class FieldNormalizers {
+    public static final FieldNormalizer STRING = FieldNormalizers::nonBlankString;
+    public static final FieldNormalizer NUMBER = FieldNormalizers::bigDecimal;
+    public static final FieldNormalizer DIRECTORY_REFERENCE = FieldNormalizers::recordId;
+    public static final FieldNormalizer MISCONFIGURED = raw -> FieldRejection.MISCONFIGURED;
+
+    private FieldNormalizers() {
+    }
+
+    public static FieldNormalizer forType(FieldsType type) {
+        return switch (type) {
+            case STRING -> STRING;
+            case NUMBER -> NUMBER;
+            case DIRECTORY_REFERENCE -> DIRECTORY_REFERENCE;
+        };
+    }
+
+    private static Object nonBlankString(Object value) {
+        if (value == null) {
+            return FieldRejection.EMPTY;
+        }
+        String s = String.valueOf(value).trim();
+        return s.isEmpty() ? FieldRejection.EMPTY : s;
+    }
+
+    private static Object bigDecimal(Object value) {
+        if (value instanceof BigDecimal d) {
+            return d;
+        }
+        if (value instanceof Number n) {
+            return new BigDecimal(n.toString());
+        }
+        if (value instanceof String s) {
+            String t = s.trim();
+            if (t.isEmpty()) {
+                return FieldRejection.NOT_A_NUMBER;
+            }
+            try {
+                return new BigDecimal(t);
+            } catch (NumberFormatException e) {
+                return FieldRejection.NOT_A_NUMBER;
+            }
+        }
+        return FieldRejection.NOT_A_NUMBER;
+    }
+
+    private static Object recordId(Object value) {
+        if (value == null) {
+            return FieldRejection.NOT_SELECTED;
+        }
+        if (value instanceof Number n) {
+            return n.longValue();
+        }
+        if (value instanceof String s) {
+            String t = s.trim();
+            if (t.isEmpty()) {
+                return FieldRejection.NOT_SELECTED;
+            }
+            try {
+                return Long.parseLong(t);
+            } catch (NumberFormatException e) {
+                return FieldRejection.NOT_A_RECORD_ID;
+            }
+        }
+        return FieldRejection.NOT_A_RECORD_ID;
+    }
+}
@@ -0,0 +1,19 @@
+package org.practice.universal_directory_constructor.schema;
+
+public enum FieldRejection {
+    EMPTY("Field '%s' must not be empty"),
+    NOT_A_NUMBER("Field '%s' must be a number"),
+    NOT_SELECTED("Field '%s' must be selected"),
+    NOT_A_RECORD_ID("Field '%s' must be a number (record id)"),
+    MISCONFIGURED("Field '%s': directoryId is not set for DIRECTORY_REFERENCE");
+
+    private final String template;
+
+    FieldRejection(String template) {
+        this.template = template;
+    }
+
+    String messageFor(String fieldName) {
+        return template.formatted(fieldName);
+    }
+}
@@ -0,0 +1,7 @@
+package org.practice.universal_directory_constructor.schema;
+
+public record FieldViolation(
+        String field,
+        String message
+) {
+}
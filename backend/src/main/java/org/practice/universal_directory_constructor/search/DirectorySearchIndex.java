@@ -0,0 +1,156 @@
+package org.practice.universal_directory_constructor.search;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+final class DirectorySearchIndex {
+    private final List<String> fieldNames;
+    private final int gramSize;
+    private final Map<Long, LongPostingList> postings = new HashMap<>();
+    private final Map<Long, String[]> documents = new HashMap<>();
+    private final LongPostingList allIds = new LongPostingList();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean built;
+
+    DirectorySearchIndex(List<String> fieldNames, int gramSize) {
+        this.fieldNames = List.copyOf(fieldNames);
+        this.gramSize = gramSize;
+    }
+
+    void ensureBuilt(Supplier<Map<Long, Map<String, Object>>> loader) {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+            loader.get().forEach(this::putLocked);
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void put(long id, Map<String, Object> values) {
+        lock.writeLock().lock();
+        try {
+            putLocked(id, values);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long[] search(String search) {
+        String term = search.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            long[] candidates = candidates(term);
+            int matched = 0;
+            for (long id : candidates) {
+                if (matches(documents.get(id), term)) {
+                    candidates[matched++] = id;
+                }
+            }
+            return Arrays.copyOf(candidates, matched);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] candidates(String term) {
+        if (term.length() < gramSize) {
+            return allIds.toArray();
+        }
+        Set<Long> grams = grams(term);
+        LongPostingList[] lists = new LongPostingList[grams.size()];
+        int i = 0;
+        for (Long gram : grams) {
+            LongPostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists[i++] = list;
+        }
+        return LongPostingList.intersect(lists);
+    }
+
+    private void putLocked(long id, Map<String, Object> values) {
+        removeLocked(id);
+        String[] texts = new String[fieldNames.size()];
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = normalize(values.get(fieldNames.get(i)));
+            grams.addAll(grams(texts[i]));
+        }
+        for (Long gram : grams) {
+            postings.computeIfAbsent(gram, k -> new LongPostingList()).add(id);
+        }
+        documents.put(id, texts);
+        allIds.add(id);
+    }
+
+    private boolean removeLocked(long id) {
+        String[] texts = documents.remove(id);
+        if (texts == null) {
+            return false;
+        }
+        for (String text : texts) {
+            for (Long gram : grams(text)) {
+                LongPostingList list = postings.get(gram);
+                if (list != null && list.remove(id) && list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        allIds.remove(id);
+        return true;
+    }
+
+    private Set<Long> grams(String text) {
+        if (text.length() < gramSize) {
+            return Set.of();
+        }
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + gramSize <= text.length(); i++) {
+            long key = 0;
+            for (int j = 0; j < gramSize; j++) {
+                key = (key << 16) | text.charAt(i + j);
+            }
+            grams.add(key);
+        }
+        return grams;
+    }
+
+    private static boolean matches(String[] texts, String term) {
+        if (texts == null) {
+            return false;
+        }
+        for (String text : texts) {
+            if (text.contains(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal d ? d.toPlainString() : String.valueOf(value);
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,88 @@
+package org.practice.universal_directory_constructor.search;
+
+import java.util.Arrays;
+
+final class LongPostingList {
+    private long[] ids = new long[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(long id) {
+        if (size == 0 || id > ids[size - 1]) {
+            ensureCapacity(size + 1);
+            ids[size++] = id;
+            return;
+        }
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    boolean remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        if (size > 16 && size < ids.length >>> 2) {
+            ids = Arrays.copyOf(ids, ids.length >>> 1);
+        }
+        return true;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    static long[] intersect(LongPostingList[] lists) {
+        if (lists.length == 0) {
+            return new long[0];
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        long[] result = lists[0].toArray();
+        int resultSize = result.length;
+        for (int i = 1; i < lists.length && resultSize > 0; i++) {
+            LongPostingList other = lists[i];
+            int kept = 0;
+            int from = 0;
+            for (int j = 0; j < resultSize; j++) {
+                int pos = Arrays.binarySearch(other.ids, from, other.size, result[j]);
+                if (pos >= 0) {
+                    result[kept++] = result[j];
+                    from = pos + 1;
+                } else {
+                    from = -pos - 1;
+                }
+                if (from >= other.size) {
+                    break;
+                }
+            }
+            resultSize = kept;
+        }
+        return Arrays.copyOf(result, resultSize);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(required, ids.length << 1));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.practice.universal_directory_constructor.search;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.config.properties.SearchIndexProperties;
+import org.practice.universal_directory_constructor.dto.RecordDTO;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.event.DirectoryChangedEvent;
+import org.practice.universal_directory_constructor.event.RecordDeletedEvent;
+import org.practice.universal_directory_constructor.event.RecordSavedEvent;
+import org.practice.universal_directory_constructor.event.RecordsMigratedEvent;
+import org.practice.universal_directory_constructor.repository.RecordRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+public class RecordSearchEngine {
+    private final RecordRepository recordRepository;
+    private final SearchIndexProperties properties;
+    private final Map<Long, DirectorySearchIndex> indexes = new ConcurrentHashMap<>();
+
+    public boolean supports(String search, Pageable pageable) {
+        if (!properties.enabled() || search == null || search.isBlank() || pageable.isUnpaged()) {
+            return false;
+        }
+        return pageable.getSort().stream().allMatch(order -> order.getProperty().equals("id"));
+    }
+
+    public long[] search(Long directoryId, List<DirectoryFields> fields, String search, Sort sort) {
+        var index = indexes.computeIfAbsent(directoryId, id -> new DirectorySearchIndex(
+                fields.stream().map(DirectoryFields::getName).toList(),
+                properties.gramSize()));
+        index.ensureBuilt(() -> load(directoryId));
+        long[] ids = index.search(search);
+        var order = sort.getOrderFor("id");
+        if (order != null && order.isDescending()) {
+            for (int i = 0, j = ids.length - 1; i < j; i++, j--) {
+                long tmp = ids[i];
+                ids[i] = ids[j];
+                ids[j] = tmp;
+            }
+        }
+        return ids;
+    }
+
+    @TransactionalEventListener
+    public void onRecordSaved(RecordSavedEvent event) {
+        var index = indexes.get(event.directoryId());
+        if (index != null) {
+            index.put(event.recordId(), event.values());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onRecordDeleted(RecordDeletedEvent event) {
+        var index = indexes.get(event.directoryId());
+        if (index != null) {
+            index.remove(event.recordId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onDirectoryChanged(DirectoryChangedEvent event) {
+        indexes.remove(event.directoryId());
+    }
+
+    @TransactionalEventListener
+    public void onRecordsMigrated(RecordsMigratedEvent event) {
+        indexes.remove(event.directoryId());
+    }
+
+    private Map<Long, Map<String, Object>> load(Long directoryId) {
+        Map<Long, Map<String, Object>> values = new HashMap<>();
+        for (RecordDTO record : recordRepository.findAllValuesByDirectoryId(directoryId)) {
+            values.put(record.id(), record.values());
+        }
+        return values;
+    }
+}
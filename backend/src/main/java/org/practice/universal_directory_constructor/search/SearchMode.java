@@ -0,0 +1,6 @@
+package org.practice.universal_directory_constructor.search;
+
+public enum SearchMode {
+    SUBSTRING,
+    FULL_TEXT
+}
@@ -0,0 +1,8 @@
+package org.practice.universal_directory_constructor.service;
+
+import org.practice.universal_directory_constructor.dto.aggregate.AggregateRequest;
+import org.practice.universal_directory_constructor.dto.aggregate.AggregateResultDTO;
+
+public interface AggregateService {
+    AggregateResultDTO aggregate(Long directoryId, AggregateRequest request);
+}
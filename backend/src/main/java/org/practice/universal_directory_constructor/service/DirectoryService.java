@@ -3,11 +3,17 @@ package org.practice.universal_directory_constructor.service;
 import org.practice.universal_directory_constructor.dto.directoriesCountData.DirectoryAndCount;
 import org.practice.universal_directory_constructor.dto.DirectoryDTOCreate;
 import org.practice.universal_directory_constructor.dto.DirectoryDTO;
+import org.practice.universal_directory_constructor.dto.migration.FieldChangeDTO;
+import org.practice.universal_directory_constructor.entity.StorageMode;
 
 import java.util.List;
 
 public interface DirectoryService {
     DirectoryDTO create(DirectoryDTOCreate dto);
-    List<DirectoryAndCount> findAll();
-    DirectoryDTO update(Long id, DirectoryDTO dto);
+    List<DirectoryAndCount> findAll(boolean includeFields);
+    DirectoryDTO update(Long id, DirectoryDTO dto, boolean dropValues);
+    DirectoryDTO migrate(Long id, List<FieldChangeDTO> changes);
+    void reconcileRecordCounts();
+    void changeStorageMode(Long id, StorageMode mode);
+    void rebuildReferences();
 }
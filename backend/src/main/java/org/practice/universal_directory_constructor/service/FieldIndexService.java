@@ -0,0 +1,10 @@
+package org.practice.universal_directory_constructor.service;
+
+import org.practice.universal_directory_constructor.dto.fieldIndex.FieldIndexDTO;
+
+import java.util.List;
+
+public interface FieldIndexService {
+    List<FieldIndexDTO> findAll(Long directoryId);
+    void scheduleSync(Long directoryId);
+}
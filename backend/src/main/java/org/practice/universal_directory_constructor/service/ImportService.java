@@ -0,0 +1,14 @@
+package org.practice.universal_directory_constructor.service;
+
+import org.practice.universal_directory_constructor.dto.importJob.ImportFormat;
+import org.practice.universal_directory_constructor.dto.importJob.ImportJobDTO;
+import org.practice.universal_directory_constructor.dto.importJob.RejectedRowDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+public interface ImportService {
+    ImportJobDTO start(Long directoryId, MultipartFile file, ImportFormat format);
+    ImportJobDTO find(String jobId);
+    List<RejectedRowDTO> findRejected(String jobId);
+}
@@ -0,0 +1,8 @@
+package org.practice.universal_directory_constructor.service;
+
+import org.practice.universal_directory_constructor.dto.metrics.MetricsDTO;
+
+public interface MetricsService {
+    MetricsDTO snapshot();
+    void reset();
+}
@@ -1,14 +1,30 @@
 package org.practice.universal_directory_constructor.service;
 
+import org.practice.universal_directory_constructor.dto.RawRecordDTO;
 import org.practice.universal_directory_constructor.dto.RecordDTO;
+import org.practice.universal_directory_constructor.dto.batch.BatchResultDTO;
+import org.practice.universal_directory_constructor.dto.cursor.CursorPageDTO;
+import org.practice.universal_directory_constructor.dto.cursor.CursorPageRequest;
+import org.practice.universal_directory_constructor.dto.reference.ReferenceDeleteMode;
+import org.practice.universal_directory_constructor.dto.reference.ReferrerDTO;
+import org.practice.universal_directory_constructor.search.SearchMode;
+import org.practice.universal_directory_constructor.util.stream.RecordStreamFormat;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedModel;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface RecordService {
-    PagedModel<RecordDTO> findAllPagination(Long id, Pageable pageable, String search);
-    List<RecordDTO> findAllForDirectory(Long id, String search);
+    PagedModel<RawRecordDTO> findAllPagination(Long id, Pageable pageable, String search, SearchMode searchMode,
+                                               Set<String> expand);
+    CursorPageDTO<RawRecordDTO> findAllByCursor(Long id, CursorPageRequest request);
+    StreamingResponseBody findAllForDirectory(Long id, String search, RecordStreamFormat format);
     RecordDTO save(Long id, RecordDTO record);
-    void delete(Long id);
+    BatchResultDTO saveAll(Long id, List<RecordDTO> records);
+    RawRecordDTO patch(Long id, Map<String, Object> patch, Long expectedVersion);
+    void delete(Long id, ReferenceDeleteMode mode);
+    List<ReferrerDTO> findReferrers(Long id, int limit);
 }
@@ -0,0 +1,14 @@
+package org.practice.universal_directory_constructor.service;
+
+import org.practice.universal_directory_constructor.dto.migration.FieldChangeDTO;
+import org.practice.universal_directory_constructor.dto.migration.SchemaMigrationDTO;
+import org.practice.universal_directory_constructor.storage.RecordLayout;
+
+import java.util.List;
+
+public interface SchemaMigrationService {
+    Long enqueue(RecordLayout layout, Long directoryId, List<FieldChangeDTO> changes, boolean refreshSearch);
+    boolean hasUnfinished(Long directoryId);
+    SchemaMigrationDTO find(Long migrationId);
+    List<SchemaMigrationDTO> findAll(Long directoryId);
+}
@@ -0,0 +1,124 @@
+package org.practice.universal_directory_constructor.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.dto.aggregate.*;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.FieldsType;
+import org.practice.universal_directory_constructor.expand.ReferenceExpander;
+import org.practice.universal_directory_constructor.filter.RecordFilter;
+import org.practice.universal_directory_constructor.repository.RecordAggregateRepository;
+import org.practice.universal_directory_constructor.schema.CompiledSchema;
+import org.practice.universal_directory_constructor.schema.DirectorySchemaCache;
+import org.practice.universal_directory_constructor.service.AggregateService;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AggregateServiceImpl implements AggregateService {
+    private static final int DEFAULT_GROUP_LIMIT = 100;
+    private static final int MAX_GROUP_LIMIT = 10000;
+
+    private final DirectorySchemaCache schemaCache;
+    private final RecordAggregateRepository aggregateRepository;
+    private final ReferenceExpander referenceExpander;
+
+    @Override
+    public AggregateResultDTO aggregate(Long directoryId, AggregateRequest request) {
+        var schema = schemaCache.get(directoryId);
+        int limit = Objects.requireNonNullElse(request.limit(), DEFAULT_GROUP_LIMIT);
+        if (limit < 1 || limit > MAX_GROUP_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Group limit must be between 1 and %d".formatted(MAX_GROUP_LIMIT));
+        }
+        var groupBy = groupField(schema, request.groupBy());
+        var metrics = metrics(schema, request.metrics());
+        var filter = new RecordFilter(directoryId, request.search(), schema.fields());
+
+        List<Object[]> rows;
+        try {
+            rows = aggregateRepository.aggregate(schema.layout(), filter, groupBy, metrics, limit + 1);
+        } catch (DataAccessException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Directory %d contains values that cannot be aggregated".formatted(directoryId), e);
+        }
+        boolean truncated = rows.size() > limit;
+        if (truncated) {
+            rows = rows.subList(0, limit);
+        }
+
+        Map<Long, String> labels = Map.of();
+        if (groupBy != null && groupBy.getType() == FieldsType.DIRECTORY_REFERENCE) {
+            Set<Long> ids = new HashSet<>();
+            rows.forEach(row -> {
+                if (row[0] instanceof Number n) ids.add(n.longValue());
+            });
+            labels = referenceExpander.labels(groupBy.getDirectoryId(), ids);
+        }
+
+        List<AggregateRowDTO> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Map<String, BigDecimal> values = new LinkedHashMap<>();
+            for (int i = 0; i < metrics.size(); i++) {
+                values.put(metrics.get(i).name(), (BigDecimal) row[i + 1]);
+            }
+            String label = row[0] instanceof Number n ? labels.get(n.longValue()) : null;
+            result.add(new AggregateRowDTO(row[0], label, values));
+        }
+        return new AggregateResultDTO(groupBy == null ? null : groupBy.getName(), result, truncated);
+    }
+
+    private static DirectoryFields groupField(CompiledSchema schema, String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        var field = schema.field(name).orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Unknown group field '%s'".formatted(name)));
+        if (field.getType() == FieldsType.NUMBER) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Field '%s' must be a STRING or DIRECTORY_REFERENCE field to group by".formatted(name));
+        }
+        return field;
+    }
+
+    private static List<AggregateMetric> metrics(CompiledSchema schema, List<String> specs) {
+        if (specs == null || specs.isEmpty()) {
+            return List.of(new AggregateMetric(AggregateFunction.COUNT, null));
+        }
+        List<AggregateMetric> metrics = new ArrayList<>(specs.size());
+        for (String spec : specs) {
+            var parts = spec.split(":", 2);
+            AggregateFunction function;
+            try {
+                function = AggregateFunction.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown aggregate function in '%s'".formatted(spec));
+            }
+            if (parts.length == 1) {
+                if (function != AggregateFunction.COUNT) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "Aggregate '%s' needs a field, e.g. %s:price".formatted(spec, parts[0]));
+                }
+                metrics.add(new AggregateMetric(function, null));
+                continue;
+            }
+            var fieldName = parts[1].trim();
+            var field = schema.field(fieldName).orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unknown field '%s'".formatted(fieldName)));
+            if (function != AggregateFunction.COUNT && field.getType() != FieldsType.NUMBER) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Field '%s' must be a NUMBER field for %s".formatted(fieldName, function));
+            }
+            metrics.add(new AggregateMetric(function, field));
+        }
+        return metrics;
+    }
+}
@@ -1,23 +1,42 @@
 package org.practice.universal_directory_constructor.service.impl;
 
 import lombok.RequiredArgsConstructor;
-import org.practice.universal_directory_constructor.dto.directoriesCountData.CountsForDirectory;
 import org.practice.universal_directory_constructor.dto.directoriesCountData.DirectoryAndCount;
 import org.practice.universal_directory_constructor.dto.DirectoryDTOCreate;
 import org.practice.universal_directory_constructor.dto.DirectoryDTO;
+import org.practice.universal_directory_constructor.dto.DirectoryFieldsDTO;
+import org.practice.universal_directory_constructor.dto.migration.FieldChangeDTO;
+import org.practice.universal_directory_constructor.dto.migration.FieldChangeType;
 import org.practice.universal_directory_constructor.entity.Directory;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.FieldsType;
+import org.practice.universal_directory_constructor.entity.StorageMode;
+import org.practice.universal_directory_constructor.event.DirectoryChangedEvent;
+import org.practice.universal_directory_constructor.event.RecordCountsReconciledEvent;
 import org.practice.universal_directory_constructor.mapper.DirectoryMapper;
 import org.practice.universal_directory_constructor.repository.DirectoryRepository;
-import org.practice.universal_directory_constructor.repository.RecordRepository;
+import org.practice.universal_directory_constructor.repository.RawRecordRepository;
+import org.practice.universal_directory_constructor.repository.RecordReferenceRepository;
+import org.practice.universal_directory_constructor.repository.TypedRecordRepository;
+import org.practice.universal_directory_constructor.storage.JsonbLayout;
+import org.practice.universal_directory_constructor.storage.RecordLayout;
+import org.practice.universal_directory_constructor.storage.TypedLayout;
+import org.practice.universal_directory_constructor.repository.DirectoryRecordCountRepository;
+import org.practice.universal_directory_constructor.schema.CompiledSchema;
 import org.practice.universal_directory_constructor.service.DirectoryService;
+import org.practice.universal_directory_constructor.service.SchemaMigrationService;
 import org.practice.universal_directory_constructor.util.validator.DirectoryReferencesValidator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,42 +44,313 @@ import java.util.stream.Collectors;
 public class DirectoryServiceImpl implements DirectoryService {
     private final DirectoryRepository repository;
     private final DirectoryMapper mapper;
-    private final RecordRepository recordRepository;
+    private final DirectoryRecordCountRepository recordCountRepository;
+    private final TypedRecordRepository typedRecordRepository;
+    private final RecordReferenceRepository referenceRepository;
+    private final RawRecordRepository rawRecordRepository;
     private final DirectoryReferencesValidator referencesValidator;
+    private final SchemaMigrationService migrationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public DirectoryDTO create(DirectoryDTOCreate dto) {
         referencesValidator.validateReferencedDirectoriesExist(dto.fields());
+        referencesValidator.validateLabelField(dto.labelField(), dto.fields());
+        referencesValidator.validateSearchLanguage(dto.searchLanguage());
         var directory = mapper.toEntity(dto);
+        directory.setFullTextSearch(!Boolean.FALSE.equals(dto.fullTextSearch()));
         var code = UUID.randomUUID().toString();
         directory.setCode(code);
         var result = repository.save(directory);
+        recordCountRepository.bumpVersion(result.getId());
+        eventPublisher.publishEvent(new DirectoryChangedEvent(result.getId(), result.getFields(), result.getSchemaVersion()));
         return mapper.toDTO(result);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<DirectoryAndCount> findAll() {
+    public List<DirectoryAndCount> findAll(boolean includeFields) {
+        if (!includeFields) {
+            return recordCountRepository.findAllWithoutFields();
+        }
         var directories = repository.findAll();
-        Set<Long> ids = directories.stream().map(Directory::getId).collect(Collectors.toSet());
-        Map<Long, Long> directoryAndCount = recordRepository.findCountForDirectory(ids)
-                .stream().collect(Collectors.toMap(CountsForDirectory::dirId, CountsForDirectory::recCount));
+        Map<Long, Long> directoryAndCount = recordCountRepository.findAll();
         return directories.stream().map(directory ->
                 mapper.directoryAndCounts(directory, (long) directory.getFields().size(),
                         directoryAndCount.getOrDefault(directory.getId(),0L))).toList();
     }
 
     @Override
-    public DirectoryDTO update(Long id, DirectoryDTO dto) {
+    @Scheduled(cron = "${app.records.counters.reconcile-cron:-}")
+    public void reconcileRecordCounts() {
+        recordCountRepository.reconcile(repository.findIdsByStorageMode(StorageMode.TYPED));
+        eventPublisher.publishEvent(new RecordCountsReconciledEvent());
+    }
+
+    /**
+     * Typed tables created before records carried a version or a search vector get the columns on startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void upgradeTypedTables() {
+        for (Directory directory : repository.findAll()) {
+            if (directory.getStorageMode() == StorageMode.TYPED) {
+                typedRecordRepository.addVersionColumn(directory.getId());
+                typedRecordRepository.indexColumns(TypedLayout.of(directory.getId(), directory.getFields()));
+                syncSearchVector(directory);
+            }
+        }
+    }
+
+    @Override
+    public void changeStorageMode(Long id, StorageMode mode) {
         var directory = repository.findById(id).orElseThrow(() ->
                 new ResponseStatusException(HttpStatus.NOT_FOUND,
                         "Directory with id: %s not found".formatted(id))
         );
+        if (directory.getStorageMode() == mode) {
+            return;
+        }
+        if (migrationService.hasUnfinished(id)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Directory %d has a schema migration in progress".formatted(id));
+        }
+        var layout = TypedLayout.of(id, directory.getFields());
+        try {
+            if (mode == StorageMode.TYPED) {
+                typedRecordRepository.createTable(layout);
+                typedRecordRepository.moveFromJsonb(layout);
+                syncSearchVector(directory);
+            } else {
+                typedRecordRepository.moveToJsonb(layout);
+            }
+        } catch (DataAccessException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Existing records of directory %d do not fit the typed columns".formatted(id), e);
+        }
+        directory.setStorageMode(mode);
+        directory.setSchemaVersion(directory.getSchemaVersion() + 1);
+        var result = repository.save(directory);
+        recordCountRepository.bumpVersion(id);
+        eventPublisher.publishEvent(new DirectoryChangedEvent(id, result.getFields(), result.getSchemaVersion()));
+    }
+
+    /**
+     * A field missing from {@code dto} is dropped together with its values. A PUT cannot tell a rename from a drop
+     * plus a new field, so dropping fields that still hold values needs {@code dropValues}; renames go through
+     * {@link #migrate}. Values that do not fit a changed field type are removed.
+     */
+    @Override
+    public DirectoryDTO update(Long id, DirectoryDTO dto, boolean dropValues) {
+        var directory = findDirectory(id);
+        Map<String, DirectoryFieldsDTO> after = new HashMap<>();
+        dto.fields().forEach(f -> after.putIfAbsent(f.name(), f));
+        List<FieldChangeDTO> changes = new ArrayList<>();
+        List<DirectoryFields> dropped = new ArrayList<>();
+        for (DirectoryFields field : directory.getFields()) {
+            var updated = after.get(field.getName());
+            if (updated == null) {
+                changes.add(new FieldChangeDTO(FieldChangeType.DROP, field.getName(), null, null, null));
+                dropped.add(field);
+            } else if (updated.type() != field.getType()) {
+                changes.add(new FieldChangeDTO(FieldChangeType.CHANGE_TYPE, field.getName(), null,
+                        updated.type(), updated.directoryId()));
+            }
+        }
+        if (!dropValues && !dropped.isEmpty()) {
+            var filled = rawRecordRepository.findFilledFields(layout(directory), dropped);
+            if (!filled.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, ("Fields %s of directory %d still hold values; "
+                        + "rename them through migrations or confirm with dropValues=true").formatted(filled, id));
+            }
+        }
+        return applyFields(directory, dto, changes);
+    }
+
+    @Override
+    public DirectoryDTO migrate(Long id, List<FieldChangeDTO> changes) {
+        var directory = findDirectory(id);
+        List<DirectoryFieldsDTO> fields = new ArrayList<>(directory.getFields().stream()
+                .map(f -> new DirectoryFieldsDTO(f.getName(), f.getType(), f.getDirectoryId(), f.getSearchWeight()))
+                .toList());
+        var labelField = directory.getLabelField();
+        for (FieldChangeDTO change : changes) {
+            int index = indexOf(fields, change.field());
+            if (index < 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Field '%s' does not exist".formatted(change.field()));
+            }
+            var field = fields.get(index);
+            switch (change.type()) {
+                case RENAME -> {
+                    if (change.newName() == null || change.newName().isBlank()) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                "New name is required to rename field '%s'".formatted(change.field()));
+                    }
+                    if (indexOf(fields, change.newName()) >= 0) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                "Field '%s' already exists".formatted(change.newName()));
+                    }
+                    fields.set(index, new DirectoryFieldsDTO(change.newName(), field.type(), field.directoryId(),
+                            field.searchWeight()));
+                    if (change.field().equals(labelField)) {
+                        labelField = change.newName();
+                    }
+                }
+                case DROP -> fields.remove(index);
+                case CHANGE_TYPE -> {
+                    if (change.newType() == null || (change.newType() == FieldsType.DIRECTORY_REFERENCE
+                            && change.directoryId() == null)) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                "New type of field '%s' is incomplete".formatted(change.field()));
+                    }
+                    fields.set(index, new DirectoryFieldsDTO(field.name(), change.newType(),
+                            change.newType() == FieldsType.DIRECTORY_REFERENCE ? change.directoryId() : null,
+                            field.searchWeight()));
+                }
+            }
+        }
+        var label = labelField;
+        if (fields.stream().noneMatch(f -> f.type() == FieldsType.STRING && f.name().equals(label))) {
+            labelField = null;
+        }
+        var dto = new DirectoryDTO(id, directory.getName(), directory.getCode(), fields, labelField,
+                directory.getSearchLanguage(), directory.getFullTextSearch());
+        return applyFields(directory, dto, changes);
+    }
+
+    /**
+     * Typed tables are altered in this transaction without rewriting them; values of columns whose type changed, like
+     * JSONB records, are converted afterwards by a background migration, which also re-indexes references of the
+     * fields it touches.
+     */
+    private DirectoryDTO applyFields(Directory directory, DirectoryDTO dto, List<FieldChangeDTO> changes) {
+        var id = directory.getId();
         referencesValidator.validateReferencedDirectoriesExist(dto.fields());
         referencesValidator.validateNotSelfReference(id, dto.fields());
+        referencesValidator.validateLabelField(dto.labelField(), dto.fields());
+        referencesValidator.validateSearchLanguage(dto.searchLanguage());
+        var referencesBefore = referenceFields(directory.getFields());
+        var searchBefore = searchDefinition(directory);
         mapper.updateWithNull(dto, directory);
+        if (directory.getLabelField() != null && directory.getFields().stream().noneMatch(f ->
+                f.getType() == FieldsType.STRING && f.getName().equals(directory.getLabelField()))) {
+            directory.setLabelField(null);
+        }
+        directory.setSchemaVersion(directory.getSchemaVersion() + 1);
+        boolean searchChanged = !searchDefinition(directory).equals(searchBefore);
+        if (directory.getStorageMode() == StorageMode.TYPED) {
+            var conversions = typedConversions(id, changes);
+            if (searchChanged) {
+                typedRecordRepository.dropSearchVector(id);
+            }
+            for (FieldChangeDTO change : changes) {
+                switch (change.type()) {
+                    case RENAME -> typedRecordRepository.renameColumn(id, change.field(), change.newName());
+                    case DROP -> typedRecordRepository.dropColumn(id, change.field());
+                    case CHANGE_TYPE -> typedRecordRepository.setAsideColumn(id, change.field());
+                }
+            }
+            typedRecordRepository.syncColumns(TypedLayout.of(id, directory.getFields()));
+            syncSearchVector(directory);
+            var referencesAfter = referenceFields(directory.getFields());
+            if (!referencesAfter.equals(referencesBefore)) {
+                referenceRepository.rebuild(layout(directory), id, referencesAfter);
+            }
+            if (!conversions.isEmpty()) {
+                migrationService.enqueue(layout(directory), id, conversions, false);
+            }
+        } else if (!changes.isEmpty() || searchChanged) {
+            migrationService.enqueue(layout(directory), id, changes, searchChanged);
+        }
         var result = repository.save(directory);
+        recordCountRepository.bumpVersion(id);
+        eventPublisher.publishEvent(new DirectoryChangedEvent(id, result.getFields(), result.getSchemaVersion()));
         return mapper.toDTO(result);
     }
 
+    @Override
+    public void rebuildReferences() {
+        for (Directory directory : repository.findAll()) {
+            var references = referenceFields(directory.getFields());
+            if (!references.isEmpty()) {
+                referenceRepository.rebuild(layout(directory), directory.getId(), references);
+            }
+        }
+    }
+
+    private Directory findDirectory(Long id) {
+        return repository.findById(id).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Directory with id: %s not found".formatted(id))
+        );
+    }
+
+    /**
+     * Type changes of a typed directory, which its background migration converts. The set-aside columns it reads
+     * follow the field name, so other changes wait for it and may not touch a converted field in the same request.
+     */
+    private List<FieldChangeDTO> typedConversions(Long id, List<FieldChangeDTO> changes) {
+        if (!changes.isEmpty() && migrationService.hasUnfinished(id)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Directory %d has a schema migration in progress".formatted(id));
+        }
+        var conversions = changes.stream().filter(c -> c.type() == FieldChangeType.CHANGE_TYPE).toList();
+        for (FieldChangeDTO conversion : conversions) {
+            if (changes.stream().anyMatch(c -> c != conversion && (c.field().equals(conversion.field())
+                    || conversion.field().equals(c.newName())))) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Change the type of field '%s' in a separate request".formatted(conversion.field()));
+            }
+        }
+        return conversions;
+    }
+
+    private static int indexOf(List<DirectoryFieldsDTO> fields, String name) {
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).name().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<DirectoryFields> referenceFields(List<DirectoryFields> fields) {
+        return fields.stream()
+                .filter(f -> f.getType() == FieldsType.DIRECTORY_REFERENCE)
+                .map(f -> new DirectoryFields(f.getName(), f.getType(), f.getDirectoryId()))
+                .toList();
+    }
+
+    private void syncSearchVector(Directory directory) {
+        if (!directory.getFullTextSearch()) {
+            typedRecordRepository.dropSearchVector(directory.getId());
+            return;
+        }
+        typedRecordRepository.syncSearchVector(directory.getId(), directory.getFields(),
+                Objects.requireNonNullElse(directory.getSearchLanguage(), CompiledSchema.DEFAULT_SEARCH_LANGUAGE));
+    }
+
+    /**
+     * What the full-text vector of a record is built from; stored vectors are recomputed when it changes.
+     */
+    private static List<String> searchDefinition(Directory directory) {
+        if (!directory.getFullTextSearch()) {
+            return List.of();
+        }
+        List<String> definition = new ArrayList<>();
+        definition.add(Objects.requireNonNullElse(directory.getSearchLanguage(), CompiledSchema.DEFAULT_SEARCH_LANGUAGE));
+        for (DirectoryFields field : directory.getFields()) {
+            if (field.getType() == FieldsType.STRING) {
+                definition.add(field.getName() + ":" + Objects.requireNonNullElse(field.getSearchWeight(), "D"));
+            }
+        }
+        return definition;
+    }
+
+    private static RecordLayout layout(Directory directory) {
+        return directory.getStorageMode() == StorageMode.TYPED
+                ? TypedLayout.of(directory.getId(), directory.getFields())
+                : new JsonbLayout(directory.getId());
+    }
+
 }
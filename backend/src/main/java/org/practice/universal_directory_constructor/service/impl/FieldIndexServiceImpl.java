@@ -0,0 +1,149 @@
+package org.practice.universal_directory_constructor.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.practice.universal_directory_constructor.config.properties.TrigramIndexProperties;
+import org.practice.universal_directory_constructor.dto.fieldIndex.ExistingIndexDTO;
+import org.practice.universal_directory_constructor.dto.fieldIndex.FieldIndexDTO;
+import org.practice.universal_directory_constructor.dto.fieldIndex.FieldIndexState;
+import org.practice.universal_directory_constructor.entity.Directory;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.StorageMode;
+import org.practice.universal_directory_constructor.event.DirectoryChangedEvent;
+import org.practice.universal_directory_constructor.repository.DirectoryRepository;
+import org.practice.universal_directory_constructor.repository.FieldIndexRepository;
+import org.practice.universal_directory_constructor.service.FieldIndexService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FieldIndexServiceImpl implements FieldIndexService {
+    private final FieldIndexRepository indexRepository;
+    private final DirectoryRepository directoryRepository;
+    private final TrigramIndexProperties properties;
+    private final ThreadPoolTaskExecutor indexTaskExecutor;
+    private final Set<Long> syncing = ConcurrentHashMap.newKeySet();
+    private volatile boolean extensionReady;
+
+    @Override
+    public List<FieldIndexDTO> findAll(Long directoryId) {
+        var directory = directoryRepository.findById(directoryId).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Directory with id: %s not found".formatted(directoryId)));
+        Map<String, ExistingIndexDTO> existing = indexRepository.findExisting(directoryId).stream()
+                .collect(Collectors.toMap(ExistingIndexDTO::indexName, Function.identity()));
+        List<FieldIndexDTO> result = new ArrayList<>();
+        for (String field : searchableFields(directory)) {
+            var name = indexRepository.indexName(directoryId, field);
+            var index = existing.remove(name);
+            result.add(new FieldIndexDTO(field, name, stateOf(directoryId, index), index == null ? null : index.sizeBytes()));
+        }
+        existing.values().forEach(index -> result.add(
+                new FieldIndexDTO(index.field(), index.indexName(), FieldIndexState.ORPHANED, index.sizeBytes())));
+        return result;
+    }
+
+    @Override
+    public void scheduleSync(Long directoryId) {
+        if (!directoryRepository.existsById(directoryId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Directory with id: %s not found".formatted(directoryId));
+        }
+        schedule(directoryId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!properties.enabled() || !properties.syncOnStartup()) {
+            return;
+        }
+        indexTaskExecutor.execute(() -> directoryRepository.findAll().forEach(d -> sync(d.getId())));
+    }
+
+    @TransactionalEventListener
+    public void onDirectoryChanged(DirectoryChangedEvent event) {
+        schedule(event.directoryId());
+    }
+
+    private void schedule(Long directoryId) {
+        if (!properties.enabled()) {
+            return;
+        }
+        indexTaskExecutor.execute(() -> sync(directoryId));
+    }
+
+    private void sync(Long directoryId) {
+        syncing.add(directoryId);
+        try {
+            if (!ensureExtension()) {
+                return;
+            }
+            var directory = directoryRepository.findById(directoryId).orElse(null);
+            if (directory == null) {
+                return;
+            }
+            Map<String, String> missing = new LinkedHashMap<>();
+            for (String field : searchableFields(directory)) {
+                missing.put(indexRepository.indexName(directoryId, field), field);
+            }
+            for (ExistingIndexDTO index : indexRepository.findExisting(directoryId)) {
+                if (index.valid() && missing.remove(index.indexName()) != null) {
+                    continue;
+                }
+                indexRepository.dropConcurrently(index.indexName());
+            }
+            missing.values().forEach(field -> indexRepository.createConcurrently(directoryId, field));
+        } catch (DataAccessException e) {
+            log.warn("Failed to sync trigram indexes for directory {}", directoryId, e);
+        } finally {
+            syncing.remove(directoryId);
+        }
+    }
+
+    private boolean ensureExtension() {
+        if (!extensionReady) {
+            try {
+                indexRepository.createExtension();
+                extensionReady = true;
+            } catch (DataAccessException e) {
+                log.warn("pg_trgm extension is not available, trigram indexes are not created", e);
+            }
+        }
+        return extensionReady;
+    }
+
+    private FieldIndexState stateOf(Long directoryId, ExistingIndexDTO index) {
+        if (index == null) {
+            return syncing.contains(directoryId) ? FieldIndexState.BUILDING : FieldIndexState.MISSING;
+        }
+        if (index.valid()) {
+            return FieldIndexState.VALID;
+        }
+        return syncing.contains(directoryId) ? FieldIndexState.BUILDING : FieldIndexState.INVALID;
+    }
+
+    private static List<String> searchableFields(Directory directory) {
+        if (directory.getStorageMode() == StorageMode.TYPED) {
+            // typed tables carry their own column indexes
+            return List.of();
+        }
+        // search matches every field as text, and one unindexed branch of its disjunction forces a sequential scan
+        return directory.getFields().stream()
+                .map(DirectoryFields::getName)
+                .distinct()
+                .toList();
+    }
+}
@@ -0,0 +1,246 @@
+package org.practice.universal_directory_constructor.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.practice.universal_directory_constructor.config.properties.RecordImportProperties;
+import org.practice.universal_directory_constructor.dto.importJob.ImportFormat;
+import org.practice.universal_directory_constructor.dto.importJob.ImportJobDTO;
+import org.practice.universal_directory_constructor.dto.importJob.RejectedRowDTO;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.event.RecordSavedEvent;
+import org.practice.universal_directory_constructor.importer.CountingInputStream;
+import org.practice.universal_directory_constructor.importer.ImportJob;
+import org.practice.universal_directory_constructor.importer.ImportJobRegistry;
+import org.practice.universal_directory_constructor.importer.reader.CsvRowReader;
+import org.practice.universal_directory_constructor.importer.reader.NdjsonRowReader;
+import org.practice.universal_directory_constructor.importer.reader.RowFormatException;
+import org.practice.universal_directory_constructor.importer.reader.RowReader;
+import org.practice.universal_directory_constructor.repository.DirectoryRecordCountRepository;
+import org.practice.universal_directory_constructor.repository.DirectoryRepository;
+import org.practice.universal_directory_constructor.repository.RecordCopyRepository;
+import org.practice.universal_directory_constructor.repository.TypedRecordRepository;
+import org.practice.universal_directory_constructor.schema.CompiledSchema;
+import org.practice.universal_directory_constructor.schema.DirectorySchemaCache;
+import org.practice.universal_directory_constructor.service.ImportService;
+import org.practice.universal_directory_constructor.util.validator.RecordReferenceValidator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+@Slf4j
+@Service
+public class ImportServiceImpl implements ImportService {
+    private final DirectoryRepository directoryRepository;
+    private final RecordCopyRepository copyRepository;
+    private final TypedRecordRepository typedRecordRepository;
+    private final DirectoryRecordCountRepository recordCountRepository;
+    private final DirectorySchemaCache schemaCache;
+    private final RecordReferenceValidator referenceValidator;
+    private final ImportJobRegistry jobRegistry;
+    private final RecordImportProperties properties;
+    private final ThreadPoolTaskExecutor importTaskExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final ObjectReader rowReader;
+    private final ObjectWriter valuesWriter;
+
+    public ImportServiceImpl(DirectoryRepository directoryRepository,
+                             RecordCopyRepository copyRepository,
+                             TypedRecordRepository typedRecordRepository,
+                             DirectoryRecordCountRepository recordCountRepository,
+                             DirectorySchemaCache schemaCache,
+                             RecordReferenceValidator referenceValidator,
+                             ImportJobRegistry jobRegistry,
+                             RecordImportProperties properties,
+                             ThreadPoolTaskExecutor importTaskExecutor,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             JsonMapper jsonMapper) {
+        this.directoryRepository = directoryRepository;
+        this.copyRepository = copyRepository;
+        this.typedRecordRepository = typedRecordRepository;
+        this.recordCountRepository = recordCountRepository;
+        this.schemaCache = schemaCache;
+        this.referenceValidator = referenceValidator;
+        this.jobRegistry = jobRegistry;
+        this.properties = properties;
+        this.importTaskExecutor = importTaskExecutor;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.rowReader = jsonMapper.readerFor(Map.class).with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.valuesWriter = jsonMapper.writer();
+    }
+
+    @Override
+    public ImportJobDTO start(Long directoryId, MultipartFile file, ImportFormat format) {
+        if (!directoryRepository.existsById(directoryId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Directory with ID " + directoryId + " not found");
+        }
+        if (file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Import file must not be empty");
+        }
+        var resolvedFormat = format != null ? format : detectFormat(file);
+        Path path;
+        try {
+            path = Files.createTempFile("record-import-", "." + resolvedFormat.name().toLowerCase(Locale.ROOT));
+            file.transferTo(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        var job = new ImportJob(directoryId, file.getOriginalFilename(), resolvedFormat, path, file.getSize(),
+                properties.maxRejectedReport());
+        jobRegistry.register(job);
+        importTaskExecutor.execute(() -> run(job));
+        return job.toDTO();
+    }
+
+    @Override
+    public ImportJobDTO find(String jobId) {
+        return findJob(jobId).toDTO();
+    }
+
+    @Override
+    public List<RejectedRowDTO> findRejected(String jobId) {
+        return findJob(jobId).rejectedReport();
+    }
+
+    private ImportJob findJob(String jobId) {
+        return jobRegistry.find(jobId).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Import job %s not found".formatted(jobId)));
+    }
+
+    private void run(ImportJob job) {
+        job.start();
+        try (var reader = openReader(job)) {
+            var schema = schemaCache.get(job.getDirectoryId());
+            var fields = schema.fields();
+            if (reader instanceof CsvRowReader csv) {
+                var missing = fields.stream()
+                        .map(DirectoryFields::getName)
+                        .filter(name -> !csv.header().contains(name))
+                        .toList();
+                if (!missing.isEmpty()) {
+                    job.fail("Missing columns %s".formatted(missing));
+                    return;
+                }
+            }
+            List<PendingRow> chunk = new ArrayList<>(properties.chunkSize());
+            while (true) {
+                Map<String, Object> row;
+                try {
+                    row = reader.next();
+                } catch (RowFormatException e) {
+                    job.getProcessedRows().incrementAndGet();
+                    job.reject(reader.line(), e.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                job.getProcessedRows().incrementAndGet();
+                Map<String, Object> values = new HashMap<>();
+                fields.forEach(f -> values.put(f.getName(), row.get(f.getName())));
+                var violations = schema.validate(values);
+                if (!violations.isEmpty()) {
+                    job.reject(reader.line(), CompiledSchema.describe(violations));
+                    continue;
+                }
+                chunk.add(new PendingRow(reader.line(), values));
+                if (chunk.size() >= properties.chunkSize()) {
+                    writeChunk(job, schema, chunk);
+                }
+            }
+            writeChunk(job, schema, chunk);
+            job.complete();
+        } catch (Exception e) {
+            log.warn("Import job {} for directory {} failed", job.getId(), job.getDirectoryId(), e);
+            job.fail(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(job.getFile());
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}", job.getFile(), e);
+            }
+        }
+    }
+
+    private void writeChunk(ImportJob job, CompiledSchema schema, List<PendingRow> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        var fields = schema.referenceFields();
+        var dirByRecordId = referenceValidator.resolveDirectories(fields,
+                chunk.stream().map(PendingRow::values).toList());
+        List<PendingRow> valid = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            var error = referenceValidator.findViolation(fields, row.values(), dirByRecordId);
+            if (error != null) {
+                job.reject(row.line(), error);
+            } else {
+                valid.add(row);
+            }
+        }
+        chunk.clear();
+        if (valid.isEmpty()) {
+            return;
+        }
+        transaction.executeWithoutResult(status -> {
+            long[] ids = copyRepository.allocateIds(valid.size());
+            if (schema.typed()) {
+                typedRecordRepository.insert(schema.typedLayout(), ids, valid.stream().map(PendingRow::values).toList());
+            } else {
+                copyIn(job, ids, valid);
+            }
+            recordCountRepository.increment(job.getDirectoryId(), valid.size());
+            for (int i = 0; i < valid.size(); i++) {
+                eventPublisher.publishEvent(new RecordSavedEvent(job.getDirectoryId(), ids[i], valid.get(i).values()));
+            }
+        });
+        job.getImportedRows().addAndGet(valid.size());
+    }
+
+    private void copyIn(ImportJob job, long[] ids, List<PendingRow> valid) {
+        var csv = new StringBuilder(valid.size() * 64);
+        for (int i = 0; i < valid.size(); i++) {
+            csv.append(ids[i]).append(',').append(job.getDirectoryId()).append(",\"")
+                    .append(valuesWriter.writeValueAsString(valid.get(i).values()).replace("\"", "\"\""))
+                    .append("\"\n");
+        }
+        copyRepository.copyIn(csv.toString());
+    }
+
+    private RowReader openReader(ImportJob job) throws IOException {
+        var in = new InputStreamReader(
+                new CountingInputStream(Files.newInputStream(job.getFile()), job.getReadBytes()),
+                StandardCharsets.UTF_8);
+        return job.getFormat() == ImportFormat.NDJSON ? new NdjsonRowReader(in, rowReader) : new CsvRowReader(in);
+    }
+
+    private static ImportFormat detectFormat(MultipartFile file) {
+        var name = Objects.requireNonNullElse(file.getOriginalFilename(), "").toLowerCase(Locale.ROOT);
+        var contentType = Objects.requireNonNullElse(file.getContentType(), "");
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || contentType.contains("ndjson")) {
+            return ImportFormat.NDJSON;
+        }
+        return ImportFormat.CSV;
+    }
+
+    private record PendingRow(long line, Map<String, Object> values) {
+    }
+}
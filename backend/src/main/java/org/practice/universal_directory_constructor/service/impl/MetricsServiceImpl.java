@@ -0,0 +1,44 @@
+package org.practice.universal_directory_constructor.service.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.practice.universal_directory_constructor.dto.metrics.HibernateStatsDTO;
+import org.practice.universal_directory_constructor.dto.metrics.MetricsDTO;
+import org.practice.universal_directory_constructor.metrics.MetricsRegistry;
+import org.practice.universal_directory_constructor.service.MetricsService;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class MetricsServiceImpl implements MetricsService {
+    private final MetricsRegistry registry;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public MetricsDTO snapshot() {
+        return new MetricsDTO(registry.requests(), registry.methods(), hibernate());
+    }
+
+    @Override
+    public void reset() {
+        registry.reset();
+        entityManagerFactory.unwrap(SessionFactory.class).getStatistics().clear();
+    }
+
+    private HibernateStatsDTO hibernate() {
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return new HibernateStatsDTO(
+                statistics.isStatisticsEnabled(),
+                statistics.getPrepareStatementCount(),
+                statistics.getQueryExecutionCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount(),
+                statistics.getCollectionLoadCount(),
+                statistics.getCollectionFetchCount(),
+                statistics.getTransactionCount(),
+                statistics.getQueryExecutionMaxTimeQueryString(),
+                statistics.getQueryExecutionMaxTime()
+        );
+    }
+}
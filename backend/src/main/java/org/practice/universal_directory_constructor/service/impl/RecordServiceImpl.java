@@ -1,25 +1,63 @@
 package org.practice.universal_directory_constructor.service.impl;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 
-import org.practice.universal_directory_constructor.dto.recordCheckReference.ReferenceCheckDTO;
-import org.practice.universal_directory_constructor.dto.recordCheckReference.RepositoryResultDTO;
 import org.practice.universal_directory_constructor.entity.DirectoryFields;
-import org.practice.universal_directory_constructor.entity.FieldsType;
+import org.practice.universal_directory_constructor.cache.RecordDirectoryCache;
+import org.practice.universal_directory_constructor.cache.RecordPageCache;
+import org.practice.universal_directory_constructor.config.properties.RecordBatchProperties;
+import org.practice.universal_directory_constructor.dto.RawRecordDTO;
 import org.practice.universal_directory_constructor.dto.RecordDTO;
+import org.practice.universal_directory_constructor.dto.batch.BatchRecordResultDTO;
+import org.practice.universal_directory_constructor.dto.batch.BatchResultDTO;
+import org.practice.universal_directory_constructor.dto.cursor.CursorPageDTO;
+import org.practice.universal_directory_constructor.dto.cursor.CursorPageRequest;
+import org.practice.universal_directory_constructor.dto.cursor.TotalMode;
+import org.practice.universal_directory_constructor.dto.reference.ReferenceDeleteMode;
+import org.practice.universal_directory_constructor.dto.reference.ReferrerDTO;
+import org.practice.universal_directory_constructor.entity.FieldsType;
+import org.practice.universal_directory_constructor.entity.Record;
+import org.practice.universal_directory_constructor.entity.StorageMode;
+import org.practice.universal_directory_constructor.event.RecordDeletedEvent;
+import org.practice.universal_directory_constructor.expand.ReferenceExpander;
+import org.practice.universal_directory_constructor.event.RecordSavedEvent;
+import org.practice.universal_directory_constructor.filter.FullTextQuery;
 import org.practice.universal_directory_constructor.filter.RecordFilter;
+import org.practice.universal_directory_constructor.filter.RecordSeek;
 import org.practice.universal_directory_constructor.mapper.RecordMapper;
 import org.practice.universal_directory_constructor.repository.DirectoryRepository;
+import org.practice.universal_directory_constructor.repository.DirectoryRecordCountRepository;
+import org.practice.universal_directory_constructor.repository.RawRecordRepository;
+import org.practice.universal_directory_constructor.repository.RecordCopyRepository;
+import org.practice.universal_directory_constructor.repository.RecordEstimateRepository;
+import org.practice.universal_directory_constructor.repository.RecordReferenceRepository;
+import org.practice.universal_directory_constructor.repository.TypedRecordRepository;
 import org.practice.universal_directory_constructor.repository.RecordRepository;
+import org.practice.universal_directory_constructor.schema.CompiledSchema;
+import org.practice.universal_directory_constructor.schema.DirectorySchemaCache;
+import org.practice.universal_directory_constructor.search.RecordSearchEngine;
+import org.practice.universal_directory_constructor.search.SearchMode;
 import org.practice.universal_directory_constructor.service.RecordService;
+import org.practice.universal_directory_constructor.util.cursor.RecordCursor;
+import org.practice.universal_directory_constructor.util.stream.RecordStreamFormat;
+import org.practice.universal_directory_constructor.util.stream.RecordStreamWriter;
 import org.practice.universal_directory_constructor.util.validator.RecordReferenceValidator;
-import org.practice.universal_directory_constructor.util.validator.RecordValuesValidator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -28,29 +66,206 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class RecordServiceImpl implements RecordService {
+    private static final int DEFAULT_CURSOR_PAGE_SIZE = 20;
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final int MAX_REFERRERS = 1000;
+
     private final RecordRepository recordRepository;
+    private final RawRecordRepository rawRecordRepository;
+    private final TypedRecordRepository typedRecordRepository;
+    private final RecordCopyRepository copyRepository;
+    private final RecordReferenceRepository referenceRepository;
+    private final RecordEstimateRepository estimateRepository;
+    private final DirectoryRecordCountRepository recordCountRepository;
     private final DirectoryRepository directoryRepository;
     private final RecordMapper mapper;
-    private final RecordValuesValidator valuesValidator;
+    private final DirectorySchemaCache schemaCache;
+    private final RecordPageCache pageCache;
+    private final RecordDirectoryCache directoryCache;
     private final RecordReferenceValidator referenceValidator;
+    private final RecordSearchEngine searchEngine;
+    private final ReferenceExpander referenceExpander;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecordStreamWriter streamWriter;
+    private final RecordBatchProperties batchProperties;
+    private final EntityManager entityManager;
+    private final JsonMapper jsonMapper;
 
+    /**
+     * Answered from the page cache while the directory's generation is unchanged, so a hit does not touch the database.
+     * A miss runs the page and count queries outside a transaction, each in its own snapshot as before.
+     */
     @Override
-    @Transactional(readOnly = true)
-    public PagedModel<RecordDTO> findAllPagination(Long id, Pageable pageable, String search) {
-        var directory = directoryRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Directory with ID " + id + " not found"));
-        var filter = new RecordFilter(id, search,directory.getFields());
-        return new PagedModel<>(recordRepository.findAll(filter.toSpecification(), pageable).map(mapper::toDTO));
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public PagedModel<RawRecordDTO> findAllPagination(Long id, Pageable pageable, String search, SearchMode searchMode,
+                                                      Set<String> expand) {
+        return pageCache.get(id, new PageQuery(search, searchMode, expand, pageable),
+                () -> loadPage(id, pageable, search, searchMode, expand),
+                page -> RecordPageCache.weigh(page.getContent()));
+    }
+
+    private PagedModel<RawRecordDTO> loadPage(Long id, Pageable pageable, String search, SearchMode searchMode,
+                                              Set<String> expand) {
+        var schema = schemaCache.get(id);
+        var page = searchMode == SearchMode.FULL_TEXT
+                ? findFullTextPage(schema, pageable, search)
+                : findPage(schema, pageable, search);
+        if (expand == null || expand.isEmpty()) {
+            return new PagedModel<>(page);
+        }
+        return new PagedModel<>(new PageImpl<>(referenceExpander.expand(schema, expand, page.getContent()),
+                page.getPageable(), page.getTotalElements()));
+    }
+
+    private Page<RawRecordDTO> findPage(CompiledSchema schema, Pageable pageable, String search) {
+        if (!schema.typed() && searchEngine.supports(search, pageable)) {
+            return searchWithIndex(schema, pageable, search);
+        }
+        var filter = new RecordFilter(schema.directoryId(), search, schema.fields());
+        var layout = schema.layout();
+        var orderBy = orderBy(schema, pageable.getSort());
+        if (orderBy == null) {
+            if (schema.typed()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Records can only be sorted by id or a directory field");
+            }
+            return recordRepository.findAll(filter.toSpecification(), pageable).map(this::toRawDTO);
+        }
+        if (pageable.isUnpaged()) {
+            var content = rawRecordRepository.findPage(layout, filter, orderBy, 0, null);
+            return new PageImpl<>(content, pageable, content.size());
+        }
+        var content = rawRecordRepository.findPage(layout, filter, orderBy, pageable.getOffset(),
+                pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable, () -> rawRecordRepository.count(layout, filter));
+    }
+
+    /**
+     * Ranked search over the weighted {@code search_vector} of the directory's STRING fields. An explicit sort
+     * replaces the relevance order.
+     */
+    private Page<RawRecordDTO> findFullTextPage(CompiledSchema schema, Pageable pageable, String search) {
+        if (!schema.fullTextSearch()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Full-text search is disabled for directory %d".formatted(schema.directoryId()));
+        }
+        var query = FullTextQuery.of(schema.searchLanguage(), search).orElse(null);
+        if (query == null) {
+            return findPage(schema, pageable, null);
+        }
+        if (schema.fields().stream().noneMatch(f -> f.getType() == FieldsType.STRING)) {
+            return Page.empty(pageable);
+        }
+        String orderBy = null;
+        if (pageable.getSort().isSorted()) {
+            orderBy = orderBy(schema, pageable.getSort());
+            if (orderBy == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Records can only be sorted by id or a directory field");
+            }
+        }
+        var layout = schema.layout();
+        if (pageable.isUnpaged()) {
+            var content = rawRecordRepository.findMatching(layout, query, orderBy, 0, null);
+            return new PageImpl<>(content, pageable, content.size());
+        }
+        var content = rawRecordRepository.findMatching(layout, query, orderBy, pageable.getOffset(),
+                pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable, () -> rawRecordRepository.countMatching(layout, query));
+    }
+
+    private static String orderBy(CompiledSchema schema, Sort sort) {
+        List<String> keys = new ArrayList<>();
+        boolean byId = false;
+        for (Sort.Order order : sort) {
+            String direction = order.isDescending() ? " desc" : " asc";
+            if (order.getProperty().equals(RecordSeek.ID)) {
+                keys.add("id" + direction);
+                byId = true;
+                continue;
+            }
+            var field = schema.field(order.getProperty());
+            if (field.isEmpty()) {
+                return null;
+            }
+            keys.add(schema.layout().sortKey(field.get()) + direction);
+        }
+        if (!byId) {
+            keys.add("id asc");
+        }
+        return String.join(", ", keys);
+    }
+
+    private Page<RawRecordDTO> searchWithIndex(CompiledSchema schema, Pageable pageable, String search) {
+        long[] ids = searchEngine.search(schema.directoryId(), schema.fields(), search, pageable.getSort());
+        int from = (int) Math.min(pageable.getOffset(), ids.length);
+        int to = Math.min(from + pageable.getPageSize(), ids.length);
+        List<Long> pageIds = Arrays.stream(ids, from, to).boxed().toList();
+        Map<Long, RawRecordDTO> byId = rawRecordRepository.findAllById(schema.layout(), pageIds).stream()
+                .collect(Collectors.toMap(RawRecordDTO::id, r -> r));
+        List<RawRecordDTO> content = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, pageable, ids.length);
+    }
+
+    private RawRecordDTO toRawDTO(Record record) {
+        return new RawRecordDTO(record.getId(), jsonMapper.writeValueAsString(record.getValues()), record.getVersion());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<RecordDTO> findAllForDirectory(Long id, String search) {
-        var directory = directoryRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Directory with ID " + id + " not found"));
-        var filter = new RecordFilter(id, search,directory.getFields());
-        var result = recordRepository.findAll(filter.toSpecification());
-        return result.stream().map(mapper::toDTO).toList();
+    public CursorPageDTO<RawRecordDTO> findAllByCursor(Long id, CursorPageRequest request) {
+        var schema = schemaCache.get(id);
+        int size = Objects.requireNonNullElse(request.size(), DEFAULT_CURSOR_PAGE_SIZE);
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Page size must be between 1 and %d".formatted(MAX_CURSOR_PAGE_SIZE));
+        }
+        var after = request.cursor() == null || request.cursor().isBlank() ? null : RecordCursor.decode(request.cursor());
+        var sortName = after != null ? after.sortField() : Objects.requireNonNullElse(request.sort(), RecordSeek.ID);
+        var descending = after != null ? after.descending() : request.direction() == Sort.Direction.DESC;
+        DirectoryFields sortField = null;
+        if (!RecordSeek.ID.equals(sortName)) {
+            sortField = schema.fields().stream()
+                    .filter(f -> f.getName().equals(sortName))
+                    .findFirst()
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "Unknown sort field '%s'".formatted(sortName)));
+        }
+        var seek = new RecordSeek(sortField, descending, after);
+        var filter = new RecordFilter(id, request.search(), schema.fields());
+        var rows = rawRecordRepository.findSeekPage(schema.layout(), filter, seek, size + 1);
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            var last = rows.get(size - 1);
+            nextCursor = new RecordCursor(sortName, descending, last.key(), last.record().id()).encode();
+        }
+        var totalMode = Objects.requireNonNullElse(request.total(), TotalMode.NONE);
+        Long total = switch (totalMode) {
+            case EXACT -> rawRecordRepository.count(schema.layout(), filter);
+            case ESTIMATED -> estimateRepository.estimate(schema.layout(), filter);
+            case NONE -> null;
+        };
+        var content = rows.stream().map(RawRecordRepository.KeyedRawRecord::record).toList();
+        return new CursorPageDTO<>(referenceExpander.expand(schema, request.expand(), content),
+                nextCursor, total, totalMode);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public StreamingResponseBody findAllForDirectory(Long id, String search, RecordStreamFormat format) {
+        return pageCache.getBody(id, new StreamQuery(search, format), () -> {
+            var schema = schemaCache.get(id);
+            var filter = new RecordFilter(id, search, schema.fields());
+            if (schema.typed()) {
+                return streamWriter.body(schema.layout(), filter, format);
+            }
+            return streamWriter.body(filter, format);
+        });
     }
 
     @Override
@@ -59,22 +274,196 @@ public class RecordServiceImpl implements RecordService {
             throw new ResponseStatusException(HttpStatus.CONFLICT,
                     String.format("Record with ID %d already exists", dto.id()));
         }
-        var directory = directoryRepository.findById(id).orElseThrow(() ->
-                new ResponseStatusException(HttpStatus.NOT_FOUND, "Directory with ID " + id + " not found"));
-
-        valuesValidator.validateAndType(directory.getFields(), dto.values());
-        referenceValidator.validateReferences(directory.getFields(), dto.values());
-        var record = mapper.toEntity(directory, dto);
+        var schema = schemaCache.get(id);
+        schema.validateOrThrow(dto.values());
+        referenceValidator.validateReferences(schema.referenceFields(), dto.values());
+        if (schema.typed()) {
+            long recordId = copyRepository.allocateId();
+            typedRecordRepository.insert(schema.typedLayout(), new long[]{recordId}, List.of(dto.values()));
+            recordCountRepository.increment(id, 1);
+            eventPublisher.publishEvent(new RecordSavedEvent(id, recordId, dto.values()));
+            return new RecordDTO(recordId, dto.values());
+        }
+        var record = mapper.toEntity(directoryRepository.getReferenceById(id), dto);
         var result = recordRepository.save(record);
+        recordCountRepository.increment(id, 1);
+        eventPublisher.publishEvent(new RecordSavedEvent(id, result.getId(), result.getValues()));
         return mapper.toDTO(result);
     }
 
     @Override
-    public void delete(Long id) {
-        if (!recordRepository.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Record with ID %d does not exist", id));
+    public BatchResultDTO saveAll(Long id, List<RecordDTO> dtos) {
+        if (dtos.size() > batchProperties.maxSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch must not contain more than %d records".formatted(batchProperties.maxSize()));
+        }
+        var schema = schemaCache.get(id);
+        var fields = schema.referenceFields();
+
+        String[] errors = new String[dtos.size()];
+        for (int i = 0; i < dtos.size(); i++) {
+            var dto = dtos.get(i);
+            if (dto == null) {
+                errors[i] = "Record must not be null";
+            } else if (dto.id() != null) {
+                errors[i] = String.format("Record with ID %d already exists", dto.id());
+            } else {
+                var violations = schema.validate(dto.values());
+                errors[i] = violations.isEmpty() ? null : CompiledSchema.describe(violations);
+            }
+        }
+
+        var valid = new ArrayList<Integer>();
+        for (int i = 0; i < dtos.size(); i++) {
+            if (errors[i] == null) valid.add(i);
+        }
+        var dirByRecordId = referenceValidator.resolveDirectories(fields,
+                valid.stream().map(i -> dtos.get(i).values()).toList());
+        valid.removeIf(i -> {
+            errors[i] = referenceValidator.findViolation(fields, dtos.get(i).values(), dirByRecordId);
+            return errors[i] != null;
+        });
+
+        Long[] ids = new Long[dtos.size()];
+        if (schema.typed()) {
+            insertTyped(schema, dtos, valid, ids);
+        } else {
+            insertJsonb(id, dtos, valid, ids);
+        }
+
+        recordCountRepository.increment(id, valid.size());
+
+        List<BatchRecordResultDTO> results = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            results.add(new BatchRecordResultDTO(i, ids[i], errors[i]));
+        }
+        return new BatchResultDTO(valid.size(), dtos.size() - valid.size(), results);
+    }
+
+    private void insertJsonb(Long id, List<RecordDTO> dtos, List<Integer> valid, Long[] ids) {
+        var directory = directoryRepository.getReferenceById(id);
+        for (int from = 0; from < valid.size(); from += batchProperties.flushSize()) {
+            var chunk = valid.subList(from, Math.min(from + batchProperties.flushSize(), valid.size()));
+            var records = recordRepository.saveAll(chunk.stream()
+                    .map(i -> mapper.toEntity(directory, dtos.get(i)))
+                    .toList());
+            recordRepository.flush();
+            for (int j = 0; j < chunk.size(); j++) {
+                var record = records.get(j);
+                ids[chunk.get(j)] = record.getId();
+                eventPublisher.publishEvent(new RecordSavedEvent(id, record.getId(), record.getValues()));
+            }
+            entityManager.clear();
+        }
+    }
+
+    private void insertTyped(CompiledSchema schema, List<RecordDTO> dtos, List<Integer> valid, Long[] ids) {
+        for (int from = 0; from < valid.size(); from += batchProperties.flushSize()) {
+            var chunk = valid.subList(from, Math.min(from + batchProperties.flushSize(), valid.size()));
+            long[] chunkIds = copyRepository.allocateIds(chunk.size());
+            typedRecordRepository.insert(schema.typedLayout(), chunkIds,
+                    chunk.stream().map(i -> dtos.get(i).values()).toList());
+            for (int j = 0; j < chunk.size(); j++) {
+                ids[chunk.get(j)] = chunkIds[j];
+                eventPublisher.publishEvent(new RecordSavedEvent(schema.directoryId(), chunkIds[j],
+                        dtos.get(chunk.get(j)).values()));
+            }
+        }
+    }
+
+    /**
+     * JSON merge patch of the record values: only the patched fields are validated and written, by one UPDATE that
+     * neither loads the record nor re-sends its other values. With {@code expectedVersion} the write only happens if
+     * nobody changed the record since that version.
+     */
+    @Override
+    public RawRecordDTO patch(Long id, Map<String, Object> patch, Long expectedVersion) {
+        if (patch == null || patch.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Patch must contain at least one field");
+        }
+        var directoryId = findOwner(id);
+        var schema = schemaCache.get(directoryId);
+        var violations = schema.validatePatch(patch);
+        if (!violations.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, CompiledSchema.describe(violations));
         }
-        recordRepository.deleteById(id);
+        var references = schema.referenceFields().stream()
+                .filter(f -> patch.containsKey(f.getName()))
+                .toList();
+        referenceValidator.validateReferences(references, patch);
+        var result = rawRecordRepository.patch(schema.layout(), id, patch, expectedVersion).orElseThrow(() ->
+                rawRecordRepository.exists(schema.layout(), id)
+                        ? new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                        "Record with ID %d was changed after version %d".formatted(id, expectedVersion))
+                        : new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        String.format("Record with ID %d does not exist", id)));
+        referenceRepository.deleteBySource(id, references.stream().map(DirectoryFields::getName).toList());
+        recordCountRepository.bumpVersion(directoryId);
+        eventPublisher.publishEvent(new RecordSavedEvent(directoryId, id,
+                jsonMapper.readValue(result.values(), new TypeReference<Map<String, Object>>() {
+                })));
+        return result;
     }
 
-}
\ No newline at end of file
+    /**
+     * Rows are deleted before their referrers are looked up: a concurrent save referencing them has either
+     * committed its index rows by then or will fail its key-share lock on the deleted row.
+     */
+    @Override
+    public void delete(Long id, ReferenceDeleteMode mode) {
+        var directoryId = findOwner(id);
+        Set<Long> deleted = new HashSet<>();
+        Map<Long, Set<Long>> level = Map.of(directoryId, Set.of(id));
+        while (!level.isEmpty()) {
+            level.forEach(this::deleteRecords);
+            List<Long> levelIds = new ArrayList<>();
+            level.values().forEach(levelIds::addAll);
+            deleted.addAll(levelIds);
+
+            var referrers = referenceRepository.findReferrers(levelIds);
+            referrers.removeIf(r -> deleted.contains(r.recordId()));
+            if (!referrers.isEmpty() && mode != ReferenceDeleteMode.CASCADE) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Record with ID %d is referenced by %d record(s)".formatted(id, referrers.size()));
+            }
+            level = referrers.stream().collect(Collectors.groupingBy(ReferrerDTO::directoryId,
+                    Collectors.mapping(ReferrerDTO::recordId, Collectors.toSet())));
+        }
+        referenceRepository.deleteBySources(deleted);
+    }
+
+    private void deleteRecords(Long directoryId, Set<Long> ids) {
+        ids.forEach(directoryCache::evict);
+        int count = rawRecordRepository.delete(schemaCache.get(directoryId).layout(), ids);
+        recordCountRepository.increment(directoryId, -count);
+        ids.forEach(id -> eventPublisher.publishEvent(new RecordDeletedEvent(directoryId, id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReferrerDTO> findReferrers(Long id, int limit) {
+        if (limit < 1 || limit > MAX_REFERRERS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Referrer limit must be between 1 and %d".formatted(MAX_REFERRERS));
+        }
+        findOwner(id);
+        return referenceRepository.findReferrers(id, limit);
+    }
+
+    private Long findOwner(Long id) {
+        var cached = directoryCache.find(id);
+        if (cached != null) {
+            return cached;
+        }
+        return recordRepository.findDirectoryIdById(id)
+                .or(() -> typedRecordRepository.findOwner(directoryRepository.findIdsByStorageMode(StorageMode.TYPED), id))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        String.format("Record with ID %d does not exist", id)));
+    }
+
+    private record PageQuery(String search, SearchMode searchMode, Set<String> expand, Pageable pageable) {
+    }
+
+    private record StreamQuery(String search, RecordStreamFormat format) {
+    }
+}
@@ -0,0 +1,179 @@
+package org.practice.universal_directory_constructor.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.practice.universal_directory_constructor.config.properties.SchemaMigrationProperties;
+import org.practice.universal_directory_constructor.dto.migration.FieldChangeDTO;
+import org.practice.universal_directory_constructor.dto.migration.FieldChangeType;
+import org.practice.universal_directory_constructor.dto.migration.SchemaMigrationDTO;
+import org.practice.universal_directory_constructor.dto.migration.SchemaMigrationStatus;
+import org.practice.universal_directory_constructor.event.RecordsMigratedEvent;
+import org.practice.universal_directory_constructor.event.SchemaMigrationQueuedEvent;
+import org.practice.universal_directory_constructor.repository.DirectoryRecordCountRepository;
+import org.practice.universal_directory_constructor.repository.RecordReferenceRepository;
+import org.practice.universal_directory_constructor.repository.SchemaMigrationRepository;
+import org.practice.universal_directory_constructor.repository.TypedRecordRepository;
+import org.practice.universal_directory_constructor.schema.DirectorySchemaCache;
+import org.practice.universal_directory_constructor.service.SchemaMigrationService;
+import org.practice.universal_directory_constructor.storage.RecordLayout;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+
+/**
+ * Rewrites the stored values of a JSONB directory after a schema change, or fills the converted columns of a typed
+ * one. Every chunk of records is migrated,
+ * re-indexed and checkpointed in its own short transaction, so regular writes only wait for one chunk at a time
+ * and an interrupted job picks up after its last committed chunk on the next start.
+ */
+@Slf4j
+@Service
+public class SchemaMigrationServiceImpl implements SchemaMigrationService {
+    private final SchemaMigrationRepository repository;
+    private final RecordReferenceRepository referenceRepository;
+    private final DirectoryRecordCountRepository recordCountRepository;
+    private final TypedRecordRepository typedRecordRepository;
+    private final DirectorySchemaCache schemaCache;
+    private final SchemaMigrationProperties properties;
+    private final ThreadPoolTaskExecutor migrationTaskExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+
+    public SchemaMigrationServiceImpl(SchemaMigrationRepository repository,
+                                      RecordReferenceRepository referenceRepository,
+                                      DirectoryRecordCountRepository recordCountRepository,
+                                      TypedRecordRepository typedRecordRepository,
+                                      DirectorySchemaCache schemaCache,
+                                      SchemaMigrationProperties properties,
+                                      ThreadPoolTaskExecutor migrationTaskExecutor,
+                                      ApplicationEventPublisher eventPublisher,
+                                      PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.referenceRepository = referenceRepository;
+        this.recordCountRepository = recordCountRepository;
+        this.typedRecordRepository = typedRecordRepository;
+        this.schemaCache = schemaCache;
+        this.properties = properties;
+        this.migrationTaskExecutor = migrationTaskExecutor;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Records the job in the caller's transaction; it starts once that transaction has committed the new schema.
+     */
+    @Override
+    public Long enqueue(RecordLayout layout, Long directoryId, List<FieldChangeDTO> changes, boolean refreshSearch) {
+        var id = repository.insert(layout, directoryId, changes, refreshSearch);
+        eventPublisher.publishEvent(new SchemaMigrationQueuedEvent(id));
+        return id;
+    }
+
+    @Override
+    public boolean hasUnfinished(Long directoryId) {
+        return repository.existsUnfinished(directoryId);
+    }
+
+    @Override
+    public SchemaMigrationDTO find(Long migrationId) {
+        return repository.findById(migrationId).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Schema migration %s not found".formatted(migrationId)));
+    }
+
+    @Override
+    public List<SchemaMigrationDTO> findAll(Long directoryId) {
+        return repository.findByDirectoryId(directoryId);
+    }
+
+    @TransactionalEventListener
+    public void onQueued(SchemaMigrationQueuedEvent event) {
+        migrationTaskExecutor.execute(() -> run(event.migrationId()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        for (SchemaMigrationDTO migration : repository.findUnfinished()) {
+            migrationTaskExecutor.execute(() -> run(migration.id()));
+        }
+    }
+
+    private void run(Long migrationId) {
+        var migration = repository.findById(migrationId).orElse(null);
+        if (migration == null || migration.finishedAt() != null) {
+            return;
+        }
+        repository.markRunning(migrationId);
+        var touched = touchedFields(migration.changes());
+        long lastId = migration.lastRecordId();
+        try {
+            while (true) {
+                long afterId = lastId;
+                Long next = transaction.execute(status -> migrateChunk(migration, touched, afterId));
+                if (next == null) {
+                    break;
+                }
+                lastId = next;
+                Thread.sleep(properties.pause().toMillis());
+            }
+            if (schemaCache.get(migration.directoryId()).typed()) {
+                migration.changes().forEach(change ->
+                        typedRecordRepository.dropSetAsideColumn(migration.directoryId(), change.field()));
+            }
+            repository.finish(migrationId, SchemaMigrationStatus.COMPLETED, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Schema migration {} stopped after record {}, it resumes on the next start", migrationId, lastId);
+        } catch (Exception e) {
+            log.warn("Schema migration {} of directory {} failed after record {}",
+                    migrationId, migration.directoryId(), lastId, e);
+            repository.finish(migrationId, SchemaMigrationStatus.FAILED, e.getMessage());
+        }
+    }
+
+    private Long migrateChunk(SchemaMigrationDTO migration, Set<String> touched, long afterId) {
+        var directoryId = migration.directoryId();
+        var schema = schemaCache.get(directoryId);
+        var chunk = repository.nextChunk(schema.layout(), afterId, migration.maxRecordId(), properties.chunkSize())
+                .orElse(null);
+        if (chunk == null) {
+            return null;
+        }
+        Set<Long> updated = new TreeSet<>();
+        for (FieldChangeDTO change : migration.changes()) {
+            updated.addAll(schema.typed()
+                    ? typedRecordRepository.convertColumn(change, directoryId, afterId, chunk.lastId())
+                    : repository.apply(change, directoryId, afterId, chunk.lastId()));
+        }
+        if (migration.refreshSearch() && !schema.typed()) {
+            repository.refreshSearchVector(directoryId, afterId, chunk.lastId());
+        }
+        referenceRepository.rebuildRange(schema.layout(), directoryId, touched, schema.referenceFields(),
+                afterId, chunk.lastId());
+        repository.advance(migration.id(), chunk.lastId(), chunk.size(), updated.size());
+        if (!updated.isEmpty() || migration.refreshSearch()) {
+            recordCountRepository.bumpVersion(directoryId);
+            eventPublisher.publishEvent(new RecordsMigratedEvent(directoryId, List.copyOf(updated)));
+        }
+        return chunk.lastId();
+    }
+
+    private static Set<String> touchedFields(List<FieldChangeDTO> changes) {
+        Set<String> fields = new HashSet<>();
+        for (FieldChangeDTO change : changes) {
+            fields.add(change.field());
+            if (change.type() == FieldChangeType.RENAME) {
+                fields.add(change.newName());
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,67 @@
+package org.practice.universal_directory_constructor.storage;
+
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.FieldsType;
+
+import java.util.List;
+import java.util.Map;
+
+public record JsonbLayout(Long directoryId) implements RecordLayout {
+    private static final int JSON_PAIRS_PER_CALL = 50;
+
+    @Override
+    public String table() {
+        return "record";
+    }
+
+    @Override
+    public String scope(List<Object> args) {
+        return "directory_id = " + directoryId;
+    }
+
+    @Override
+    public String valuesJson() {
+        return "\"values\"::text";
+    }
+
+    @Override
+    public String text(DirectoryFields field) {
+        return "jsonb_extract_path_text(\"values\", " + SqlLiterals.literal(field.getName()) + ")";
+    }
+
+    @Override
+    public String value(DirectoryFields field) {
+        return switch (field.getType()) {
+            case STRING -> text(field);
+            case NUMBER -> "numeric(" + text(field) + ")";
+            case DIRECTORY_REFERENCE -> "(" + text(field) + ")::bigint";
+        };
+    }
+
+    /**
+     * Merges the values into the stored document with {@code ||}, so the rest of the jsonb is not re-sent.
+     */
+    @Override
+    public String assign(Map<String, Object> values, List<Object> args) {
+        var sql = new StringBuilder("\"values\" = \"values\"");
+        int pairs = 0;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (pairs % JSON_PAIRS_PER_CALL == 0) {
+                sql.append(pairs == 0 ? " || jsonb_build_object(" : ") || jsonb_build_object(");
+            } else {
+                sql.append(", ");
+            }
+            sql.append(SqlLiterals.literal(entry.getKey())).append(", ?");
+            args.add(entry.getValue());
+            pairs++;
+        }
+        return pairs == 0 ? sql.toString() : sql.append(')').toString();
+    }
+
+    @Override
+    public String sortKey(DirectoryFields field) {
+        return field.getType() == FieldsType.STRING
+                ? "coalesce(" + text(field) + ", '')"
+                : "coalesce(numeric(" + text(field) + "), 0)";
+    }
+}
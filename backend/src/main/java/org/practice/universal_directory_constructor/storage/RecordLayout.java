@@ -0,0 +1,44 @@
+package org.practice.universal_directory_constructor.storage;
+
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL fragments for reading and updating a directory's records in their physical storage.
+ */
+public interface RecordLayout {
+    String table();
+
+    /**
+     * Condition restricting {@link #table()} to the directory's rows. The directory id is inlined rather than bound:
+     * the trigram indexes are partial on it, and a generic plan for a bound id could not use them.
+     */
+    String scope(List<Object> args);
+
+    /**
+     * Expression producing the record values as JSON text, in the same shape as the jsonb {@code values} column.
+     */
+    String valuesJson();
+
+    /**
+     * Text form of a field value, null when missing.
+     */
+    String text(DirectoryFields field);
+
+    /**
+     * Field value in its SQL type (text, numeric or bigint), null when missing.
+     */
+    String value(DirectoryFields field);
+
+    /**
+     * Non-null, type-appropriate expression to order and seek by.
+     */
+    String sortKey(DirectoryFields field);
+
+    /**
+     * {@code set} list writing the given normalized field values and leaving the other fields as they are.
+     */
+    String assign(Map<String, Object> values, List<Object> args);
+}
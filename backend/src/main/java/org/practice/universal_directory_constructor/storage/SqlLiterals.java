@@ -0,0 +1,10 @@
+package org.practice.universal_directory_constructor.storage;
+
+public final class SqlLiterals {
+    private SqlLiterals() {
+    }
+
+    public static String literal(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,124 @@
+package org.practice.universal_directory_constructor.storage;
+
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.FieldsType;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Dedicated table {@code record_d<directoryId>} with one typed column per field. Column names are derived from a hash
+ * of the field name, so any field name is usable and the original name is kept in the column comment.
+ */
+public record TypedLayout(Long directoryId, List<TypedColumn> columns) implements RecordLayout {
+    private static final int JSON_PAIRS_PER_CALL = 50;
+
+    public static TypedLayout of(Long directoryId, List<DirectoryFields> fields) {
+        Map<String, TypedColumn> columns = new LinkedHashMap<>();
+        for (DirectoryFields f : fields) {
+            columns.putIfAbsent(f.getName(), new TypedColumn(f.getName(), f.getType(), columnName(f.getName())));
+        }
+        return new TypedLayout(directoryId, List.copyOf(columns.values()));
+    }
+
+    public static String tableName(Long directoryId) {
+        return "record_d" + directoryId;
+    }
+
+    public static String columnName(String field) {
+        return "f_" + DigestUtils.md5DigestAsHex(field.getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+    }
+
+    public static String sqlType(FieldsType type) {
+        return switch (type) {
+            case STRING -> "text";
+            case NUMBER -> "numeric";
+            case DIRECTORY_REFERENCE -> "bigint";
+        };
+    }
+
+    public Map<String, TypedColumn> byField() {
+        return columns.stream().collect(Collectors.toMap(TypedColumn::field, Function.identity()));
+    }
+
+    @Override
+    public String table() {
+        return tableName(directoryId);
+    }
+
+    @Override
+    public String scope(List<Object> args) {
+        return "true";
+    }
+
+    @Override
+    public String valuesJson() {
+        if (columns.isEmpty()) {
+            return "'{}'";
+        }
+        var sql = new StringBuilder("(");
+        for (int from = 0; from < columns.size(); from += JSON_PAIRS_PER_CALL) {
+            if (from > 0) {
+                sql.append(" || ");
+            }
+            sql.append("jsonb_build_object(");
+            var chunk = columns.subList(from, Math.min(from + JSON_PAIRS_PER_CALL, columns.size()));
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(SqlLiterals.literal(chunk.get(i).field())).append(", ").append(chunk.get(i).column());
+            }
+            sql.append(')');
+        }
+        return sql.append(")::text").toString();
+    }
+
+    @Override
+    public String text(DirectoryFields field) {
+        var column = columnName(field.getName());
+        return field.getType() == FieldsType.STRING ? column : column + "::text";
+    }
+
+    @Override
+    public String value(DirectoryFields field) {
+        return columnName(field.getName());
+    }
+
+    @Override
+    public String assign(Map<String, Object> values, List<Object> args) {
+        var sql = new StringBuilder();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (!sql.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append(columnName(entry.getKey())).append(" = ?");
+            args.add(entry.getValue());
+        }
+        return sql.toString();
+    }
+
+    @Override
+    public String sortKey(DirectoryFields field) {
+        var column = columnName(field.getName());
+        return field.getType() == FieldsType.STRING ? "coalesce(" + column + ", '')" : "coalesce(" + column + ", 0)";
+    }
+
+    public record TypedColumn(String field, FieldsType type, String column) {
+        public String sqlType() {
+            return TypedLayout.sqlType(type);
+        }
+
+        /**
+         * Text form of the value, as {@link TypedLayout#text} renders it.
+         */
+        public String text() {
+            return type == FieldsType.STRING ? column : column + "::text";
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.practice.universal_directory_constructor.util.cbor;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Serves any response body as {@code application/cbor}: the body is serialized with the application's JSON mapping
+ * into a token buffer, so field names and views match the JSON responses without printing and reparsing JSON text,
+ * and re-encoded token by token.
+ */
+public class CborHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    private final JsonMapper jsonMapper;
+
+    public CborHttpMessageConverter(JsonMapper jsonMapper) {
+        super(MediaType.APPLICATION_CBOR);
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        var writer = new CborWriter(4096);
+        try (TokenBuffer tokens = jsonMapper.writeValueIntoBuffer(value); JsonParser parser = tokens.asParser()) {
+            if (parser.nextToken() != null) {
+                JsonCborTranscoder.copyValue(parser, writer, jsonMapper);
+            }
+        }
+        writer.writeTo(outputMessage.getBody());
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("CBOR request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("CBOR request bodies are not supported", inputMessage);
+    }
+}
@@ -0,0 +1,230 @@
+package org.practice.universal_directory_constructor.util.cbor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Minimal CBOR (RFC 8949) encoder into a growable buffer. Decimals are written as decimal fractions (tag 4), so
+ * numeric values keep their exact digits without being printed as text.
+ */
+public final class CborWriter {
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_BYTES = 2;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_MAP = 5;
+    private static final int MAJOR_TAG = 6;
+    private static final int TAG_POSITIVE_BIGNUM = 2;
+    private static final int TAG_NEGATIVE_BIGNUM = 3;
+    private static final int TAG_DECIMAL_FRACTION = 4;
+    private static final int INDEFINITE = 31;
+    private static final int FALSE = 0xF4;
+    private static final int TRUE = 0xF5;
+    private static final int NULL = 0xF6;
+    private static final int UNDEFINED = 0xF7;
+    private static final int FLOAT64 = 0xFB;
+    private static final int BREAK = 0xFF;
+
+    private byte[] buffer;
+    private int size;
+
+    public CborWriter() {
+        this(1024);
+    }
+
+    public CborWriter(int capacity) {
+        this.buffer = new byte[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    /**
+     * Copies already encoded items, e.g. a slice of another writer.
+     */
+    public void writeRaw(CborWriter source, int from, int to) {
+        ensure(to - from);
+        System.arraycopy(source.buffer, from, buffer, size, to - from);
+        size += to - from;
+    }
+
+    public void writeNull() {
+        writeByte(NULL);
+    }
+
+    /**
+     * Marks a value that is absent, as opposed to an explicit null.
+     */
+    public void writeUndefined() {
+        writeByte(UNDEFINED);
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? TRUE : FALSE);
+    }
+
+    public void writeLong(long value) {
+        if (value >= 0) {
+            head(MAJOR_UNSIGNED, value);
+        } else {
+            head(MAJOR_NEGATIVE, -1 - value);
+        }
+    }
+
+    public void writeBigInteger(BigInteger value) {
+        if (value.bitLength() < 64) {
+            writeLong(value.longValue());
+            return;
+        }
+        boolean negative = value.signum() < 0;
+        head(MAJOR_TAG, negative ? TAG_NEGATIVE_BIGNUM : TAG_POSITIVE_BIGNUM);
+        var magnitude = (negative ? value.negate().subtract(BigInteger.ONE) : value).toByteArray();
+        int offset = magnitude[0] == 0 ? 1 : 0;
+        head(MAJOR_BYTES, magnitude.length - offset);
+        ensure(magnitude.length - offset);
+        System.arraycopy(magnitude, offset, buffer, size, magnitude.length - offset);
+        size += magnitude.length - offset;
+    }
+
+    public void writeDecimal(BigDecimal value) {
+        if (value.scale() == 0) {
+            writeBigInteger(value.unscaledValue());
+            return;
+        }
+        head(MAJOR_TAG, TAG_DECIMAL_FRACTION);
+        head(MAJOR_ARRAY, 2);
+        writeLong(-(long) value.scale());
+        writeBigInteger(value.unscaledValue());
+    }
+
+    public void writeDouble(double value) {
+        ensure(9);
+        buffer[size++] = (byte) FLOAT64;
+        long bits = Double.doubleToLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[size++] = (byte) (bits >>> shift);
+        }
+    }
+
+    public void writeBytes(byte[] value) {
+        head(MAJOR_BYTES, value.length);
+        ensure(value.length);
+        System.arraycopy(value, 0, buffer, size, value.length);
+        size += value.length;
+    }
+
+    public void writeString(String value) {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        head(MAJOR_TEXT, bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    public void startArray(int length) {
+        head(MAJOR_ARRAY, length);
+    }
+
+    public void startArray() {
+        writeByte(MAJOR_ARRAY << 5 | INDEFINITE);
+    }
+
+    public void startMap(int length) {
+        head(MAJOR_MAP, length);
+    }
+
+    public void startMap() {
+        writeByte(MAJOR_MAP << 5 | INDEFINITE);
+    }
+
+    /**
+     * Closes the innermost indefinite-length array or map.
+     */
+    public void end() {
+        writeByte(BREAK);
+    }
+
+    /**
+     * Values of decoded JSON: maps, collections, strings, numbers, booleans and null.
+     */
+    public void writeObject(Object value) {
+        if (value == null) {
+            writeNull();
+        } else if (value instanceof String s) {
+            writeString(s);
+        } else if (value instanceof Boolean b) {
+            writeBoolean(b);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            writeLong(((Number) value).longValue());
+        } else if (value instanceof BigInteger i) {
+            writeBigInteger(i);
+        } else if (value instanceof BigDecimal d) {
+            writeDecimal(d);
+        } else if (value instanceof Number n) {
+            writeDouble(n.doubleValue());
+        } else if (value instanceof Map<?, ?> map) {
+            startMap(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(String.valueOf(entry.getKey()));
+                writeObject(entry.getValue());
+            }
+        } else if (value instanceof Collection<?> items) {
+            startArray(items.size());
+            items.forEach(this::writeObject);
+        } else {
+            writeString(value.toString());
+        }
+    }
+
+    private void head(int major, long value) {
+        ensure(9);
+        int type = major << 5;
+        if (value >= 0 && value < 24) {
+            buffer[size++] = (byte) (type | value);
+        } else if (value >= 0 && value < 0x100) {
+            buffer[size++] = (byte) (type | 24);
+            buffer[size++] = (byte) value;
+        } else if (value >= 0 && value < 0x10000) {
+            buffer[size++] = (byte) (type | 25);
+            buffer[size++] = (byte) (value >>> 8);
+            buffer[size++] = (byte) value;
+        } else if (value >= 0 && value < 0x100000000L) {
+            buffer[size++] = (byte) (type | 26);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        } else {
+            buffer[size++] = (byte) (type | 27);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+    }
+
+    private void writeByte(int value) {
+        ensure(1);
+        buffer[size++] = (byte) value;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
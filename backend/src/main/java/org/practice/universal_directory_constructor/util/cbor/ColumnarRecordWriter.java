@@ -0,0 +1,143 @@
+package org.practice.universal_directory_constructor.util.cbor;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows of the columnar records encoding: {@code [id, version, labels?, value...]}, with values positioned by the
+ * document's {@code fields} list. Absent values are CBOR {@code undefined}, explicit nulls stay null, and a row may
+ * end before the last field when its trailing values are absent. Labels are only present when the document says
+ * {@code labelled}.
+ * <p>
+ * With a fixed field list, values of other fields are skipped; otherwise unknown fields are appended in the order
+ * they are first seen, so the list has to be written after the rows.
+ */
+public final class ColumnarRecordWriter {
+    private final JsonMapper jsonMapper;
+    private final boolean labelled;
+    private boolean sealed;
+    private final List<String> fields;
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final CborWriter rows = new CborWriter(8192);
+    private final CborWriter values = new CborWriter();
+    private int[] from = new int[0];
+    private int[] to = new int[0];
+
+    public ColumnarRecordWriter(JsonMapper jsonMapper, List<String> fields, boolean labelled, boolean fixedFields) {
+        this.jsonMapper = jsonMapper;
+        this.labelled = labelled;
+        this.fields = new ArrayList<>();
+        fields.forEach(this::position);
+        this.sealed = fixedFields;
+    }
+
+    /**
+     * The {@code fields} and {@code labelled} entries of the document map.
+     */
+    public void writeHeader(CborWriter writer) {
+        writer.writeString("fields");
+        writer.startArray(fields.size());
+        fields.forEach(writer::writeString);
+        writer.writeString("labelled");
+        writer.writeBoolean(labelled);
+    }
+
+    /**
+     * Encoded rows written since the last {@link #drain(OutputStream)}.
+     */
+    public int pending() {
+        return rows.size();
+    }
+
+    public void drain(OutputStream out) throws IOException {
+        rows.writeTo(out);
+        rows.reset();
+    }
+
+    public void writeRow(Long id, Long version, String valuesJson, Map<String, String> labels) {
+        startRow();
+        if (valuesJson != null) {
+            try (JsonParser parser = jsonMapper.createParser(valuesJson)) {
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                        Integer position = position(parser.currentName());
+                        parser.nextToken();
+                        if (position == null) {
+                            parser.skipChildren();
+                            continue;
+                        }
+                        from[position] = values.size();
+                        JsonCborTranscoder.copyValue(parser, values, jsonMapper);
+                        to[position] = values.size();
+                    }
+                }
+            }
+        }
+        endRow(id, version, labels);
+    }
+
+    public void writeRow(Long id, Long version, Map<String, ?> valueMap, Map<String, String> labels) {
+        startRow();
+        if (valueMap != null) {
+            for (Map.Entry<String, ?> entry : valueMap.entrySet()) {
+                Integer position = position(entry.getKey());
+                if (position != null) {
+                    from[position] = values.size();
+                    values.writeObject(entry.getValue());
+                    to[position] = values.size();
+                }
+            }
+        }
+        endRow(id, version, labels);
+    }
+
+    private void startRow() {
+        values.reset();
+        Arrays.fill(from, -1);
+    }
+
+    private void endRow(Long id, Long version, Map<String, String> labels) {
+        int width = fields.size();
+        while (width > 0 && from[width - 1] < 0) {
+            width--;
+        }
+        rows.startArray(2 + (labelled ? 1 : 0) + width);
+        rows.writeObject(id);
+        rows.writeObject(version);
+        if (labelled) {
+            rows.writeObject(labels);
+        }
+        for (int i = 0; i < width; i++) {
+            if (from[i] < 0) {
+                rows.writeUndefined();
+            } else {
+                rows.writeRaw(values, from[i], to[i]);
+            }
+        }
+    }
+
+    private Integer position(String field) {
+        var position = positions.get(field);
+        if (position != null || sealed) {
+            return position;
+        }
+        position = fields.size();
+        positions.put(field, position);
+        fields.add(field);
+        if (position >= from.length) {
+            from = Arrays.copyOf(from, Math.max(8, from.length * 2));
+            to = Arrays.copyOf(to, from.length);
+            Arrays.fill(from, position, from.length, -1);
+        }
+        return position;
+    }
+}
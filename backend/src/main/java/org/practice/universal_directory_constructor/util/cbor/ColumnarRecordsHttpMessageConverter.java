@@ -0,0 +1,91 @@
+package org.practice.universal_directory_constructor.util.cbor;
+
+import org.practice.universal_directory_constructor.dto.RawRecordDTO;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes record pages as {@value #MEDIA_TYPE}: a CBOR map with the field names once, the page metadata and one
+ * positional row per record (see {@link ColumnarRecordWriter}).
+ */
+public class ColumnarRecordsHttpMessageConverter extends AbstractGenericHttpMessageConverter<PagedModel<?>> {
+    public static final String MEDIA_TYPE = "application/vnd.udc.records+cbor";
+
+    private final JsonMapper jsonMapper;
+
+    public ColumnarRecordsHttpMessageConverter(JsonMapper jsonMapper) {
+        super(MediaType.parseMediaType(MEDIA_TYPE));
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PagedModel.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType) || !supports(clazz)) {
+            return false;
+        }
+        var content = ResolvableType.forType(type != null ? type : clazz).as(PagedModel.class).getGeneric(0).resolve();
+        return content == null || RawRecordDTO.class.isAssignableFrom(content);
+    }
+
+    @Override
+    protected void writeInternal(PagedModel<?> page, Type type, HttpOutputMessage outputMessage) throws IOException {
+        List<RawRecordDTO> content = page.getContent().stream().map(RawRecordDTO.class::cast).toList();
+        boolean labelled = content.stream().anyMatch(r -> r.labels() != null);
+        var rows = new ColumnarRecordWriter(jsonMapper, List.of(), labelled, false);
+        for (RawRecordDTO record : content) {
+            rows.writeRow(record.id(), record.version(), record.values(), record.labels());
+        }
+        var document = new CborWriter();
+        var metadata = page.getMetadata();
+        document.startMap(metadata != null ? 4 : 3);
+        rows.writeHeader(document);
+        if (metadata != null) {
+            document.writeString("page");
+            document.startMap(4);
+            document.writeString("size");
+            document.writeLong(metadata.size());
+            document.writeString("number");
+            document.writeLong(metadata.number());
+            document.writeString("totalElements");
+            document.writeLong(metadata.totalElements());
+            document.writeString("totalPages");
+            document.writeLong(metadata.totalPages());
+        }
+        document.writeString("rows");
+        document.startArray(content.size());
+        var body = outputMessage.getBody();
+        document.writeTo(body);
+        rows.drain(body);
+    }
+
+    @Override
+    public PagedModel<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar records are write-only", inputMessage);
+    }
+
+    @Override
+    protected PagedModel<?> readInternal(Class<? extends PagedModel<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar records are write-only", inputMessage);
+    }
+}
@@ -0,0 +1,82 @@
+package org.practice.universal_directory_constructor.util.cbor;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.SerializableString;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.util.RawValue;
+
+/**
+ * Re-encodes JSON tokens as CBOR without building a tree. Integers become CBOR integers, fractional numbers
+ * exact decimal fractions and embedded binary values byte strings. Raw JSON embedded by {@code @JsonRawValue} is
+ * parsed with the given mapper and re-encoded like any other value.
+ */
+public final class JsonCborTranscoder {
+    private JsonCborTranscoder() {
+    }
+
+    /**
+     * Copies the value starting at the parser's current token, leaving the parser on its last token.
+     */
+    public static void copyValue(JsonParser parser, CborWriter writer, JsonMapper jsonMapper) {
+        JsonToken token = parser.currentToken();
+        switch (token) {
+            case START_OBJECT -> {
+                writer.startMap();
+                while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                    writer.writeString(parser.currentName());
+                    parser.nextToken();
+                    copyValue(parser, writer, jsonMapper);
+                }
+                writer.end();
+            }
+            case START_ARRAY -> {
+                writer.startArray();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    copyValue(parser, writer, jsonMapper);
+                }
+                writer.end();
+            }
+            case VALUE_STRING -> writer.writeString(parser.getString());
+            case VALUE_NUMBER_INT -> {
+                if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                    writer.writeBigInteger(parser.getBigIntegerValue());
+                } else {
+                    writer.writeLong(parser.getLongValue());
+                }
+            }
+            case VALUE_NUMBER_FLOAT -> {
+                if (parser.isNaN()) {
+                    writer.writeDouble(parser.getDoubleValue());
+                } else {
+                    writer.writeDecimal(parser.getDecimalValue());
+                }
+            }
+            case VALUE_EMBEDDED_OBJECT -> {
+                var embedded = parser.getEmbeddedObject();
+                if (embedded instanceof byte[] bytes) {
+                    writer.writeBytes(bytes);
+                } else if (embedded instanceof RawValue raw) {
+                    copyRaw(raw, writer, jsonMapper);
+                } else {
+                    writer.writeObject(embedded);
+                }
+            }
+            case VALUE_TRUE -> writer.writeBoolean(true);
+            case VALUE_FALSE -> writer.writeBoolean(false);
+            case VALUE_NULL -> writer.writeNull();
+            default -> throw new IllegalStateException("Unexpected JSON token " + token);
+        }
+    }
+
+    private static void copyRaw(RawValue raw, CborWriter writer, JsonMapper jsonMapper) {
+        var json = raw.rawValue() instanceof SerializableString text ? text.getValue() : String.valueOf(raw.rawValue());
+        try (JsonParser parser = jsonMapper.createParser(json)) {
+            if (parser.nextToken() == null) {
+                writer.writeNull();
+            } else {
+                copyValue(parser, writer, jsonMapper);
+            }
+        }
+    }
+}
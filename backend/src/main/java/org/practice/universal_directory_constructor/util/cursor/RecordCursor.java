@@ -0,0 +1,73 @@
+package org.practice.universal_directory_constructor.util.cursor;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record RecordCursor(
+        String sortField,
+        boolean descending,
+        String lastKey,
+        Long lastId
+) {
+    private static final int FORMAT_VERSION = 2;
+    private static final int MODIFIED_UTF_VERSION = 1;
+
+    public String encode() {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            writeString(out, sortField);
+            out.writeBoolean(descending);
+            out.writeBoolean(lastKey != null);
+            if (lastKey != null) {
+                writeString(out, lastKey);
+            }
+            out.writeLong(lastId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static RecordCursor decode(String cursor) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            var version = in.readByte();
+            if (version != FORMAT_VERSION && version != MODIFIED_UTF_VERSION) {
+                throw invalid();
+            }
+            boolean modifiedUtf = version == MODIFIED_UTF_VERSION;
+            var sortField = modifiedUtf ? in.readUTF() : readString(in);
+            var descending = in.readBoolean();
+            var lastKey = in.readBoolean() ? (modifiedUtf ? in.readUTF() : readString(in)) : null;
+            return new RecordCursor(sortField, descending, lastKey, in.readLong());
+        } catch (IOException | IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * Length-prefixed UTF-8: {@link DataOutputStream#writeUTF} is limited to 64 KB, which long STRING sort keys
+     * exceed.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw invalid();
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
@@ -0,0 +1,7 @@
+package org.practice.universal_directory_constructor.util.stream;
+
+public enum RecordStreamFormat {
+    JSON_ARRAY,
+    NDJSON,
+    COLUMNAR_CBOR
+}
@@ -0,0 +1,171 @@
+package org.practice.universal_directory_constructor.util.stream;
+
+import org.practice.universal_directory_constructor.config.properties.RecordStreamProperties;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.Record;
+import org.practice.universal_directory_constructor.filter.RecordFilter;
+import org.practice.universal_directory_constructor.mapper.RecordMapper;
+import org.practice.universal_directory_constructor.repository.RawRecordRepository;
+import org.practice.universal_directory_constructor.repository.RecordRepository;
+import org.practice.universal_directory_constructor.storage.RecordLayout;
+import org.practice.universal_directory_constructor.util.cbor.ColumnarRecordWriter;
+import org.practice.universal_directory_constructor.util.cbor.CborWriter;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+@Component
+public class RecordStreamWriter {
+    private final RecordRepository recordRepository;
+    private final RawRecordRepository rawRecordRepository;
+    private final RecordMapper mapper;
+    private final RecordStreamProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter arrayWriter;
+    private final ObjectWriter ndjsonWriter;
+    private final JsonMapper jsonMapper;
+
+    public RecordStreamWriter(RecordRepository recordRepository,
+                              RawRecordRepository rawRecordRepository,
+                              RecordMapper mapper,
+                              RecordStreamProperties properties,
+                              PlatformTransactionManager transactionManager,
+                              JsonMapper jsonMapper) {
+        this.recordRepository = recordRepository;
+        this.rawRecordRepository = rawRecordRepository;
+        this.mapper = mapper;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.arrayWriter = jsonMapper.writer();
+        this.ndjsonWriter = jsonMapper.writer().withRootValueSeparator("\n");
+        this.jsonMapper = jsonMapper;
+    }
+
+    public StreamingResponseBody body(RecordFilter filter, RecordStreamFormat format) {
+        return out -> readOnlyTransaction.executeWithoutResult(status -> write(filter, format, out));
+    }
+
+    public StreamingResponseBody body(RecordLayout layout, RecordFilter filter, RecordStreamFormat format) {
+        return out -> readOnlyTransaction.executeWithoutResult(status -> write(layout, filter, format, out));
+    }
+
+    private void write(RecordLayout layout, RecordFilter filter, RecordStreamFormat format, OutputStream out) {
+        if (format == RecordStreamFormat.COLUMNAR_CBOR) {
+            var rows = startColumnar(filter.schemaFields(), out);
+            int[] written = {0};
+            rawRecordRepository.stream(layout, filter, properties.fetchSize(), record -> {
+                rows.writeRow(record.id(), record.version(), record.values(), null);
+                drainColumnar(rows, ++written[0], out);
+            });
+            endColumnar(rows, out);
+            return;
+        }
+        int flushEvery = properties.fetchSize();
+        try (var sequence = format == RecordStreamFormat.NDJSON
+                ? ndjsonWriter.writeValues(out)
+                : arrayWriter.writeValuesAsArray(out)) {
+            int[] written = {0};
+            rawRecordRepository.stream(layout, filter, properties.fetchSize(), record -> {
+                sequence.write(record);
+                if (++written[0] == 1 || written[0] % flushEvery == 0) {
+                    sequence.flush();
+                }
+            });
+            if (format == RecordStreamFormat.NDJSON && written[0] > 0) {
+                sequence.flush();
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(RecordFilter filter, RecordStreamFormat format, OutputStream out) {
+        Specification<Record> specification = filter.toSpecification();
+        if (format == RecordStreamFormat.COLUMNAR_CBOR) {
+            var rows = startColumnar(filter.schemaFields(), out);
+            try (var records = recordRepository.streamAll(specification, properties.fetchSize())) {
+                int written = 0;
+                for (var iterator = records.iterator(); iterator.hasNext(); ) {
+                    var record = iterator.next();
+                    rows.writeRow(record.getId(), record.getVersion(), record.getValues(), null);
+                    drainColumnar(rows, ++written, out);
+                }
+            }
+            endColumnar(rows, out);
+            return;
+        }
+        int flushEvery = properties.fetchSize();
+        try (var records = recordRepository.streamAll(specification, properties.fetchSize());
+             var sequence = format == RecordStreamFormat.NDJSON
+                     ? ndjsonWriter.writeValues(out)
+                     : arrayWriter.writeValuesAsArray(out)) {
+            int written = 0;
+            for (var iterator = records.iterator(); iterator.hasNext(); ) {
+                sequence.write(mapper.toDTO(iterator.next()));
+                if (++written == 1 || written % flushEvery == 0) {
+                    sequence.flush();
+                }
+            }
+            if (format == RecordStreamFormat.NDJSON && written > 0) {
+                sequence.flush();
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens the document map: the schema field names, then an indefinite {@code rows} array closed by
+     * {@link #endColumnar}. Values of fields outside the schema are left out, as in typed storage.
+     */
+    private ColumnarRecordWriter startColumnar(List<DirectoryFields> schemaFields, OutputStream out) {
+        var rows = new ColumnarRecordWriter(jsonMapper,
+                schemaFields.stream().map(DirectoryFields::getName).distinct().toList(), false, true);
+        var head = new CborWriter(256);
+        head.startMap(3);
+        rows.writeHeader(head);
+        head.writeString("rows");
+        head.startArray();
+        try {
+            head.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private void drainColumnar(ColumnarRecordWriter rows, int written, OutputStream out) {
+        if (written == 1 || written % properties.fetchSize() == 0) {
+            try {
+                rows.drain(out);
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void endColumnar(ColumnarRecordWriter rows, OutputStream out) {
+        var tail = new CborWriter(1);
+        tail.end();
+        try {
+            rows.drain(out);
+            tail.writeTo(out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -42,6 +42,27 @@ public class DirectoryReferencesValidator {
         }
     }
 
+    public void validateLabelField(String labelField, List<DirectoryFieldsDTO> fields) {
+        if (labelField == null) return;
+
+        boolean stringField = fields.stream()
+                .anyMatch(f -> f.type() == FieldsType.STRING && f.name().equals(labelField));
+
+        if (!stringField) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Label field '%s' must be one of the directory's STRING fields".formatted(labelField));
+        }
+    }
+
+    public void validateSearchLanguage(String searchLanguage) {
+        if (searchLanguage == null) return;
+
+        if (!directoryRepository.existsSearchConfiguration(searchLanguage)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unknown text search configuration '%s'".formatted(searchLanguage));
+        }
+    }
+
     public void validateNotSelfReference(Long directoryId, List<DirectoryFieldsDTO> fields) {
         boolean selfRef = fields.stream()
                 .filter(f -> f.type() == FieldsType.DIRECTORY_REFERENCE)
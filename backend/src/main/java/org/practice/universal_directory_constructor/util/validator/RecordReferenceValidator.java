@@ -1,57 +1,109 @@
 package org.practice.universal_directory_constructor.util.validator;
 
 import lombok.RequiredArgsConstructor;
+import org.practice.universal_directory_constructor.cache.RecordDirectoryCache;
 import org.practice.universal_directory_constructor.dto.recordCheckReference.ReferenceCheckDTO;
-import org.practice.universal_directory_constructor.dto.recordCheckReference.RepositoryResultDTO;
 import org.practice.universal_directory_constructor.entity.DirectoryFields;
 import org.practice.universal_directory_constructor.entity.FieldsType;
 import org.practice.universal_directory_constructor.repository.RecordRepository;
+import org.practice.universal_directory_constructor.repository.TypedRecordRepository;
+import org.practice.universal_directory_constructor.schema.DirectorySchemaCache;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class RecordReferenceValidator {
+    private static final int LOOKUP_CHUNK_SIZE = 5000;
 
     private final RecordRepository recordRepository;
+    private final RecordDirectoryCache directoryCache;
+    private final TypedRecordRepository typedRecordRepository;
+    private final DirectorySchemaCache schemaCache;
 
     public void validateReferences(List<DirectoryFields> fields, Map<String, Object> typedValues) {
-        List<ReferenceCheckDTO> checks = fields.stream()
+        validateReferences(fields, typedValues, resolveDirectories(fields, List.of(typedValues)));
+    }
+
+    public Map<Long, Long> resolveDirectories(List<DirectoryFields> fields, Collection<Map<String, Object>> typedValues) {
+        List<DirectoryFields> referenceFields = fields.stream()
                 .filter(f -> f.getType() == FieldsType.DIRECTORY_REFERENCE)
-                .map(f -> new ReferenceCheckDTO(
-                        f.getName(),
-                        f.getDirectoryId(),
-                        (Long) typedValues.get(f.getName())
-                ))
                 .toList();
+        if (referenceFields.isEmpty()) return Map.of();
 
-        if (checks.isEmpty()) return;
+        Map<Long, Set<Long>> refIdsByTarget = new HashMap<>();
+        for (Map<String, Object> values : typedValues) {
+            for (DirectoryFields f : referenceFields) {
+                if (values.get(f.getName()) instanceof Long refId) {
+                    refIdsByTarget.computeIfAbsent(f.getDirectoryId(), id -> new HashSet<>()).add(refId);
+                }
+            }
+        }
+        if (refIdsByTarget.isEmpty()) return Map.of();
 
-        Set<Long> refIds = checks.stream().map(ReferenceCheckDTO::referenceId).collect(Collectors.toSet());
+        Map<Long, Long> dirByRecordId = new HashMap<>();
+        Set<Long> sharedTableIds = new HashSet<>();
+        refIdsByTarget.forEach((targetId, refIds) -> {
+            List<Long> missing = new ArrayList<>(refIds.size());
+            for (Long refId : refIds) {
+                Long cached = directoryCache.find(refId);
+                if (cached != null) {
+                    dirByRecordId.put(refId, cached);
+                } else {
+                    missing.add(refId);
+                }
+            }
+            if (!missing.isEmpty() && schemaCache.get(targetId).typed()) {
+                Set<Long> found = typedRecordRepository.findExistingIds(targetId, missing);
+                found.forEach(refId -> {
+                    dirByRecordId.put(refId, targetId);
+                    directoryCache.put(refId, targetId);
+                });
+                missing.removeAll(found);
+            }
+            sharedTableIds.addAll(missing);
+        });
+        sharedTableIds.removeAll(dirByRecordId.keySet());
 
-        var allRecords = recordRepository.findIdAndDirIdByRecordIds(refIds);
-        var dirByRecordId = allRecords.stream()
-                .collect(Collectors.toMap(RepositoryResultDTO::recordId, RepositoryResultDTO::directoryId));
+        List<Long> ids = new ArrayList<>(sharedTableIds);
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            var chunk = new HashSet<>(ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size())));
+            recordRepository.findIdAndDirIdByRecordIds(chunk)
+                    .forEach(r -> {
+                        dirByRecordId.put(r.recordId(), r.directoryId());
+                        directoryCache.put(r.recordId(), r.directoryId());
+                    });
+        }
+        return dirByRecordId;
+    }
+
+    public void validateReferences(List<DirectoryFields> fields, Map<String, Object> typedValues,
+                                   Map<Long, Long> dirByRecordId) {
+        var violation = findViolation(fields, typedValues, dirByRecordId);
+        if (violation != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, violation);
+        }
+    }
 
-        for (ReferenceCheckDTO c : checks) {
+    public String findViolation(List<DirectoryFields> fields, Map<String, Object> typedValues,
+                                Map<Long, Long> dirByRecordId) {
+        for (DirectoryFields f : fields) {
+            if (f.getType() != FieldsType.DIRECTORY_REFERENCE) continue;
+            var c = new ReferenceCheckDTO(f.getName(), f.getDirectoryId(), (Long) typedValues.get(f.getName()));
             Long actualDirId = dirByRecordId.get(c.referenceId());
             if (actualDirId == null) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                        "Invalid reference in field '%s': record %d not found"
-                                .formatted(c.name(), c.referenceId()));
+                return "Invalid reference in field '%s': record %d not found"
+                        .formatted(c.name(), c.referenceId());
             }
             if (!Objects.equals(actualDirId, c.directoryId())) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                        "Invalid reference in field '%s': record %d belongs to directory %d, expected %d"
-                                .formatted(c.name(), c.referenceId(), actualDirId, c.directoryId()));
+                return "Invalid reference in field '%s': record %d belongs to directory %d, expected %d"
+                        .formatted(c.name(), c.referenceId(), actualDirId, c.directoryId());
             }
         }
+        return null;
     }
 }
@@ -0,0 +1,22 @@
+select setval('record_seq', greatest((select coalesce(max(id), 0) from record), (select last_value from record_seq)));
+
+create table if not exists directory_record_count (directory_id bigint not null, slot int not null, record_count bigint not null, primary key (directory_id, slot));
+alter table directory_record_count add column if not exists data_version bigint not null default 0;
+insert into directory_record_count (directory_id, slot, record_count) select directory_id, 0, count(*) from record where not exists (select 1 from directory_record_count) group by directory_id;
+
+create table if not exists record_reference (target_id bigint not null, source_id bigint not null, source_directory_id bigint not null, field varchar(255) not null, primary key (target_id, source_id, field));
+create index if not exists record_reference_source_idx on record_reference (source_id);
+create index if not exists record_reference_source_directory_idx on record_reference (source_directory_id);
+insert into record_reference (target_id, source_id, source_directory_id, field) select (r."values" ->> (f ->> 'name'))::bigint, r.id, r.directory_id, f ->> 'name' from directory d cross join jsonb_array_elements(d.fields) f join record r on r.directory_id = d.id where f ->> 'type' = 'DIRECTORY_REFERENCE' and r."values" ->> (f ->> 'name') ~ '^-?[0-9]+$' and not exists (select 1 from record_reference) on conflict do nothing;
+
+create table if not exists schema_migration (id bigserial primary key, directory_id bigint not null, changes jsonb not null, status varchar(16) not null, last_record_id bigint not null, max_record_id bigint not null, total_records bigint not null, processed_records bigint not null default 0, updated_records bigint not null default 0, error text, created_at timestamptz not null default now(), updated_at timestamptz not null default now(), finished_at timestamptz);
+create index if not exists schema_migration_directory_idx on schema_migration (directory_id, id);
+alter table schema_migration add column if not exists refresh_search boolean not null default false;
+
+do 'begin if not exists (select 1 from information_schema.columns where table_schema = current_schema() and table_name = ''record'' and column_name = ''search_vector'') then alter table record add column search_vector tsvector; insert into schema_migration (directory_id, changes, refresh_search, status, last_record_id, max_record_id, total_records) select r.directory_id, ''[]'', true, ''PENDING'', 0, max(r.id), count(*) from record r join directory d on d.id = r.directory_id where d.storage_mode = ''JSONB'' group by r.directory_id; end if; end';
+create index if not exists record_search_vector_idx on record using gin (search_vector);
+create or replace aggregate tsvector_agg(tsvector) (sfunc = tsvector_concat, stype = tsvector, initcond = '');
+create or replace function record_search_vector(p_directory_id bigint, p_values jsonb) returns tsvector language sql stable as $$ select case when d.full_text_search then (select coalesce(tsvector_agg(setweight(to_tsvector(coalesce(d.search_language, 'simple')::regconfig, p_values ->> (f ->> 'name')), coalesce(f ->> 'searchWeight', 'D')::"char")), ''::tsvector) from jsonb_array_elements(d.fields) f where f ->> 'type' = 'STRING' and p_values ->> (f ->> 'name') is not null) end from directory d where d.id = p_directory_id $$;
+create or replace function record_search_vector_update() returns trigger language plpgsql as 'begin new.search_vector := record_search_vector(new.directory_id, new."values"); return new; end';
+drop trigger if exists record_search_vector_trg on record;
+create trigger record_search_vector_trg before insert or update of "values", directory_id on record for each row execute function record_search_vector_update();
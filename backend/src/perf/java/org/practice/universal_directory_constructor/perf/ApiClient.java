@@ -0,0 +1,107 @@
+package org.practice.universal_directory_constructor.perf;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Blocking HTTP client for one load thread. Every call is timed under its endpoint name,
+ * which is also sent to the server for statement attribution.
+ */
+final class ApiClient {
+    private final HttpClient http;
+    private final JsonMapper mapper;
+    private final String baseUrl;
+    private final Map<String, LatencyStats> stats = new HashMap<>();
+    private boolean recording;
+
+    ApiClient(HttpClient http, JsonMapper mapper, String baseUrl) {
+        this.http = http;
+        this.mapper = mapper;
+        this.baseUrl = baseUrl;
+    }
+
+    void recording(boolean recording) {
+        this.recording = recording;
+    }
+
+    Map<String, LatencyStats> stats() {
+        return stats;
+    }
+
+    JsonNode get(String endpoint, String path) {
+        return send(endpoint, builder(endpoint, path).GET());
+    }
+
+    JsonNode post(String endpoint, String path, Object body) {
+        return send(endpoint, builder(endpoint, path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body))));
+    }
+
+    void delete(String endpoint, String path) {
+        send(endpoint, builder(endpoint, path).DELETE());
+    }
+
+    /**
+     * Reads the whole streamed body without parsing it, as a download client would.
+     */
+    long drain(String endpoint, String path) {
+        long started = System.nanoTime();
+        boolean ok = false;
+        try {
+            HttpResponse<InputStream> response = http.send(builder(endpoint, path).GET().build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            long bytes;
+            try (InputStream body = response.body()) {
+                bytes = body.transferTo(OutputStream.nullOutputStream());
+            }
+            ok = response.statusCode() == 200;
+            return bytes;
+        } catch (Exception e) {
+            throw new IllegalStateException(endpoint + " failed", e);
+        } finally {
+            record(endpoint, System.nanoTime() - started, ok);
+        }
+    }
+
+    private HttpRequest.Builder builder(String endpoint, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header(PerfConfig.ENDPOINT_HEADER, endpoint);
+    }
+
+    private JsonNode send(String endpoint, HttpRequest.Builder request) {
+        long started = System.nanoTime();
+        boolean ok = false;
+        try {
+            HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            ok = response.statusCode() / 100 == 2;
+            if (!ok) {
+                throw new IllegalStateException("%s returned %d: %s"
+                        .formatted(endpoint, response.statusCode(), new String(response.body())));
+            }
+            return response.body().length == 0 ? null : mapper.readTree(response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(endpoint + " interrupted", e);
+        } catch (IOException e) {
+            throw new IllegalStateException(endpoint + " failed", e);
+        } finally {
+            record(endpoint, System.nanoTime() - started, ok);
+        }
+    }
+
+    private void record(String endpoint, long nanos, boolean ok) {
+        if (recording) {
+            stats.computeIfAbsent(endpoint, k -> new LatencyStats()).record(nanos, ok);
+        }
+    }
+}
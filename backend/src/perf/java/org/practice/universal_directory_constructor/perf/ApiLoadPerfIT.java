@@ -0,0 +1,192 @@
+package org.practice.universal_directory_constructor.perf;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds a local PostgreSQL through the API, then drives the directory and record endpoints with concurrent clients.
+ * Writes {@code target/perf-report.json} and prints p50/p95/p99 latency, throughput and SQL statements per endpoint.
+ * <pre>
+ * mvn -P perf verify -Dperf.records=100000 -Dperf.clients=16
+ * </pre>
+ * With {@code -Dperf.pages-only=true} only the paged endpoint is driven, with the record page cache off, so runs
+ * on two builds compare the page query itself.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(PerfConfig.class)
+class ApiLoadPerfIT {
+    private static final String LIST_DIRECTORIES = "GET /api/directories";
+    private static final String PAGE = "GET /api/records/{id}";
+    private static final String SEARCH = "GET /api/records/{id}?search";
+    private static final String STREAM_ALL = "GET /api/records/{id}/all";
+    private static final String SAVE = "POST /api/records/{id}";
+    private static final String DELETE = "DELETE /api/records/{id}";
+
+    private static final EmbeddedPostgres POSTGRES = start();
+    private static final PerfSettings SETTINGS = PerfSettings.fromSystemProperties();
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> Math.max(10, SETTINGS.clients() + 2));
+        registry.add("spring.jpa.show-sql", () -> false);
+        if (SETTINGS.pagesOnly()) {
+            registry.add("app.records.page-cache.enabled", () -> false);
+        }
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void endpointsUnderConcurrentLoad() throws Exception {
+        var seeder = new DataSeeder(client(false), SETTINGS);
+        seeder.seed();
+
+        runClients(seeder, SETTINGS.warmupRequests(), false);
+        statementCounter.reset();
+        long started = System.nanoTime();
+        Map<String, LatencyStats> stats = runClients(seeder, SETTINGS.requests(), true);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, Long> statements = statementCounter.snapshot();
+        report(stats, statements, seconds);
+        assertThat(stats.values().stream().mapToInt(LatencyStats::errors).sum()).isZero();
+    }
+
+    private Map<String, LatencyStats> runClients(DataSeeder seeder, int requests, boolean recording) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(SETTINGS.clients());
+        try {
+            List<Future<Map<String, LatencyStats>>> clients = new ArrayList<>();
+            for (int c = 0; c < SETTINGS.clients(); c++) {
+                long seed = SETTINGS.seed() * 31 + c + (recording ? 1000 : 0);
+                clients.add(pool.submit(() -> runClient(seeder, new Random(seed), requests, recording)));
+            }
+            Map<String, LatencyStats> merged = new TreeMap<>();
+            for (Future<Map<String, LatencyStats>> client : clients) {
+                client.get().forEach((endpoint, s) -> merged.computeIfAbsent(endpoint, k -> new LatencyStats()).merge(s));
+            }
+            return merged;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Map<String, LatencyStats> runClient(DataSeeder seeder, Random random, int requests, boolean recording) {
+        ApiClient client = client(recording);
+        Deque<Long> created = new ArrayDeque<>();
+        List<Long> directories = seeder.directoryIds();
+        int maxPage = Math.max(1, Math.min(50, SETTINGS.records() / SETTINGS.pageSize()));
+        for (int r = 0; r < requests; r++) {
+            int index = random.nextInt(directories.size());
+            long directoryId = directories.get(index);
+            int roll = SETTINGS.pagesOnly() ? 10 : random.nextInt(100);
+            try {
+                if (roll < 10) {
+                    client.get(LIST_DIRECTORIES, "/api/directories");
+                } else if (roll < 45) {
+                    client.get(PAGE, "/api/records/%d?page=%d&size=%d&expand=*"
+                            .formatted(directoryId, random.nextInt(maxPage), SETTINGS.pageSize()));
+                } else if (roll < 60) {
+                    client.get(SEARCH, "/api/records/%d?size=%d&expand=*&search=%s".formatted(directoryId,
+                            SETTINGS.pageSize(), URLEncoder.encode(seeder.searchTerm(random), StandardCharsets.UTF_8)));
+                } else if (roll < 62) {
+                    client.drain(STREAM_ALL, "/api/records/%d/all".formatted(directoryId));
+                } else if (roll < 85 || created.isEmpty()) {
+                    JsonNode saved = client.post(SAVE, "/api/records/" + directoryId,
+                            Map.of("values", seeder.values(index, random)));
+                    created.add(saved.get("id").asLong());
+                } else {
+                    client.delete(DELETE, "/api/records/" + created.poll());
+                }
+            } catch (IllegalStateException e) {
+                // recorded as an error by the client; keep the load going
+            }
+        }
+        return client.stats();
+    }
+
+    private ApiClient client(boolean recording) {
+        var client = new ApiClient(http, mapper, "http://localhost:" + port);
+        client.recording(recording);
+        return client;
+    }
+
+    private void report(Map<String, LatencyStats> stats, Map<String, Long> statements, double seconds)
+            throws IOException {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        var table = new StringBuilder("%n%-32s %8s %6s %9s %9s %9s %10s %10s%n".formatted(
+                "endpoint", "requests", "errors", "p50 ms", "p95 ms", "p99 ms", "req/s", "sql/req"));
+        stats.forEach((endpoint, s) -> {
+            long sql = statements.getOrDefault(endpoint, 0L);
+            double perRequest = s.count() == 0 ? 0 : (double) sql / s.count();
+            endpoints.put(endpoint, Map.of(
+                    "requests", s.count(),
+                    "errors", s.errors(),
+                    "p50Ms", s.percentileMillis(50),
+                    "p95Ms", s.percentileMillis(95),
+                    "p99Ms", s.percentileMillis(99),
+                    "throughputPerSecond", s.count() / seconds,
+                    "sqlStatements", sql,
+                    "sqlStatementsPerRequest", perRequest));
+            table.append("%-32s %8d %6d %9.2f %9.2f %9.2f %10.1f %10.2f%n".formatted(endpoint, s.count(), s.errors(),
+                    s.percentileMillis(50), s.percentileMillis(95), s.percentileMillis(99), s.count() / seconds,
+                    perRequest));
+        });
+        table.append("%s: %d statements%n".formatted(StatementCounter.UNATTRIBUTED,
+                statements.getOrDefault(StatementCounter.UNATTRIBUTED, 0L)));
+        System.out.println(table);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", SETTINGS);
+        report.put("durationSeconds", seconds);
+        report.put("endpoints", endpoints);
+        report.put("unattributedStatements", statements.getOrDefault(StatementCounter.UNATTRIBUTED, 0L));
+        Path file = Path.of("target", "perf-report.json");
+        Files.createDirectories(file.getParent());
+        mapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.practice.universal_directory_constructor.perf;
+
+import tools.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeds a chain of directories through the public API: directory {@code n} has a DIRECTORY_REFERENCE field
+ * pointing at directory {@code n - 1}, so reference validation and label expansion are on the measured paths.
+ */
+final class DataSeeder {
+    static final String LABEL_FIELD = "name";
+    static final String PARENT_FIELD = "parent";
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] WORDS = {"alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel"};
+
+    private final ApiClient client;
+    private final PerfSettings settings;
+    private final List<Long> directoryIds = new ArrayList<>();
+    private final List<long[]> recordIds = new ArrayList<>();
+
+    DataSeeder(ApiClient client, PerfSettings settings) {
+        this.client = client;
+        this.settings = settings;
+    }
+
+    List<Long> directoryIds() {
+        return directoryIds;
+    }
+
+    void seed() {
+        Random random = new Random(settings.seed());
+        for (int d = 0; d < settings.directories(); d++) {
+            JsonNode directory = client.post("seed directory", "/api/directories", Map.of(
+                    "name", "perf-" + d + "-" + System.nanoTime(),
+                    "fields", fields(d),
+                    "labelField", LABEL_FIELD));
+            directoryIds.add(directory.get("id").asLong());
+            long[] ids = new long[settings.records()];
+            for (int from = 0; from < ids.length; from += BATCH_SIZE) {
+                int to = Math.min(ids.length, from + BATCH_SIZE);
+                List<Map<String, Object>> batch = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    batch.add(Map.of("values", values(d, random)));
+                }
+                JsonNode result = client.post("seed batch", "/api/records/" + directoryIds.get(d) + "/batch", batch);
+                if (result.get("rejected").asInt() != 0) {
+                    throw new IllegalStateException("Seed batch rejected records: " + result.get("results"));
+                }
+                int i = from;
+                for (JsonNode row : result.get("results")) {
+                    ids[i++] = row.get("id").asLong();
+                }
+            }
+            recordIds.add(ids);
+        }
+    }
+
+    /**
+     * A valid payload for directory {@code index}, referencing an existing record of the previous directory.
+     */
+    Map<String, Object> values(int index, Random random) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put(LABEL_FIELD, WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(1_000_000));
+        if (index > 0) {
+            long[] parents = recordIds.get(index - 1);
+            values.put(PARENT_FIELD, parents[random.nextInt(parents.length)]);
+        }
+        for (int f = firstPlainField(index); f < settings.fields(); f++) {
+            values.put("f" + f, f % 2 == 0
+                    ? WORDS[random.nextInt(WORDS.length)] + "-" + random.nextInt(10_000)
+                    : random.nextInt(100_000) / 100.0);
+        }
+        return values;
+    }
+
+    String searchTerm(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private List<Map<String, Object>> fields(int index) {
+        List<Map<String, Object>> fields = new ArrayList<>();
+        fields.add(Map.of("name", LABEL_FIELD, "type", "STRING"));
+        if (index > 0) {
+            fields.add(Map.of("name", PARENT_FIELD, "type", "DIRECTORY_REFERENCE",
+                    "directoryId", directoryIds.get(index - 1)));
+        }
+        for (int f = firstPlainField(index); f < settings.fields(); f++) {
+            fields.add(Map.of("name", "f" + f, "type", f % 2 == 0 ? "STRING" : "NUMBER"));
+        }
+        return fields;
+    }
+
+    private static int firstPlainField(int index) {
+        return index > 0 ? 2 : 1;
+    }
+}
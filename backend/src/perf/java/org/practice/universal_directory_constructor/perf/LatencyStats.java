@@ -0,0 +1,50 @@
+package org.practice.universal_directory_constructor.perf;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one endpoint, in nanoseconds. Not thread safe; each client keeps its own and they are merged at the end.
+ */
+final class LatencyStats {
+    private long[] samples = new long[256];
+    private int size;
+    private int errors;
+
+    void record(long nanos, boolean ok) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    void merge(LatencyStats other) {
+        for (int i = 0; i < other.size; i++) {
+            record(other.samples[i], true);
+        }
+        errors += other.errors;
+    }
+
+    int count() {
+        return size;
+    }
+
+    int errors() {
+        return errors;
+    }
+
+    /**
+     * Nearest-rank percentile in milliseconds.
+     */
+    double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * size);
+        return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,81 @@
+package org.practice.universal_directory_constructor.perf;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.practice.universal_directory_constructor.metrics.StatementCountingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+/**
+ * Attributes SQL statements to the endpoint named in the {@value #ENDPOINT_HEADER} header sent by the load clients.
+ * Streaming bodies run on an async thread, so the name is re-bound there as well.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+class PerfConfig {
+    static final String ENDPOINT_HEADER = "X-Perf-Endpoint";
+
+    @Bean
+    static StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor(StatementCounter counter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                        ? new StatementCountingDataSource(dataSource, counter::increment)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    OncePerRequestFilter endpointBindingFilter(StatementCounter counter) {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain chain) throws ServletException, IOException {
+                counter.bind(request.getHeader(ENDPOINT_HEADER));
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    counter.unbind();
+                }
+            }
+        };
+    }
+
+    @Bean
+    WebMvcConfigurer asyncEndpointBinding(StatementCounter counter) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+                        counter.bind(request.getHeader(ENDPOINT_HEADER));
+                    }
+
+                    @Override
+                    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object result) {
+                        counter.unbind();
+                    }
+                });
+            }
+        };
+    }
+}
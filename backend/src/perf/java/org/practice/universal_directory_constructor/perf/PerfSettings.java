@@ -0,0 +1,36 @@
+package org.practice.universal_directory_constructor.perf;
+
+/**
+ * Data set and load shape, overridable with {@code -Dperf.<name>=...} on the maven command line.
+ */
+record PerfSettings(
+        int directories,
+        int fields,
+        int records,
+        int clients,
+        int warmupRequests,
+        int requests,
+        int pageSize,
+        long seed,
+        boolean pagesOnly
+) {
+    static PerfSettings fromSystemProperties() {
+        return new PerfSettings(
+                Integer.getInteger("perf.directories", 4),
+                Integer.getInteger("perf.fields", 12),
+                Integer.getInteger("perf.records", 20_000),
+                Integer.getInteger("perf.clients", 8),
+                Integer.getInteger("perf.warmup-requests", 50),
+                Integer.getInteger("perf.requests", 500),
+                Integer.getInteger("perf.page-size", 20),
+                Long.getLong("perf.seed", 42L),
+                Boolean.getBoolean("perf.pages-only")
+        );
+    }
+
+    PerfSettings {
+        if (directories < 1 || fields < 2 || records < 1 || clients < 1 || requests < 1 || pageSize < 1) {
+            throw new IllegalArgumentException("perf settings must be positive, fields at least 2: " + this);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.practice.universal_directory_constructor.perf;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts executed JDBC statements per endpoint. The endpoint is bound to the serving thread by
+ * {@link PerfConfig}; statements run outside a tagged request land in {@link #UNATTRIBUTED}.
+ */
+final class StatementCounter {
+    static final String UNATTRIBUTED = "(unattributed)";
+
+    private final ThreadLocal<String> endpoint = new ThreadLocal<>();
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+    void bind(String name) {
+        endpoint.set(name);
+    }
+
+    void unbind() {
+        endpoint.remove();
+    }
+
+    void increment() {
+        String name = endpoint.get();
+        counts.computeIfAbsent(name == null ? UNATTRIBUTED : name, k -> new LongAdder()).increment();
+    }
+
+    Map<String, Long> snapshot() {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach((name, count) -> result.put(name, count.sum()));
+        return result;
+    }
+
+    void reset() {
+        counts.clear();
+    }
+}
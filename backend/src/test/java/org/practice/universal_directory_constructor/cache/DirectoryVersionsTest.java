@@ -0,0 +1,82 @@
+package org.practice.universal_directory_constructor.cache;
+
+import org.junit.jupiter.api.Test;
+import org.practice.universal_directory_constructor.event.DirectoryVersionsRefreshedEvent;
+import org.practice.universal_directory_constructor.event.RecordSavedEvent;
+import org.practice.universal_directory_constructor.repository.DirectoryRecordCountRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryVersionsTest {
+    private final Map<Long, Long> persisted = new HashMap<>();
+    private final List<Object> events = new ArrayList<>();
+    private final DirectoryVersions versions = new DirectoryVersions(null, new DirectoryRecordCountRepository(null) {
+        @Override
+        public Map<Long, Long> findVersions() {
+            return new HashMap<>(persisted);
+        }
+
+        @Override
+        public Map<Long, Long> findVersions(Collection<Long> directoryIds) {
+            Map<Long, Long> found = new HashMap<>();
+            directoryIds.stream().filter(persisted::containsKey).forEach(id -> found.put(id, persisted.get(id)));
+            return found;
+        }
+    }, events::add);
+
+    @Test
+    void startsFromThePersistedVersions() {
+        persisted.put(1L, 7L);
+
+        assertEquals(7, versions.version(1L));
+        assertEquals(0, versions.version(2L));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void readsBackLocalCommitsOnTheNextLookup() {
+        persisted.put(1L, 7L);
+        var tag = versions.directoriesETag();
+
+        persisted.put(1L, 8L);
+        assertEquals(7, versions.version(1L));
+        versions.onRecordSaved(new RecordSavedEvent(1L, 10L, Map.of()));
+
+        assertEquals(8, versions.version(1L));
+        assertNotEquals(tag, versions.directoriesETag());
+    }
+
+    @Test
+    void announcesChangesFoundByRefresh() {
+        persisted.put(1L, 7L);
+        persisted.put(2L, 3L);
+        var tag = versions.directoriesETag();
+
+        persisted.put(2L, 4L);
+        persisted.put(3L, 1L);
+        versions.refresh();
+
+        assertEquals(4, versions.version(2L));
+        assertEquals(List.of(new DirectoryVersionsRefreshedEvent(Set.of(2L, 3L))), events);
+        assertNotEquals(tag, versions.directoriesETag());
+    }
+
+    @Test
+    void neverMovesAVersionBack() {
+        persisted.put(1L, 7L);
+        versions.version(1L);
+
+        persisted.put(1L, 5L);
+        versions.refresh();
+
+        assertEquals(7, versions.version(1L));
+        assertTrue(events.isEmpty());
+    }
+}
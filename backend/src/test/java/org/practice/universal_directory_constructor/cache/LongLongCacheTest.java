@@ -0,0 +1,117 @@
+package org.practice.universal_directory_constructor.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongCacheTest {
+
+    @Test
+    void putsOverwritesAndRemoves() {
+        var cache = new LongLongCache(100, 4);
+        cache.put(7, 70);
+        cache.put(8, 80);
+        cache.put(7, 71);
+        assertEquals(71, cache.get(7));
+        assertEquals(80, cache.get(8));
+        assertEquals(LongLongCache.ABSENT, cache.get(9));
+        assertEquals(2, cache.size());
+        cache.remove(7);
+        assertEquals(LongLongCache.ABSENT, cache.get(7));
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void ignoresNonPositiveKeys() {
+        var cache = new LongLongCache(10, 1);
+        cache.put(0, 1);
+        cache.put(-5, 1);
+        assertEquals(0, cache.size());
+        assertEquals(LongLongCache.ABSENT, cache.get(0));
+        assertEquals(LongLongCache.ABSENT, cache.get(-5));
+    }
+
+    @Test
+    void clockEvictionSparesReferencedEntries() {
+        var cache = new LongLongCache(4, 1);
+        for (long key = 1; key <= 4; key++) {
+            cache.put(key, key * 10);
+        }
+        cache.get(1);
+        cache.get(2);
+        cache.get(3);
+        cache.put(5, 50);
+        assertEquals(4, cache.size());
+        assertEquals(1, cache.evictions());
+        assertEquals(LongLongCache.ABSENT, cache.get(4));
+        for (long key : new long[]{1, 2, 3, 5}) {
+            assertEquals(key * 10, cache.get(key));
+        }
+    }
+
+    @Test
+    void backwardShiftDeletionKeepsProbeChainsIntact() {
+        var cache = new LongLongCache(4096, 1);
+        Map<Long, Long> model = new HashMap<>();
+        var random = new Random(42);
+        for (int op = 0; op < 200_000; op++) {
+            long key = 1 + random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                cache.remove(key);
+                model.remove(key);
+            } else {
+                long value = random.nextLong() & Long.MAX_VALUE;
+                cache.put(key, value);
+                model.put(key, value);
+            }
+        }
+        assertEquals(model.size(), cache.size());
+        for (long key = 1; key <= 3000; key++) {
+            assertEquals((long) model.getOrDefault(key, LongLongCache.ABSENT), cache.get(key));
+        }
+    }
+
+    @Test
+    void evictionNeverReturnsStaleValuesOrExceedsCapacity() {
+        var cache = new LongLongCache(256, 4);
+        Map<Long, Long> latest = new HashMap<>();
+        var random = new Random(7);
+        for (int op = 0; op < 100_000; op++) {
+            long key = 1 + random.nextInt(2000);
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    cache.remove(key);
+                    latest.remove(key);
+                }
+                case 1 -> {
+                    long value = cache.get(key);
+                    Long expected = latest.get(key);
+                    assertTrue(value == LongLongCache.ABSENT || expected != null && value == expected);
+                }
+                default -> {
+                    cache.put(key, op);
+                    latest.put(key, (long) op);
+                }
+            }
+            assertTrue(cache.size() <= cache.capacity());
+        }
+        assertTrue(cache.evictions() > 0);
+    }
+
+    @Test
+    void clearEmptiesEverySegment() {
+        var cache = new LongLongCache(64, 8);
+        for (long key = 1; key <= 64; key++) {
+            cache.put(key, key);
+        }
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(LongLongCache.ABSENT, cache.get(1));
+    }
+}
@@ -0,0 +1,50 @@
+package org.practice.universal_directory_constructor.feed;
+
+import org.junit.jupiter.api.Test;
+import org.practice.universal_directory_constructor.config.properties.ChangeFeedProperties;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    @Test
+    void concurrentSubscribesNeverExceedTheLimit() throws Exception {
+        var feed = new ChangeFeed(new ChangeFeedProperties(Duration.ofMillis(250), 10, 5, Duration.ofMinutes(1),
+                Duration.ofSeconds(30), 1, Duration.ofSeconds(10)), null);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            var start = new CountDownLatch(1);
+            List<Future<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                attempts.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        feed.subscribe(Set.of());
+                        return true;
+                    } catch (ResponseStatusException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int subscribed = 0;
+            for (Future<Boolean> attempt : attempts) {
+                subscribed += attempt.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertEquals(5, subscribed);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
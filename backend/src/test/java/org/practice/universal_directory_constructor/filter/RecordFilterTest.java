@@ -0,0 +1,41 @@
+package org.practice.universal_directory_constructor.filter;
+
+import org.junit.jupiter.api.Test;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.FieldsType;
+import org.practice.universal_directory_constructor.storage.JsonbLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RecordFilterTest {
+
+    @Test
+    void likePatternMatchesTheTermAsPlainSubstring() {
+        assertEquals("%alpha%", RecordFilter.likePattern("Alpha"));
+        assertEquals("%50\\% off%", RecordFilter.likePattern("50% off"));
+        assertEquals("%snake\\_case%", RecordFilter.likePattern("snake_case"));
+        assertEquals("%c:\\\\temp%", RecordFilter.likePattern("C:\\Temp"));
+    }
+
+    @Test
+    void searchInlinesTheDirectoryAndMatchesEveryFieldIndexExpression() {
+        List<Object> args = new ArrayList<>();
+        var filter = new RecordFilter(7L, "Ab", List.of(field("name", FieldsType.STRING), field("qty", FieldsType.NUMBER)));
+
+        assertEquals("directory_id = 7 and ("
+                + "lower(coalesce(jsonb_extract_path_text(\"values\", 'name'), '')) like ? or "
+                + "lower(coalesce(jsonb_extract_path_text(\"values\", 'qty'), '')) like ?)",
+                filter.toSql(new JsonbLayout(7L), args));
+        assertEquals(List.of("%ab%", "%ab%"), args);
+    }
+
+    private static DirectoryFields field(String name, FieldsType type) {
+        var field = new DirectoryFields();
+        field.setName(name);
+        field.setType(type);
+        return field;
+    }
+}
@@ -0,0 +1,65 @@
+package org.practice.universal_directory_constructor.importer.reader;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRowReaderTest {
+
+    @Test
+    void readsHeaderWithoutBomAndTrimmed() throws IOException {
+        try (var reader = reader("\uFEFFname, code \nAlpha,A1\n")) {
+            assertEquals(List.of("name", "code"), reader.header());
+            assertEquals(Map.of("name", "Alpha", "code", "A1"), reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void unquotesValuesWithSeparatorsAndEscapedQuotes() throws IOException {
+        try (var reader = reader("name,note\n\"Smith, John\",\"say \"\"hi\"\"\"\n\"\",plain\n")) {
+            assertEquals(Map.of("name", "Smith, John", "note", "say \"hi\""), reader.next());
+            assertEquals(Map.of("name", "", "note", "plain"), reader.next());
+        }
+    }
+
+    @Test
+    void handlesCrlfAndMissingFinalNewline() throws IOException {
+        try (var reader = reader("name,code\r\nAlpha,A1\r\nBeta,B2")) {
+            assertEquals(List.of("name", "code"), reader.header());
+            assertEquals(Map.of("name", "Alpha", "code", "A1"), reader.next());
+            assertEquals(Map.of("name", "Beta", "code", "B2"), reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void keepsNewlinesInsideQuotesAndReportsStartingLine() throws IOException {
+        try (var reader = reader("name,note\nAlpha,\"first\r\nsecond\"\n\nBeta,x\n")) {
+            assertEquals(Map.of("name", "Alpha", "note", "first\r\nsecond"), reader.next());
+            assertEquals(2, reader.line());
+            assertEquals(Map.of("name", "Beta", "note", "x"), reader.next());
+            assertEquals(5, reader.line());
+        }
+    }
+
+    @Test
+    void rejectsMalformedInput() throws IOException {
+        assertThrows(RowFormatException.class, () -> reader(""));
+        try (var reader = reader("name,code\nAlpha\n")) {
+            assertThrows(RowFormatException.class, reader::next);
+        }
+        try (var reader = reader("name\n\"open\n")) {
+            assertThrows(RowFormatException.class, reader::next);
+        }
+    }
+
+    private static CsvRowReader reader(String csv) throws IOException {
+        return new CsvRowReader(new StringReader(csv));
+    }
+}
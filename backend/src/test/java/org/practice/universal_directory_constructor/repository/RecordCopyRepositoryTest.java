@@ -0,0 +1,33 @@
+package org.practice.universal_directory_constructor.repository;
+
+import org.junit.jupiter.api.Test;
+import org.practice.universal_directory_constructor.entity.Record;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordCopyRepositoryTest {
+    private final List<Long> sequence = new ArrayList<>(List.of(50L, 150L));
+    private final RecordCopyRepository repository = new RecordCopyRepository(new JdbcTemplate() {
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            return requiredType.cast(sequence.remove(0));
+        }
+    });
+
+    @Test
+    void allocatesSingleIdsFromOneSequenceCallPerBlock() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < Record.ID_ALLOCATION_SIZE + 1; i++) {
+            ids.add(repository.allocateId());
+        }
+
+        assertEquals(1L, (long) ids.get(0));
+        assertEquals(50L, (long) ids.get(Record.ID_ALLOCATION_SIZE - 1));
+        assertEquals(101L, (long) ids.get(Record.ID_ALLOCATION_SIZE));
+        assertTrue(sequence.isEmpty());
+    }
+}
@@ -0,0 +1,41 @@
+package org.practice.universal_directory_constructor.repository;
+
+import org.junit.jupiter.api.Test;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.FieldsType;
+import org.practice.universal_directory_constructor.filter.RecordFilter;
+import org.practice.universal_directory_constructor.storage.JsonbLayout;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordEstimateRepositoryTest {
+    private final List<String> statements = new ArrayList<>();
+    private final List<Object> arguments = new ArrayList<>();
+    private final RecordEstimateRepository repository = new RecordEstimateRepository(new JdbcTemplate() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            statements.add(sql);
+            arguments.addAll(List.of(args));
+            return (List<T>) List.of("Bitmap Heap Scan on record  (cost=12.00..40.00 rows=42 width=4)");
+        }
+    });
+
+    @Test
+    void explainsTheSearchTheTotalIsFor() {
+        var field = new DirectoryFields();
+        field.setName("name");
+        field.setType(FieldsType.STRING);
+
+        long estimate = repository.estimate(new JsonbLayout(3L), new RecordFilter(3L, "x", List.of(field)));
+
+        assertEquals(42, estimate);
+        assertEquals("explain select 1 from record where directory_id = 3 and ("
+                + "lower(coalesce(jsonb_extract_path_text(\"values\", 'name'), '')) like ?)", statements.get(0));
+        assertEquals(List.of("%x%"), arguments);
+    }
+}
@@ -0,0 +1,45 @@
+package org.practice.universal_directory_constructor.repository;
+
+import org.junit.jupiter.api.Test;
+import org.practice.universal_directory_constructor.dto.migration.FieldChangeDTO;
+import org.practice.universal_directory_constructor.dto.migration.FieldChangeType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigrationRepositoryTest {
+    private final List<String> statements = new ArrayList<>();
+    private final SchemaMigrationRepository repository = new SchemaMigrationRepository(new JdbcTemplate() {
+        @Override
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            statements.add(sql);
+            return List.of();
+        }
+    }, JsonMapper.builder().build());
+
+    /**
+     * Once the rename is committed, a PATCH can write the new name on a record whose chunk has not migrated yet.
+     * In jsonb {@code ||} the right operand wins, so the record's own keys have to come last for that value to
+     * survive the chunk.
+     */
+    @Test
+    void renameKeepsValueWrittenUnderNewNameBeforeItsChunk() {
+        repository.apply(new FieldChangeDTO(FieldChangeType.RENAME, "old", "new", null, null), 1L, 0, 100);
+
+        var sql = statements.get(0);
+        assertTrue(sql.contains("set \"values\" = jsonb_build_object('new', \"values\" -> 'old') || (\"values\" - 'old')"),
+                sql);
+        assertTrue(sql.contains("\"values\" -> 'old' is not null"), sql);
+    }
+
+    @Test
+    void renameQuotesFieldNames() {
+        repository.apply(new FieldChangeDTO(FieldChangeType.RENAME, "it's", "it is", null, null), 1L, 0, 100);
+
+        assertTrue(statements.get(0).contains("jsonb_build_object('it is', \"values\" -> 'it''s') || (\"values\" - 'it''s')"));
+    }
+}
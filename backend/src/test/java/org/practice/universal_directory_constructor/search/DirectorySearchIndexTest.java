@@ -0,0 +1,67 @@
+package org.practice.universal_directory_constructor.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectorySearchIndexTest {
+
+    @Test
+    void findsCaseInsensitiveSubstringsAcrossFields() {
+        var index = built(Map.of(
+                1L, Map.of("name", "Alpha Station", "code", "A-1"),
+                2L, Map.of("name", "Beta", "code", "ALP"),
+                3L, Map.of("name", "Gamma")));
+        assertArrayEquals(new long[]{1, 2}, index.search("ALP"));
+        assertArrayEquals(new long[]{1}, index.search("a station"));
+        assertArrayEquals(new long[0], index.search("delta"));
+    }
+
+    @Test
+    void termsShorterThanGramScanAllDocuments() {
+        var index = built(Map.of(1L, Map.of("name", "xy"), 2L, Map.of("name", "yz")));
+        assertArrayEquals(new long[]{1, 2}, index.search("y"));
+        assertArrayEquals(new long[]{2}, index.search("z"));
+    }
+
+    @Test
+    void reflectsPutsAndRemoves() {
+        var index = built(Map.of(1L, Map.of("name", "north")));
+        index.put(2L, Map.of("name", "northwest"));
+        index.put(1L, Map.of("name", "south"));
+        assertArrayEquals(new long[]{2}, index.search("north"));
+        assertTrue(index.remove(2L));
+        assertFalse(index.remove(2L));
+        assertArrayEquals(new long[0], index.search("north"));
+        assertArrayEquals(new long[]{1}, index.search("sou"));
+    }
+
+    @Test
+    void matchesNumbersByPlainText() {
+        var index = built(Map.of(1L, Map.of("price", new BigDecimal("1E+3")), 2L, Map.of("price", 250)));
+        assertArrayEquals(new long[]{1}, index.search("1000"));
+        assertArrayEquals(new long[]{2}, index.search("250"));
+    }
+
+    @Test
+    void treatsLikeWildcardsLiterally() {
+        var index = built(Map.of(
+                1L, Map.of("name", "50% off"),
+                2L, Map.of("name", "500 off"),
+                3L, Map.of("name", "snake_case"),
+                4L, Map.of("name", "snakeXcase")));
+        assertArrayEquals(new long[]{1}, index.search("50%"));
+        assertArrayEquals(new long[]{3}, index.search("e_c"));
+    }
+
+    private static DirectorySearchIndex built(Map<Long, Map<String, Object>> documents) {
+        var index = new DirectorySearchIndex(List.of("name", "code", "price"), 3);
+        index.ensureBuilt(() -> new LinkedHashMap<>(documents));
+        return index;
+    }
+}
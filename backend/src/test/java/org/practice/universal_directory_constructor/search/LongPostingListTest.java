@@ -0,0 +1,58 @@
+package org.practice.universal_directory_constructor.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongPostingListTest {
+
+    @Test
+    void keepsIdsSortedAndUnique() {
+        var list = new LongPostingList();
+        for (long id : new long[]{5, 1, 9, 5, 3, 1, 12}) {
+            list.add(id);
+        }
+        assertArrayEquals(new long[]{1, 3, 5, 9, 12}, list.toArray());
+        assertEquals(5, list.size());
+        assertTrue(list.contains(9));
+        assertFalse(list.contains(4));
+    }
+
+    @Test
+    void removesIdsAndShrinks() {
+        var list = new LongPostingList();
+        for (long id = 0; id < 100; id++) {
+            list.add(id);
+        }
+        assertFalse(list.remove(100));
+        for (long id = 0; id < 95; id++) {
+            assertTrue(list.remove(id));
+        }
+        assertArrayEquals(new long[]{95, 96, 97, 98, 99}, list.toArray());
+        for (long id = 95; id < 100; id++) {
+            list.remove(id);
+        }
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    void intersectsListsOfDifferentSizes() {
+        var small = of(4, 8, 15, 16, 23, 42);
+        var large = new LongPostingList();
+        for (long id = 0; id < 50; id += 2) {
+            large.add(id);
+        }
+        var middle = of(8, 16, 23, 42, 43);
+        assertArrayEquals(new long[]{8, 16, 42}, LongPostingList.intersect(new LongPostingList[]{large, small, middle}));
+        assertArrayEquals(new long[0], LongPostingList.intersect(new LongPostingList[]{small, of(1, 2, 3)}));
+        assertArrayEquals(new long[0], LongPostingList.intersect(new LongPostingList[0]));
+    }
+
+    private static LongPostingList of(long... ids) {
+        var list = new LongPostingList();
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+}
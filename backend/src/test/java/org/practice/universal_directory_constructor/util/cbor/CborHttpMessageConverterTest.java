@@ -0,0 +1,122 @@
+package org.practice.universal_directory_constructor.util.cbor;
+
+import org.junit.jupiter.api.Test;
+import org.practice.universal_directory_constructor.dto.RawRecordDTO;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CborHttpMessageConverterTest {
+    private final CborHttpMessageConverter converter = new CborHttpMessageConverter(JsonMapper.builder().build());
+
+    record Page(List<Item> items, long total) {
+    }
+
+    record Item(String name, BigDecimal price, BigInteger serial, Double ratio) {
+    }
+
+    @Test
+    void writesBeansWithExactNumbers() throws IOException {
+        var page = new Page(List.of(
+                new Item("a", new BigDecimal("12.50"), BigInteger.ONE.shiftLeft(64), 0.1),
+                new Item(null, new BigDecimal("1.2E+3"), BigInteger.TEN, null)), 2);
+
+        Map<Object, Object> first = new LinkedHashMap<>();
+        first.put("name", "a");
+        first.put("price", new BigDecimal("12.50"));
+        first.put("serial", BigInteger.ONE.shiftLeft(64));
+        first.put("ratio", new BigDecimal("0.1"));
+        Map<Object, Object> second = new LinkedHashMap<>();
+        second.put("name", null);
+        second.put("price", new BigDecimal("1.2E+3"));
+        second.put("serial", 10L);
+        second.put("ratio", null);
+        Map<Object, Object> expected = new LinkedHashMap<>();
+        expected.put("items", List.of(first, second));
+        expected.put("total", 2L);
+        assertEquals(expected, write(page));
+    }
+
+    @Test
+    void transcodesRawRecordValues() throws IOException {
+        var record = new RawRecordDTO(1L, "{\"x\":1,\"price\":12.50,\"tags\":[\"a\",null]}", 3L,
+                Map.of("ref", "Berlin"));
+
+        Map<Object, Object> values = new LinkedHashMap<>();
+        values.put("x", 1L);
+        values.put("price", new BigDecimal("12.50"));
+        values.put("tags", Arrays.asList("a", null));
+        Map<Object, Object> expected = new LinkedHashMap<>();
+        expected.put("id", 1L);
+        expected.put("values", values);
+        expected.put("version", 3L);
+        expected.put("labels", Map.of("ref", "Berlin"));
+        assertEquals(expected, write(record));
+    }
+
+    @Test
+    void transcodesRecordPages() throws IOException {
+        var page = new PagedModel<>(new PageImpl<>(List.of(
+                new RawRecordDTO(1L, "{\"big\":18446744073709551616}", 0L),
+                new RawRecordDTO(2L, "{}", 1L)), PageRequest.of(0, 20), 2));
+
+        var decoded = (Map<?, ?>) write(page);
+        assertEquals(List.of(
+                Map.of("id", 1L, "values", Map.of("big", BigInteger.ONE.shiftLeft(64)), "version", 0L),
+                Map.of("id", 2L, "values", Map.of(), "version", 1L)), decoded.get("content"));
+        assertEquals(Map.of("size", 20L, "number", 0L, "totalElements", 2L, "totalPages", 1L), decoded.get("page"));
+    }
+
+    @Test
+    void keepsNonFiniteDoublesAsFloats() throws IOException {
+        var decoded = (List<?>) write(Arrays.asList(Double.NaN, Double.POSITIVE_INFINITY, 2.5));
+        assertTrue(Double.isNaN((Double) decoded.get(0)));
+        assertEquals(Double.POSITIVE_INFINITY, decoded.get(1));
+        assertEquals(new BigDecimal("2.5"), decoded.get(2));
+    }
+
+    @Test
+    void writesBinaryAsByteString() throws IOException {
+        byte[] bytes = {1, 2, 3};
+        assertArrayEquals(bytes, (byte[]) write(bytes));
+    }
+
+    @Test
+    void writesScalarsAndEmptyContainers() throws IOException {
+        assertEquals("text", write("text"));
+        assertEquals(-5L, write(-5));
+        assertEquals(List.of(), write(List.of()));
+        assertEquals(Map.of(), write(Map.of()));
+    }
+
+    private Object write(Object value) throws IOException {
+        var body = new ByteArrayOutputStream();
+        converter.writeInternal(value, value.getClass(), new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return new HttpHeaders();
+            }
+        });
+        return CborReader.decode(body.toByteArray());
+    }
+}
@@ -0,0 +1,165 @@
+package org.practice.universal_directory_constructor.util.cbor;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decoder for the CBOR subset {@link CborWriter} produces, to check encodings by round trip. Integers decode to
+ * {@link Long} or {@link BigInteger}, decimal fractions to {@link BigDecimal} and {@code undefined} to
+ * {@link #UNDEFINED}.
+ */
+final class CborReader {
+    static final Object UNDEFINED = new Object() {
+        @Override
+        public String toString() {
+            return "undefined";
+        }
+    };
+    private static final Object BREAK = new Object();
+
+    private final byte[] bytes;
+    private int position;
+
+    CborReader(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    static Object decode(byte[] bytes) {
+        var reader = new CborReader(bytes);
+        var value = reader.read();
+        if (reader.hasMore()) {
+            throw new IllegalStateException("Trailing bytes after item at " + reader.position);
+        }
+        return value;
+    }
+
+    boolean hasMore() {
+        return position < bytes.length;
+    }
+
+    Object read() {
+        var value = readItem();
+        if (value == BREAK) {
+            throw new IllegalStateException("Unexpected break at " + (position - 1));
+        }
+        return value;
+    }
+
+    private Object readItem() {
+        int initial = bytes[position++] & 0xFF;
+        int major = initial >>> 5;
+        int info = initial & 0x1F;
+        if (major == 7) {
+            return switch (initial) {
+                case 0xF4 -> Boolean.FALSE;
+                case 0xF5 -> Boolean.TRUE;
+                case 0xF6 -> null;
+                case 0xF7 -> UNDEFINED;
+                case 0xFB -> Double.longBitsToDouble(readUnsigned(8).longValue());
+                case 0xFF -> BREAK;
+                default -> throw new IllegalStateException("Unsupported simple value " + initial);
+            };
+        }
+        if (info == 31) {
+            return switch (major) {
+                case 4 -> readItems(-1);
+                case 5 -> readEntries(-1);
+                default -> throw new IllegalStateException("Unsupported indefinite major type " + major);
+            };
+        }
+        var argument = readArgument(info);
+        return switch (major) {
+            case 0 -> integer(argument);
+            case 1 -> integer(argument.negate().subtract(BigInteger.ONE));
+            case 2 -> take(argument.intValueExact());
+            case 3 -> new String(take(argument.intValueExact()), StandardCharsets.UTF_8);
+            case 4 -> readItems(argument.intValueExact());
+            case 5 -> readEntries(argument.intValueExact());
+            default -> readTagged(argument.intValueExact());
+        };
+    }
+
+    private Object readTagged(int tag) {
+        var content = read();
+        switch (tag) {
+            case 2 -> {
+                return integer(new BigInteger(1, (byte[]) content));
+            }
+            case 3 -> {
+                return integer(new BigInteger(1, (byte[]) content).negate().subtract(BigInteger.ONE));
+            }
+            case 4 -> {
+                var parts = (List<?>) content;
+                var exponent = ((Number) parts.get(0)).intValue();
+                var mantissa = parts.get(1) instanceof BigInteger big ? big : BigInteger.valueOf((Long) parts.get(1));
+                return new BigDecimal(mantissa, -exponent);
+            }
+            default -> throw new IllegalStateException("Unsupported tag " + tag);
+        }
+    }
+
+    private List<Object> readItems(int length) {
+        List<Object> items = new ArrayList<>();
+        while (length < 0 || items.size() < length) {
+            var item = readItem();
+            if (item == BREAK) {
+                if (length >= 0) {
+                    throw new IllegalStateException("Break inside a definite-length array");
+                }
+                break;
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    private Map<Object, Object> readEntries(int length) {
+        Map<Object, Object> entries = new LinkedHashMap<>();
+        for (int i = 0; length < 0 || i < length; i++) {
+            var key = readItem();
+            if (key == BREAK) {
+                if (length >= 0) {
+                    throw new IllegalStateException("Break inside a definite-length map");
+                }
+                break;
+            }
+            entries.put(key, read());
+        }
+        return entries;
+    }
+
+    private BigInteger readArgument(int info) {
+        return switch (info) {
+            case 24 -> readUnsigned(1);
+            case 25 -> readUnsigned(2);
+            case 26 -> readUnsigned(4);
+            case 27 -> readUnsigned(8);
+            default -> {
+                if (info > 27) {
+                    throw new IllegalStateException("Unsupported additional information " + info);
+                }
+                yield BigInteger.valueOf(info);
+            }
+        };
+    }
+
+    private BigInteger readUnsigned(int length) {
+        return new BigInteger(1, take(length));
+    }
+
+    private byte[] take(int length) {
+        var taken = Arrays.copyOfRange(bytes, position, position + length);
+        position += length;
+        return taken;
+    }
+
+    private static Object integer(BigInteger value) {
+        return value.bitLength() < 64 ? (Object) value.longValue() : value;
+    }
+}
@@ -0,0 +1,178 @@
+package org.practice.universal_directory_constructor.util.cbor;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CborWriterTest {
+
+    @Test
+    void encodesIntegersLikeRfcExamples() {
+        assertEquals("00", hex(w -> w.writeLong(0)));
+        assertEquals("17", hex(w -> w.writeLong(23)));
+        assertEquals("1818", hex(w -> w.writeLong(24)));
+        assertEquals("1903e8", hex(w -> w.writeLong(1000)));
+        assertEquals("1a000f4240", hex(w -> w.writeLong(1_000_000)));
+        assertEquals("1b000000e8d4a51000", hex(w -> w.writeLong(1_000_000_000_000L)));
+        assertEquals("20", hex(w -> w.writeLong(-1)));
+        assertEquals("3903e7", hex(w -> w.writeLong(-1000)));
+        assertEquals("3b7fffffffffffffff", hex(w -> w.writeLong(Long.MIN_VALUE)));
+    }
+
+    @Test
+    void roundTripsIntegersAtHeadBoundaries() {
+        long[] values = {0, 23, 24, 255, 256, 65535, 65536, 0xFFFFFFFFL, 0x100000000L, Long.MAX_VALUE,
+                -1, -24, -25, -256, -257, -65537, Long.MIN_VALUE};
+        for (long value : values) {
+            assertEquals(value, (long) (Long) roundTrip(w -> w.writeLong(value)));
+        }
+    }
+
+    @Test
+    void writesBignumsBeyondLongRange() {
+        var twoTo64 = BigInteger.ONE.shiftLeft(64);
+        assertEquals("c249010000000000000000", hex(w -> w.writeBigInteger(twoTo64)));
+        assertEquals("c349010000000000000000", hex(w -> w.writeBigInteger(twoTo64.negate().subtract(BigInteger.ONE))));
+
+        var justAboveLong = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+        var justBelowLong = BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE);
+        var huge = new BigInteger("-123456789012345678901234567890123456789");
+        for (BigInteger value : List.of(justAboveLong, justBelowLong, huge, twoTo64)) {
+            assertEquals(value, roundTrip(w -> w.writeBigInteger(value)));
+        }
+        assertEquals(Long.MIN_VALUE, (long) (Long) roundTrip(w -> w.writeBigInteger(BigInteger.valueOf(Long.MIN_VALUE))));
+    }
+
+    @Test
+    void writesDecimalFractionsWithExactScale() {
+        assertEquals("c48221196ab3", hex(w -> w.writeDecimal(new BigDecimal("273.15"))));
+        for (String value : List.of("273.15", "-0.001", "12.50", "1.2E+3", "-7E+5", "1E-40",
+                "123456789012345678901234567890.123456789")) {
+            var decimal = new BigDecimal(value);
+            assertEquals(decimal, roundTrip(w -> w.writeDecimal(decimal)));
+        }
+    }
+
+    @Test
+    void writesIntegralDecimalsAsIntegers() {
+        assertEquals(42L, roundTrip(w -> w.writeDecimal(new BigDecimal("42"))));
+        var big = new BigDecimal("100000000000000000000");
+        assertEquals(big.toBigIntegerExact(), roundTrip(w -> w.writeDecimal(big)));
+    }
+
+    @Test
+    void closesIndefiniteLengthContainers() {
+        assertEquals("9f016161ff", hex(w -> {
+            w.startArray();
+            w.writeLong(1);
+            w.writeString("a");
+            w.end();
+        }));
+        var decoded = roundTrip(w -> {
+            w.startMap();
+            w.writeString("rows");
+            w.startArray();
+            w.startArray(2);
+            w.writeLong(1);
+            w.writeNull();
+            w.startArray();
+            w.end();
+            w.end();
+            w.writeString("done");
+            w.writeBoolean(true);
+            w.end();
+        });
+        Map<Object, Object> expected = new LinkedHashMap<>();
+        expected.put("rows", List.of(Arrays.asList(1L, null), List.of()));
+        expected.put("done", true);
+        assertEquals(expected, decoded);
+    }
+
+    @Test
+    void keepsUndefinedApartFromNull() {
+        assertEquals("f7", hex(CborWriter::writeUndefined));
+        assertEquals("f6", hex(CborWriter::writeNull));
+        assertEquals(CborReader.UNDEFINED, roundTrip(CborWriter::writeUndefined));
+    }
+
+    @Test
+    void encodesStringsAsUtf8AcrossLengthHeads() {
+        for (String value : List.of("", "Zürich ✓", "x".repeat(23), "x".repeat(24), "я".repeat(200), "y".repeat(70_000))) {
+            assertEquals(value, roundTrip(w -> w.writeString(value)));
+        }
+        byte[] bytes = {0, 1, (byte) 0xFF};
+        assertArrayEquals(bytes, (byte[]) roundTrip(w -> w.writeBytes(bytes)));
+    }
+
+    @Test
+    void writesDecodedJsonObjects() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("name", "a");
+        value.put("count", 3);
+        value.put("price", new BigDecimal("9.99"));
+        value.put("ratio", 0.5);
+        value.put("tags", List.of("x", false));
+        value.put("missing", null);
+        Map<Object, Object> expected = new LinkedHashMap<>(value);
+        expected.put("count", 3L);
+        expected.put("tags", List.of("x", false));
+        assertEquals(expected, roundTrip(w -> w.writeObject(value)));
+    }
+
+    @Test
+    void copiesRawSlicesAndGrowsPastInitialCapacity() throws IOException {
+        var source = new CborWriter(1);
+        source.writeString("skip");
+        int from = source.size();
+        source.writeDecimal(new BigDecimal("-1.5"));
+        int to = source.size();
+        var target = new CborWriter(1);
+        target.startArray(1);
+        target.writeRaw(source, from, to);
+        assertEquals(List.of(new BigDecimal("-1.5")), decode(target));
+
+        target.reset();
+        assertEquals(0, target.size());
+        target.writeDouble(Double.NaN);
+        assertTrue(Double.isNaN((Double) decode(target)));
+    }
+
+    private static Object roundTrip(Consumer<CborWriter> write) {
+        var writer = new CborWriter(2);
+        write.accept(writer);
+        try {
+            return decode(writer);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static Object decode(CborWriter writer) throws IOException {
+        var out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        return CborReader.decode(out.toByteArray());
+    }
+
+    private static String hex(Consumer<CborWriter> write) {
+        var writer = new CborWriter();
+        write.accept(writer);
+        var out = new ByteArrayOutputStream();
+        try {
+            writer.writeTo(out);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return HexFormat.of().formatHex(out.toByteArray());
+    }
+}
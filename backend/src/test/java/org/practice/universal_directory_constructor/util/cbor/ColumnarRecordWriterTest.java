@@ -0,0 +1,139 @@
+package org.practice.universal_directory_constructor.util.cbor;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarRecordWriterTest {
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void positionsValuesByFieldsSeenSoFar() throws IOException {
+        var writer = new ColumnarRecordWriter(jsonMapper, List.of(), false, false);
+        writer.writeRow(1L, 0L, "{\"name\":\"a\",\"price\":12.50}", null);
+        writer.writeRow(2L, 3L, "{\"price\":null,\"qty\":7,\"name\":\"b\"}", null);
+
+        var rows = rows(writer);
+        assertEquals(List.of(1L, 0L, "a", new BigDecimal("12.50")), rows.get(0));
+        assertEquals(Arrays.asList(2L, 3L, "b", null, 7L), rows.get(1));
+        assertEquals(List.of("name", "price", "qty"), header(writer).get("fields"));
+        assertEquals(false, header(writer).get("labelled"));
+    }
+
+    @Test
+    void marksAbsentValuesUndefinedAndTrimsTrailingOnes() throws IOException {
+        var writer = new ColumnarRecordWriter(jsonMapper, List.of("a", "b", "c"), false, true);
+        writer.writeRow(1L, 0L, "{\"c\":1}", null);
+        writer.writeRow(2L, 0L, "{\"a\":null}", null);
+        writer.writeRow(3L, 0L, "{}", null);
+        writer.writeRow(4L, 0L, (String) null, null);
+
+        var rows = rows(writer);
+        assertEquals(List.of(1L, 0L, CborReader.UNDEFINED, CborReader.UNDEFINED, 1L), rows.get(0));
+        assertEquals(Arrays.asList(2L, 0L, null), rows.get(1));
+        assertEquals(List.of(3L, 0L), rows.get(2));
+        assertEquals(List.of(4L, 0L), rows.get(3));
+    }
+
+    @Test
+    void skipsUnknownFieldsWhenFixed() throws IOException {
+        var writer = new ColumnarRecordWriter(jsonMapper, List.of("name"), false, true);
+        writer.writeRow(1L, 0L, "{\"extra\":{\"nested\":[1,2]},\"name\":\"a\",\"other\":[3]}", null);
+
+        assertEquals(List.of(List.of(1L, 0L, "a")), rows(writer));
+        assertEquals(List.of("name"), header(writer).get("fields"));
+    }
+
+    @Test
+    void keepsBignumsAndExactDecimals() throws IOException {
+        var writer = new ColumnarRecordWriter(jsonMapper, List.of(), false, false);
+        writer.writeRow(1L, 0L, """
+                {"big":18446744073709551616,"negative":-18446744073709551617,"tiny":1E-40,"exp":1.2E+3,
+                 "scaled":-0.0010,"long":-9223372036854775808}
+                """, null);
+
+        assertEquals(List.of(1L, 0L, BigInteger.ONE.shiftLeft(64),
+                BigInteger.ONE.shiftLeft(64).negate().subtract(BigInteger.ONE), new BigDecimal("1E-40"),
+                new BigDecimal("1.2E+3"), new BigDecimal("-0.0010"), Long.MIN_VALUE), rows(writer).get(0));
+    }
+
+    @Test
+    void writesNestedValuesAsIndefiniteContainers() throws IOException {
+        var writer = new ColumnarRecordWriter(jsonMapper, List.of(), false, false);
+        writer.writeRow(1L, 0L, "{\"tags\":[\"x\",{\"k\":true}]}", null);
+
+        var out = new ByteArrayOutputStream();
+        writer.drain(out);
+        var bytes = out.toByteArray();
+        // [1, 0, [_ "x", {_ "k": true}]]
+        assertEquals((byte) 0x9F, bytes[3]);
+        assertEquals((byte) 0xBF, bytes[6]);
+        assertEquals(List.of(List.of(1L, 0L, List.of("x", Map.of("k", true)))), decodeAll(bytes));
+    }
+
+    @Test
+    void writesLabelsWhenLabelled() throws IOException {
+        var writer = new ColumnarRecordWriter(jsonMapper, List.of(), true, false);
+        writer.writeRow(1L, 2L, "{\"city\":5}", Map.of("city", "Berlin"));
+        writer.writeRow(3L, 4L, "{}", null);
+
+        var rows = rows(writer);
+        assertEquals(List.of(1L, 2L, Map.of("city", "Berlin"), 5L), rows.get(0));
+        assertEquals(Arrays.asList(3L, 4L, null), rows.get(1));
+        assertEquals(true, header(writer).get("labelled"));
+    }
+
+    @Test
+    void encodesDecodedMapsLikeJsonText() throws IOException {
+        var writer = new ColumnarRecordWriter(jsonMapper, List.of(), false, false);
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("price", new BigDecimal("12.50"));
+        values.put("big", BigInteger.ONE.shiftLeft(70));
+        values.put("none", null);
+        writer.writeRow(1L, 0L, values, null);
+        writer.writeRow(2L, 0L, "{\"price\":12.50,\"big\":1180591620717411303424,\"none\":null}", null);
+
+        var rows = rows(writer);
+        assertEquals(rows.get(1).subList(2, 5), rows.get(0).subList(2, 5));
+        assertEquals(0, writer.pending());
+    }
+
+    private static List<List<?>> rows(ColumnarRecordWriter writer) throws IOException {
+        var out = new ByteArrayOutputStream();
+        writer.drain(out);
+        List<List<?>> rows = new ArrayList<>();
+        for (Object row : decodeAll(out.toByteArray())) {
+            rows.add((List<?>) row);
+        }
+        return rows;
+    }
+
+    private static Map<?, ?> header(ColumnarRecordWriter writer) throws IOException {
+        var document = new CborWriter();
+        document.startMap(2);
+        writer.writeHeader(document);
+        var out = new ByteArrayOutputStream();
+        document.writeTo(out);
+        return (Map<?, ?>) CborReader.decode(out.toByteArray());
+    }
+
+    private static List<Object> decodeAll(byte[] bytes) {
+        var reader = new CborReader(bytes);
+        List<Object> items = new ArrayList<>();
+        while (reader.hasMore()) {
+            items.add(reader.read());
+        }
+        return items;
+    }
+}
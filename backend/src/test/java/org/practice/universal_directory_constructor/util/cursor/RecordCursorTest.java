@@ -0,0 +1,54 @@
+package org.practice.universal_directory_constructor.util.cursor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordCursorTest {
+
+    @Test
+    void roundTripsKeysAndNullKey() {
+        var cursor = new RecordCursor("name", true, "Zürich ✓", 42L);
+        assertEquals(cursor, RecordCursor.decode(cursor.encode()));
+        var first = new RecordCursor("id", false, null, 7L);
+        assertEquals(first, RecordCursor.decode(first.encode()));
+    }
+
+    @Test
+    void roundTripsKeysLongerThanModifiedUtfLimit() {
+        var cursor = new RecordCursor("description", false, "ж".repeat(40_000), Long.MAX_VALUE);
+        assertEquals(cursor, RecordCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decodesFirstFormatVersion() throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(1);
+            out.writeUTF("name");
+            out.writeBoolean(false);
+            out.writeBoolean(true);
+            out.writeUTF("abc");
+            out.writeLong(5);
+        }
+        var encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        assertEquals(new RecordCursor("name", false, "abc", 5L), RecordCursor.decode(encoded));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        var valid = new RecordCursor("name", false, "abc", 1L).encode();
+        assertThrows(ResponseStatusException.class, () -> RecordCursor.decode("not base64!"));
+        assertThrows(ResponseStatusException.class, () -> RecordCursor.decode(valid.substring(0, valid.length() - 4)));
+        assertThrows(ResponseStatusException.class, () -> RecordCursor.decode(
+                Base64.getUrlEncoder().encodeToString(new byte[]{2, 0x7f, 0, 0, 0})));
+        assertThrows(ResponseStatusException.class, () -> RecordCursor.decode(
+                Base64.getUrlEncoder().encodeToString(new byte[]{9})));
+    }
+}
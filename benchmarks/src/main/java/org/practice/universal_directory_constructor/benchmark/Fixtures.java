@@ -0,0 +1,55 @@
+package org.practice.universal_directory_constructor.benchmark;
+
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.FieldsType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Synthetic directory schemas and record payloads shared by the benchmarks.
+ * Fields cycle STRING, NUMBER, DIRECTORY_REFERENCE so every normalizer is exercised.
+ */
+final class Fixtures {
+    private static final FieldsType[] TYPES = FieldsType.values();
+
+    private Fixtures() {
+    }
+
+    static List<DirectoryFields> schema(int width) {
+        List<DirectoryFields> fields = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+            FieldsType type = TYPES[i % TYPES.length];
+            fields.add(new DirectoryFields("field_" + i, type, type == FieldsType.DIRECTORY_REFERENCE ? 1L : null));
+        }
+        return fields;
+    }
+
+    /**
+     * Values as they arrive from the JSON body: numbers and record ids are still strings.
+     */
+    static Map<String, Object> validValues(List<DirectoryFields> fields) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            DirectoryFields field = fields.get(i);
+            values.put(field.getName(), switch (field.getType()) {
+                case STRING -> "  value number " + i + "  ";
+                case NUMBER -> Integer.toString(i * 17) + ".25";
+                case DIRECTORY_REFERENCE -> Integer.toString(1000 + i);
+            });
+        }
+        return values;
+    }
+
+    /**
+     * Valid everywhere except the last field, so validation walks the whole schema before failing.
+     */
+    static Map<String, Object> invalidValues(List<DirectoryFields> fields) {
+        Map<String, Object> values = validValues(fields);
+        DirectoryFields last = fields.get(fields.size() - 1);
+        values.put(last.getName(), last.getType() == FieldsType.STRING ? " " : "not a number");
+        return values;
+    }
+}
@@ -0,0 +1,70 @@
+package org.practice.universal_directory_constructor.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.practice.universal_directory_constructor.dto.DirectoryDTO;
+import org.practice.universal_directory_constructor.dto.DirectoryDTOCreate;
+import org.practice.universal_directory_constructor.dto.DirectoryFieldsDTO;
+import org.practice.universal_directory_constructor.dto.RecordDTO;
+import org.practice.universal_directory_constructor.entity.Directory;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.Record;
+import org.practice.universal_directory_constructor.mapper.DirectoryMapper;
+import org.practice.universal_directory_constructor.mapper.DirectoryMapperImpl;
+import org.practice.universal_directory_constructor.mapper.RecordMapper;
+import org.practice.universal_directory_constructor.mapper.RecordMapperImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "100"})
+    int width;
+
+    private final RecordMapper recordMapper = new RecordMapperImpl();
+    private final DirectoryMapper directoryMapper = new DirectoryMapperImpl();
+    private Directory directory;
+    private Record record;
+    private RecordDTO recordDTO;
+    private DirectoryDTOCreate directoryCreate;
+
+    @Setup
+    public void setUp() {
+        List<DirectoryFields> fields = Fixtures.schema(width);
+        directory = new Directory();
+        directory.setId(1L);
+        directory.setCode("benchmark");
+        directory.setName("Benchmark");
+        directory.setFields(fields);
+        record = new Record(42L, directory, Fixtures.validValues(fields), 0L);
+        recordDTO = new RecordDTO(null, Fixtures.validValues(fields));
+        directoryCreate = new DirectoryDTOCreate("Benchmark", fields.stream()
+                .map(f -> new DirectoryFieldsDTO(f.getName(), f.getType(), f.getDirectoryId()))
+                .toList(), null, null);
+    }
+
+    @Benchmark
+    public RecordDTO recordToDTO() {
+        return recordMapper.toDTO(record);
+    }
+
+    @Benchmark
+    public Record recordToEntity() {
+        return recordMapper.toEntity(directory, recordDTO);
+    }
+
+    @Benchmark
+    public DirectoryDTO directoryToDTO() {
+        return directoryMapper.toDTO(directory);
+    }
+
+    @Benchmark
+    public Directory directoryToEntity() {
+        return directoryMapper.toEntity(directoryCreate);
+    }
+}
@@ -0,0 +1,48 @@
+package org.practice.universal_directory_constructor.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.entity.Record;
+import org.practice.universal_directory_constructor.filter.RecordFilter;
+import org.practice.universal_directory_constructor.storage.JsonbLayout;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the JPA specification only; rendering the predicates needs a live criteria builder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordFilterBenchmark {
+    @Param({"10", "100"})
+    int width;
+
+    @Param({"", "Value Number 4"})
+    String search;
+
+    private List<DirectoryFields> fields;
+    private final JsonbLayout layout = new JsonbLayout(1L);
+
+    @Setup
+    public void setUp() {
+        fields = Fixtures.schema(width);
+    }
+
+    @Benchmark
+    public Specification<Record> toSpecification() {
+        return new RecordFilter(1L, search, fields).toSpecification();
+    }
+
+    @Benchmark
+    public String toSql() {
+        List<Object> args = new ArrayList<>(2);
+        return new RecordFilter(1L, search, fields).toSql(layout, args);
+    }
+}
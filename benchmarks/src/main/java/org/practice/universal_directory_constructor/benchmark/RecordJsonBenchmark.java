@@ -0,0 +1,47 @@
+package org.practice.universal_directory_constructor.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.practice.universal_directory_constructor.dto.RecordDTO;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson round trip of a single record body, using the same Jackson 3 mapper family as the web layer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordJsonBenchmark {
+    @Param({"10", "100", "1000"})
+    int width;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private RecordDTO record;
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        JsonMapper mapper = JsonMapper.builder().build();
+        writer = mapper.writerFor(RecordDTO.class);
+        reader = mapper.readerFor(RecordDTO.class);
+        record = new RecordDTO(42L, Fixtures.validValues(Fixtures.schema(width)));
+        json = writer.writeValueAsBytes(record);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return writer.writeValueAsBytes(record);
+    }
+
+    @Benchmark
+    public RecordDTO deserialize() {
+        return reader.readValue(json);
+    }
+}
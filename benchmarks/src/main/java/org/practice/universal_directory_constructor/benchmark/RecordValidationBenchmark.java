@@ -0,0 +1,76 @@
+package org.practice.universal_directory_constructor.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.practice.universal_directory_constructor.entity.DirectoryFields;
+import org.practice.universal_directory_constructor.schema.CompiledSchema;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every invocation validates a fresh copy of the payload, because validation normalizes values in place;
+ * {@link #copyOnly()} measures that copy so it can be subtracted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordValidationBenchmark {
+    @Param({"10", "100", "1000"})
+    int width;
+
+    private CompiledSchema schema;
+    private Map<String, Object> valid;
+    private Map<String, Object> invalid;
+
+    @Setup
+    public void setUp() {
+        List<DirectoryFields> fields = Fixtures.schema(width);
+        schema = CompiledSchema.compile(1L, 0, fields);
+        valid = Fixtures.validValues(fields);
+        invalid = Fixtures.invalidValues(fields);
+    }
+
+    @Benchmark
+    public Map<String, Object> copyOnly() {
+        return new HashMap<>(valid);
+    }
+
+    /**
+     * The record write path: the schema comes compiled from the cache and violations end in a 400.
+     */
+    @Benchmark
+    public Map<String, Object> validateOrThrowValid() {
+        Map<String, Object> values = new HashMap<>(valid);
+        schema.validateOrThrow(values);
+        return values;
+    }
+
+    @Benchmark
+    public Object validateOrThrowInvalid() {
+        Map<String, Object> values = new HashMap<>(invalid);
+        try {
+            schema.validateOrThrow(values);
+            return values;
+        } catch (ResponseStatusException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object compiledSchemaValid() {
+        Map<String, Object> values = new HashMap<>(valid);
+        return schema.validate(values);
+    }
+
+    @Benchmark
+    public Object compiledSchemaInvalid() {
+        Map<String, Object> values = new HashMap<>(invalid);
+        return schema.validate(values);
+    }
+}
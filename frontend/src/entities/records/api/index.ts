@@ -2,7 +2,9 @@ import type {PageResponse, RecordDTO} from "@/entities/records/model/types.ts";
 import {http} from "@/shared/api/http.ts";
 
 export const recordsApi = {
-    async list(directoryId: number, params?: { page?: number; size?: number; search?: string }) {
+    async list(directoryId: number, params?: {
+        page?: number; size?: number; search?: string; searchMode?: 'SUBSTRING' | 'FULL_TEXT'; expand?: string
+    }) {
         const { data } = await http.get<PageResponse<RecordDTO>>(`/api/records/${directoryId}`, { params })
         return data
     },
@@ -12,6 +14,17 @@ export const recordsApi = {
         return data
     },
 
+    // merge patch of the changed fields; with a version the server answers 412 if the record moved on since
+    async patch(recordId: number, values: Record<string, unknown>, version?: number) {
+        const { data } = await http.patch<RecordDTO>(`/api/records/${recordId}`, values, {
+            headers: {
+                'Content-Type': 'application/merge-patch+json',
+                ...(version != null ? { 'If-Match': `"${version}"` } : {}),
+            },
+        })
+        return data
+    },
+
     async delete(recordId: number) {
         await http.delete(`/api/records/${recordId}`)
     },
@@ -1,6 +1,8 @@
 export interface RecordDTO {
     id: number | null,
-    values: Record<string, unknown>
+    values: Record<string, unknown>,
+    version?: number,
+    labels?: Record<string, string | null>
 }
 
 export interface PageInfo {
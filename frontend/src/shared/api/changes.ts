@@ -0,0 +1,33 @@
+import { http } from '@/shared/api/http.ts'
+
+export type RecordChange = {
+    directoryId: number
+    recordId: number
+    type: 'SAVED' | 'DELETED'
+    values?: Record<string, unknown>
+}
+
+export type ChangeBatch = {
+    directories: number[]
+    records: RecordChange[]
+}
+
+// Opens the server-sent change feed; returns a function that closes it.
+export function subscribeChanges(
+    directoryIds: number[],
+    handlers: { onChanges: (batch: ChangeBatch) => void; onResync: () => void },
+): () => void {
+    const url = new URL('/api/changes', http.defaults.baseURL)
+    directoryIds.forEach(id => url.searchParams.append('directoryId', String(id)))
+
+    const source = new EventSource(url)
+    let opened = false
+    source.onopen = () => {
+        // events sent while the browser was reconnecting are lost
+        if (opened) handlers.onResync()
+        opened = true
+    }
+    source.addEventListener('changes', e => handlers.onChanges(JSON.parse((e as MessageEvent).data)))
+    source.addEventListener('resync', () => handlers.onResync())
+    return () => source.close()
+}
@@ -1,5 +1,23 @@
 import axios from 'axios';
 
+const READ_PRIMARY_UNTIL = 'X-Read-Primary-Until'
+
 export const http = axios.create({
     baseURL: import.meta.env.VITE_API_URL ?? 'http://localhost:8080',
-});
\ No newline at end of file
+});
+
+// with read replicas the server pins this client's reads to the primary for a short while after each write
+let readPrimaryUntil: string | null = null
+
+http.interceptors.request.use(config => {
+    if (readPrimaryUntil && Number(readPrimaryUntil) > Date.now()) {
+        config.headers.set(READ_PRIMARY_UNTIL, readPrimaryUntil)
+    }
+    return config
+})
+
+http.interceptors.response.use(response => {
+    const until = response.headers[READ_PRIMARY_UNTIL.toLowerCase()]
+    if (until) readPrimaryUntil = String(until)
+    return response
+})